@@ -5,20 +5,62 @@ import com.herron.exchange.common.api.common.api.trading.OrderbookEvent;
 import com.herron.exchange.common.api.common.cache.ReferenceDataCache;
 import com.herron.exchange.common.api.common.kafka.KafkaBroadcastHandler;
 import com.herron.exchange.common.api.common.messages.trading.StateChange;
+import com.herron.exchange.common.api.common.wrappers.ThreadWrapper;
+import com.herron.exchange.tradingengine.server.admission.AdmissionControl;
 import com.herron.exchange.tradingengine.server.matchingengine.MatchingEngine;
+import com.herron.exchange.tradingengine.server.sharding.HashShardRouter;
+import com.herron.exchange.tradingengine.server.sharding.OrderbookLoad;
+import com.herron.exchange.tradingengine.server.sharding.ShardRouter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
 
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+
+/**
+ * Routes orderbook events onto a fixed number of matching shards, every shard is one {@link MatchingEngine} with a
+ * single matching thread owning the orderbooks routed to it. An orderbook is placed by the {@link ShardRouter} on its
+ * first event and stays on that shard until it is migrated.
+ * <p>
+ * The routes are kept in an immutable table which is built once reference data has been loaded and replaced, copy on
+ * write, only when an orderbook turns up that is not in it. Queueing an event is then a single lookup in a plain map.
+ */
 public class TradingEngine {
     private static final Logger LOGGER = LoggerFactory.getLogger(TradingEngine.class);
-    private final Map<String, MatchingEngine> partitionKeyToMatchingEngine = new ConcurrentHashMap<>();
-    private final KafkaBroadcastHandler broadcastHandler;
+    private final Map<Integer, MatchingEngine> shardToMatchingEngine = new ConcurrentHashMap<>();
+    private volatile Map<String, OrderbookRoute> orderbookIdToRoute = Map.of();
+    private final IntFunction<MatchingEngine> matchingEngineFactory;
+    private final ShardRouter shardRouter;
+    private final AdmissionControl admissionControl;
+    private final ScheduledExecutorService queueLoggerThread = newSingleThreadScheduledExecutor(new ThreadWrapper("queue-logger"));
 
     public TradingEngine(KafkaBroadcastHandler broadcastHandler) {
-        this.broadcastHandler = broadcastHandler;
+        this(shard -> new MatchingEngine(getShardName(shard), broadcastHandler), new HashShardRouter(Runtime.getRuntime().availableProcessors()), AdmissionControl.disabled());
+    }
+
+    /**
+     * @param matchingEngineFactory creates the matching engine of a shard, given the shard number.
+     */
+    public TradingEngine(IntFunction<MatchingEngine> matchingEngineFactory, ShardRouter shardRouter, AdmissionControl admissionControl) {
+        this.matchingEngineFactory = matchingEngineFactory;
+        this.shardRouter = shardRouter;
+        this.admissionControl = admissionControl;
+        LOGGER.info("Routing orderbooks onto {} matching shards.", shardRouter.nrOfShards());
+        queueLoggerThread.scheduleAtFixedRate(this::logQueueSizes, 0, 60, TimeUnit.SECONDS);
+    }
+
+    public static String getShardName(int shard) {
+        return "shard-" + shard;
     }
 
     public void queueOrder(Order order) {
@@ -29,13 +71,187 @@ public class TradingEngine {
         queueMessage(stateChange);
     }
 
+    /**
+     * Moves the orderbook to {@code targetShard} while it keeps trading. Events queued before the move are matched
+     * on the current shard and events queued after it on the target shard, after the orderbook state has been handed
+     * over, so the event order of the orderbook is kept.
+     *
+     * @return false if the orderbook already lives on the target shard.
+     */
+    public boolean migrateOrderbook(String orderbookId, int targetShard) {
+        if (targetShard < 0 || targetShard >= shardRouter.nrOfShards()) {
+            throw new IllegalArgumentException(String.format("Shard %s does not exist, there are %s shards.", targetShard, shardRouter.nrOfShards()));
+        }
+
+        var route = getRoute(orderbookId);
+        if (route == null) {
+            throw new IllegalArgumentException(String.format("Orderbook %s does not exist.", orderbookId));
+        }
+        synchronized (route) {
+            var source = route.routedShard;
+            if (source.shard() == targetShard) {
+                return false;
+            }
+            LOGGER.info("Migrating orderbook {} from shard {} to shard {}.", orderbookId, source.shard(), targetShard);
+            var target = getOrCreateMatchingEngine(targetShard);
+            route.beginMigration();
+            try {
+                source.matchingEngine().migrateOrderbook(orderbookId, target);
+                route.routedShard = new RoutedShard(targetShard, target);
+            } finally {
+                route.endMigration();
+            }
+            return true;
+        }
+    }
+
+    public int getShard(String orderbookId) {
+        var route = getRoute(orderbookId);
+        if (route == null) {
+            return shardRouter.getShard(orderbookId);
+        }
+        return route.routedShard.shard();
+    }
+
+    public int nrOfShards() {
+        return shardRouter.nrOfShards();
+    }
+
+    public int getQueueSize(int shard) {
+        var matchingEngine = shardToMatchingEngine.get(shard);
+        return matchingEngine == null ? 0 : matchingEngine.getQueueSize();
+    }
+
+    /**
+     * Number of events queued per orderbook since the previous call.
+     */
+    public List<OrderbookLoad> drainOrderbookLoads() {
+        var routingTable = orderbookIdToRoute;
+        List<OrderbookLoad> orderbookLoads = new ArrayList<>(routingTable.size());
+        routingTable.forEach((orderbookId, route) ->
+                orderbookLoads.add(new OrderbookLoad(orderbookId, route.routedShard.shard(), route.nrOfEvents.getAndSet(0))));
+        return orderbookLoads;
+    }
+
+    /**
+     * No lock is taken, the route is entered instead so that a migration never overtakes an event which has already
+     * been routed to the previous shard, see {@link OrderbookRoute#enter()}.
+     */
     private void queueMessage(OrderbookEvent orderbookEvent) {
-        var id = ReferenceDataCache.getCache().getOrderbookData(orderbookEvent.orderbookId()).instrument().product().productName();
-        partitionKeyToMatchingEngine.computeIfAbsent(id, key -> {
-                    var matchingEngine = new MatchingEngine(key, broadcastHandler);
-                    matchingEngine.init();
-                    return matchingEngine;
-                })
-                .queueMessage(orderbookEvent);
+        var route = getRoute(orderbookEvent.orderbookId());
+        if (route == null) {
+            LOGGER.error("Orderbook {} does not exist, queue orderbook event {}.", orderbookEvent.orderbookId(), orderbookEvent);
+            return;
+        }
+        route.nrOfEvents.incrementAndGet();
+        var matchingEngine = route.enter();
+        try {
+            if (orderbookEvent instanceof Order order && !admissionControl.isAdmitted(order, matchingEngine)) {
+                matchingEngine.rejectOrder(order, admissionControl.getRejectReason(matchingEngine));
+            } else {
+                matchingEngine.queueMessage(orderbookEvent);
+            }
+        } finally {
+            route.exit();
+        }
+    }
+
+    /**
+     * Routes every orderbook in the reference data which is not yet routed, orderbooks already routed keep their
+     * shard.
+     */
+    public synchronized void updateRoutingTable() {
+        Map<String, OrderbookRoute> routingTable = new HashMap<>(orderbookIdToRoute);
+        for (var orderbookData : ReferenceDataCache.getCache().getOrderbookData()) {
+            routingTable.computeIfAbsent(orderbookData.orderbookId(), this::createRoute);
+        }
+        orderbookIdToRoute = Map.copyOf(routingTable);
+        LOGGER.info("Routing table holds {} orderbooks.", routingTable.size());
+    }
+
+    private OrderbookRoute getRoute(String orderbookId) {
+        var route = orderbookIdToRoute.get(orderbookId);
+        return route != null ? route : addRoute(orderbookId);
+    }
+
+    private synchronized OrderbookRoute addRoute(String orderbookId) {
+        var route = orderbookIdToRoute.get(orderbookId);
+        if (route != null || ReferenceDataCache.getCache().getOrderbookData(orderbookId) == null) {
+            return route;
+        }
+        updateRoutingTable();
+        return orderbookIdToRoute.get(orderbookId);
+    }
+
+    private OrderbookRoute createRoute(String orderbookId) {
+        int shard = shardRouter.getShard(orderbookId);
+        var matchingEngine = getOrCreateMatchingEngine(shard);
+        matchingEngine.createOrderbook(orderbookId);
+        return new OrderbookRoute(shard, matchingEngine);
+    }
+
+    private MatchingEngine getOrCreateMatchingEngine(int shard) {
+        return shardToMatchingEngine.computeIfAbsent(shard, key -> {
+            var matchingEngine = matchingEngineFactory.apply(key);
+            admissionControl.register(key, matchingEngine);
+            matchingEngine.init();
+            return matchingEngine;
+        });
+    }
+
+    private void logQueueSizes() {
+        shardToMatchingEngine.forEach((shard, matchingEngine) -> LOGGER.info("Message Queue size of {}: {}, publisher queue size: {}", matchingEngine.getId(), matchingEngine.getQueueSize(), matchingEngine.getPublisherQueueSize()));
+    }
+
+    private record RoutedShard(int shard, MatchingEngine matchingEngine) {
+    }
+
+    /**
+     * Producers announce themselves in {@code nrOfProducers} before they read the shard and the migrating thread raises
+     * {@code isMigrating} before it counts them. Both are volatile, so either the producer sees the migration and
+     * backs off, or the migration sees the producer and waits for it to finish queueing on the previous shard.
+     * Migrations of one route are serialized by its monitor, producers never take it.
+     */
+    private static class OrderbookRoute {
+        private final AtomicInteger nrOfProducers = new AtomicInteger();
+        private final AtomicLong nrOfEvents = new AtomicLong();
+        private volatile boolean isMigrating = false;
+        private volatile RoutedShard routedShard;
+
+        private OrderbookRoute(int shard, MatchingEngine matchingEngine) {
+            this.routedShard = new RoutedShard(shard, matchingEngine);
+        }
+
+        /**
+         * @return the matching engine to queue to until {@link #exit()}, waits while the orderbook is being handed
+         * over.
+         */
+        private MatchingEngine enter() {
+            while (true) {
+                nrOfProducers.incrementAndGet();
+                if (!isMigrating) {
+                    return routedShard.matchingEngine();
+                }
+                nrOfProducers.decrementAndGet();
+                while (isMigrating) {
+                    Thread.onSpinWait();
+                }
+            }
+        }
+
+        private void exit() {
+            nrOfProducers.decrementAndGet();
+        }
+
+        private void beginMigration() {
+            isMigrating = true;
+            while (nrOfProducers.get() > 0) {
+                Thread.onSpinWait();
+            }
+        }
+
+        private void endMigration() {
+            isMigrating = false;
+        }
     }
 }
@@ -1,6 +1,7 @@
 package com.herron.exchange.tradingengine.server;
 
 import com.herron.exchange.common.api.common.bootloader.Bootloader;
+import com.herron.exchange.tradingengine.server.consumers.BinaryOrderDataConsumer;
 import com.herron.exchange.tradingengine.server.consumers.ReferenceDataConsumer;
 import com.herron.exchange.tradingengine.server.consumers.UserOrderDataConsumer;
 import com.herron.exchange.tradingengine.server.matchingengine.StateChangeOrchestrator;
@@ -10,22 +11,30 @@ public class TradingEngineBootloader extends Bootloader {
     private final ReferenceDataConsumer referenceDataConsumer;
     private final StateChangeOrchestrator stateChangeOrchestrator;
     private final UserOrderDataConsumer userOrderDataConsumer;
+    private final BinaryOrderDataConsumer binaryOrderDataConsumer;
+    private final TradingEngine tradingEngine;
 
     public TradingEngineBootloader(ReferenceDataConsumer referenceDataConsumer,
                                    StateChangeOrchestrator stateChangeOrchestrator,
-                                   UserOrderDataConsumer userOrderDataConsumer) {
+                                   UserOrderDataConsumer userOrderDataConsumer,
+                                   BinaryOrderDataConsumer binaryOrderDataConsumer,
+                                   TradingEngine tradingEngine) {
         super("Trading-Engine");
         this.referenceDataConsumer = referenceDataConsumer;
+        this.tradingEngine = tradingEngine;
         this.stateChangeOrchestrator = stateChangeOrchestrator;
         this.userOrderDataConsumer = userOrderDataConsumer;
+        this.binaryOrderDataConsumer = binaryOrderDataConsumer;
     }
 
     @Override
     protected void bootloaderInit() {
         referenceDataConsumer.consumerInit();
         referenceDataConsumer.await();
+        tradingEngine.updateRoutingTable();
         stateChangeOrchestrator.scheduleStateChanges();
         userOrderDataConsumer.init();
+        binaryOrderDataConsumer.init();
         bootloaderComplete();
     }
 }
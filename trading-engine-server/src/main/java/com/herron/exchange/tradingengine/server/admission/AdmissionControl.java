@@ -0,0 +1,93 @@
+package com.herron.exchange.tradingengine.server.admission;
+
+import com.herron.exchange.common.api.common.api.trading.Order;
+import com.herron.exchange.common.api.common.enums.OrderOperationEnum;
+import com.herron.exchange.tradingengine.server.matchingengine.MatchingEngine;
+import com.herron.exchange.tradingengine.server.matchingengine.concurrency.QueueWatermarkListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Keeps the matching engine queues between their watermarks, either by pausing ingress or by rejecting new orders,
+ * so that an overload shows up as back pressure instead of ever growing latency.
+ * <p>
+ * Order entry partitions are not keyed by orderbook, so a partition feeds every shard. Pausing therefore applies to all
+ * ingress as soon as any shard crosses its high watermark, including the orders of shards which are not behind.
+ */
+public class AdmissionControl {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AdmissionControl.class);
+    private final AdmissionMode mode;
+    private final int highWatermark;
+    private final int lowWatermark;
+    private final Set<Integer> shardsAboveHighWatermark = new HashSet<>();
+    private final List<IngressListener> ingressListeners = new CopyOnWriteArrayList<>();
+
+    public AdmissionControl(AdmissionMode mode, int highWatermark, int lowWatermark) {
+        if (mode != AdmissionMode.NONE && (lowWatermark < 0 || lowWatermark >= highWatermark)) {
+            throw new IllegalArgumentException(String.format("Low watermark %s has to be below high watermark %s.", lowWatermark, highWatermark));
+        }
+        this.mode = mode;
+        this.highWatermark = highWatermark;
+        this.lowWatermark = lowWatermark;
+    }
+
+    public static AdmissionControl disabled() {
+        return new AdmissionControl(AdmissionMode.NONE, Integer.MAX_VALUE, 0);
+    }
+
+    public AdmissionMode getMode() {
+        return mode;
+    }
+
+    public void addIngressListener(IngressListener ingressListener) {
+        ingressListeners.add(ingressListener);
+    }
+
+    public void register(int shard, MatchingEngine matchingEngine) {
+        if (mode == AdmissionMode.NONE) {
+            return;
+        }
+        matchingEngine.setWatermarks(highWatermark, lowWatermark, new QueueWatermarkListener() {
+            @Override
+            public void onHighWatermark() {
+                AdmissionControl.this.onHighWatermark(shard);
+            }
+
+            @Override
+            public void onLowWatermark() {
+                AdmissionControl.this.onLowWatermark(shard);
+            }
+        });
+    }
+
+    public boolean isAdmitted(Order order, MatchingEngine matchingEngine) {
+        return mode != AdmissionMode.REJECT ||
+                order.orderOperation() != OrderOperationEnum.INSERT ||
+                !matchingEngine.isAboveHighWatermark();
+    }
+
+    public String getRejectReason(MatchingEngine matchingEngine) {
+        return String.format("%s is above its high watermark of %s queued events.", matchingEngine.getId(), highWatermark);
+    }
+
+    synchronized void onHighWatermark(int shard) {
+        LOGGER.warn("Shard {} reached its high watermark of {} queued events.", shard, highWatermark);
+        if (shardsAboveHighWatermark.add(shard) && shardsAboveHighWatermark.size() == 1 && mode == AdmissionMode.PAUSE) {
+            LOGGER.warn("Pausing ingress.");
+            ingressListeners.forEach(IngressListener::pause);
+        }
+    }
+
+    synchronized void onLowWatermark(int shard) {
+        LOGGER.info("Shard {} drained to its low watermark of {} queued events.", shard, lowWatermark);
+        if (shardsAboveHighWatermark.remove(shard) && shardsAboveHighWatermark.isEmpty() && mode == AdmissionMode.PAUSE) {
+            LOGGER.info("Resuming ingress.");
+            ingressListeners.forEach(IngressListener::resume);
+        }
+    }
+}
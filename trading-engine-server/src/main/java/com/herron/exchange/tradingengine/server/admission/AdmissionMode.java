@@ -0,0 +1,17 @@
+package com.herron.exchange.tradingengine.server.admission;
+
+public enum AdmissionMode {
+    /**
+     * Queues are only bounded by their capacity.
+     */
+    NONE,
+    /**
+     * Ingress is paused while any shard is above its high watermark, until all shards are back at their low watermark.
+     */
+    PAUSE,
+    /**
+     * New orders for a shard above its high watermark are cancelled with cause {@code REJECTED}, other events are
+     * still queued.
+     */
+    REJECT
+}
@@ -0,0 +1,8 @@
+package com.herron.exchange.tradingengine.server.admission;
+
+public interface IngressListener {
+
+    void pause();
+
+    void resume();
+}
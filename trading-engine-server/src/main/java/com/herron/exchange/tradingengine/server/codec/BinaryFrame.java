@@ -0,0 +1,10 @@
+package com.herron.exchange.tradingengine.server.codec;
+
+import com.herron.exchange.common.api.common.api.trading.OrderbookEvent;
+
+/**
+ * @param publisherId    the shard whose publisher wrote the frame, several shards can publish to the same partition.
+ * @param sequenceNumber gap free per publisher and topic partition, so a consumer tracks one sequence per publisher id.
+ */
+public record BinaryFrame(int publisherId, long sequenceNumber, OrderbookEvent message) {
+}
@@ -0,0 +1,199 @@
+package com.herron.exchange.tradingengine.server.codec;
+
+import com.herron.exchange.common.api.common.api.trading.OrderbookEvent;
+import com.herron.exchange.common.api.common.enums.*;
+import com.herron.exchange.common.api.common.messages.common.*;
+import com.herron.exchange.common.api.common.messages.trading.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.herron.exchange.common.api.common.enums.QuoteTypeEnum.*;
+import static com.herron.exchange.tradingengine.server.codec.BinaryMessageEncoder.NULL_STRING;
+import static com.herron.exchange.tradingengine.server.codec.BinaryMessageEncoder.SCHEMA_VERSION;
+
+/**
+ * Decodes messages written by {@link BinaryMessageEncoder}. Stateless and thread safe.
+ */
+public class BinaryMessageDecoder {
+    private static final EventType[] EVENT_TYPES = EventType.values();
+    private static final OrderSideEnum[] ORDER_SIDES = OrderSideEnum.values();
+    private static final TimeInForceEnum[] TIME_IN_FORCES = TimeInForceEnum.values();
+    private static final OrderOperationEnum[] ORDER_OPERATIONS = OrderOperationEnum.values();
+    private static final OrderOperationCauseEnum[] ORDER_OPERATION_CAUSES = OrderOperationCauseEnum.values();
+    private static final TradeType[] TRADE_TYPES = TradeType.values();
+    private static final TradingStatesEnum[] TRADING_STATES = TradingStatesEnum.values();
+
+    public BinaryFrame decode(byte[] bytes) {
+        var buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        int publisherId = Short.toUnsignedInt(buffer.getShort());
+        long sequenceNumber = buffer.getLong();
+        return new BinaryFrame(publisherId, sequenceNumber, decodeMessage(buffer));
+    }
+
+    /**
+     * Decodes one message from the buffer's position, leaving the position after it.
+     */
+    public OrderbookEvent decodeMessage(ByteBuffer buffer) {
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        MessageTemplate template = MessageTemplate.fromId(buffer.get());
+        byte schemaVersion = buffer.get();
+        if (schemaVersion != SCHEMA_VERSION) {
+            throw new IllegalArgumentException(String.format("Unsupported schema version %s, expected %s.", schemaVersion, SCHEMA_VERSION));
+        }
+        EventType eventType = getEnum(buffer, EVENT_TYPES);
+        Timestamp timeOfEvent = getTimestamp(buffer);
+        String orderbookId = getString(buffer);
+
+        return switch (template) {
+            case LIMIT_ORDER -> readLimitOrder(buffer, eventType, timeOfEvent, orderbookId);
+            case MARKET_ORDER -> readMarketOrder(buffer, eventType, timeOfEvent, orderbookId);
+            case TRADE -> readTrade(buffer, eventType, timeOfEvent, orderbookId);
+            case TRADE_EXECUTION -> readTradeExecution(buffer, eventType, timeOfEvent, orderbookId);
+            case TOP_OF_BOOK -> readTopOfBook(buffer, eventType, timeOfEvent, orderbookId);
+            case STATE_CHANGE -> ImmutableStateChange.builder()
+                    .eventType(eventType)
+                    .timeOfEvent(timeOfEvent)
+                    .orderbookId(orderbookId)
+                    .tradeState(getEnum(buffer, TRADING_STATES))
+                    .build();
+        };
+    }
+
+    private OrderbookEvent readLimitOrder(ByteBuffer buffer, EventType eventType, Timestamp timeOfEvent, String orderbookId) {
+        return ImmutableLimitOrder.builder()
+                .eventType(eventType)
+                .timeOfEvent(timeOfEvent)
+                .orderbookId(orderbookId)
+                .orderId(getString(buffer))
+                .instrumentId(getString(buffer))
+                .orderSide(getEnum(buffer, ORDER_SIDES))
+                .timeInForce(getEnum(buffer, TIME_IN_FORCES))
+                .orderOperation(getEnum(buffer, ORDER_OPERATIONS))
+                .orderOperationCause(getEnum(buffer, ORDER_OPERATION_CAUSES))
+                .price(getPrice(buffer))
+                .currentVolume(getVolume(buffer))
+                .initialVolume(getVolume(buffer))
+                .participant(getParticipant(buffer))
+                .build();
+    }
+
+    private OrderbookEvent readMarketOrder(ByteBuffer buffer, EventType eventType, Timestamp timeOfEvent, String orderbookId) {
+        return ImmutableMarketOrder.builder()
+                .eventType(eventType)
+                .timeOfEvent(timeOfEvent)
+                .orderbookId(orderbookId)
+                .orderId(getString(buffer))
+                .instrumentId(getString(buffer))
+                .orderSide(getEnum(buffer, ORDER_SIDES))
+                .timeInForce(getEnum(buffer, TIME_IN_FORCES))
+                .orderOperation(getEnum(buffer, ORDER_OPERATIONS))
+                .orderOperationCause(getEnum(buffer, ORDER_OPERATION_CAUSES))
+                .price(getPrice(buffer))
+                .currentVolume(getVolume(buffer))
+                .initialVolume(getVolume(buffer))
+                .participant(getParticipant(buffer))
+                .build();
+    }
+
+    private OrderbookEvent readTrade(ByteBuffer buffer, EventType eventType, Timestamp timeOfEvent, String orderbookId) {
+        return ImmutableTrade.builder()
+                .eventType(eventType)
+                .timeOfEvent(timeOfEvent)
+                .orderbookId(orderbookId)
+                .tradeId(getString(buffer))
+                .instrumentId(getString(buffer))
+                .bidOrderId(getString(buffer))
+                .askOrderId(getString(buffer))
+                .bidParticipant(getParticipant(buffer))
+                .askParticipant(getParticipant(buffer))
+                .isBidSideAggressor(buffer.get() == 1)
+                .price(getPrice(buffer))
+                .volume(getVolume(buffer))
+                .tradeType(getEnum(buffer, TRADE_TYPES))
+                .build();
+    }
+
+    private OrderbookEvent readTradeExecution(ByteBuffer buffer, EventType eventType, Timestamp timeOfEvent, String orderbookId) {
+        int nrOfMessages = buffer.getInt();
+        if (nrOfMessages < 0 || nrOfMessages > buffer.remaining()) {
+            throw new IllegalArgumentException(String.format("Invalid trade execution message count %s.", nrOfMessages));
+        }
+        List<OrderbookEvent> messages = new ArrayList<>(nrOfMessages);
+        for (int i = 0; i < nrOfMessages; i++) {
+            messages.add(decodeMessage(buffer));
+        }
+        return ImmutableTradeExecution.builder()
+                .eventType(eventType)
+                .timeOfEvent(timeOfEvent)
+                .orderbookId(orderbookId)
+                .messages(messages)
+                .build();
+    }
+
+    private OrderbookEvent readTopOfBook(ByteBuffer buffer, EventType eventType, Timestamp timeOfEvent, String orderbookId) {
+        return ImmutableTopOfBook.builder()
+                .eventType(eventType)
+                .timeOfEvent(timeOfEvent)
+                .orderbookId(orderbookId)
+                .lastQuote(getQuote(buffer, orderbookId, LAST_PRICE))
+                .bidQuote(getQuote(buffer, orderbookId, BID_PRICE))
+                .askQuote(getQuote(buffer, orderbookId, ASK_PRICE))
+                .build();
+    }
+
+    private PriceQuote getQuote(ByteBuffer buffer, String orderbookId, QuoteTypeEnum quoteType) {
+        if (buffer.get() == 0) {
+            return null;
+        }
+        return ImmutablePriceQuote.builder()
+                .orderbookId(orderbookId)
+                .quoteType(quoteType)
+                .eventType(getEnum(buffer, EVENT_TYPES))
+                .timeOfEvent(getTimestamp(buffer))
+                .price(getPrice(buffer))
+                .build();
+    }
+
+    private static Participant getParticipant(ByteBuffer buffer) {
+        String memberId = getString(buffer);
+        String userId = getString(buffer);
+        if (memberId == null && userId == null) {
+            return null;
+        }
+        return new Participant(memberId == null ? null : new Member(memberId), userId == null ? null : new User(userId));
+    }
+
+    private static Timestamp getTimestamp(ByteBuffer buffer) {
+        long timeStampMs = buffer.getLong();
+        return timeStampMs == Long.MIN_VALUE ? null : Timestamp.from(timeStampMs);
+    }
+
+    private static Price getPrice(ByteBuffer buffer) {
+        double value = buffer.getDouble();
+        return Double.isNaN(value) ? null : Price.create(value);
+    }
+
+    private static Volume getVolume(ByteBuffer buffer) {
+        double value = buffer.getDouble();
+        return Double.isNaN(value) ? null : Volume.create(value);
+    }
+
+    private static <E extends Enum<E>> E getEnum(ByteBuffer buffer, E[] values) {
+        int ordinal = Byte.toUnsignedInt(buffer.get()) - 1;
+        return ordinal < 0 ? null : values[ordinal];
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = Short.toUnsignedInt(buffer.getShort());
+        if (length == NULL_STRING) {
+            return null;
+        }
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+}
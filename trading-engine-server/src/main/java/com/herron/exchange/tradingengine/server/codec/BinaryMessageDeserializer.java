@@ -0,0 +1,15 @@
+package com.herron.exchange.tradingengine.server.codec;
+
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * For consumers of the binary topics.
+ */
+public class BinaryMessageDeserializer implements Deserializer<BinaryFrame> {
+    private final BinaryMessageDecoder decoder = new BinaryMessageDecoder();
+
+    @Override
+    public BinaryFrame deserialize(String topic, byte[] data) {
+        return data == null ? null : decoder.decode(data);
+    }
+}
@@ -0,0 +1,308 @@
+package com.herron.exchange.tradingengine.server.codec;
+
+import com.herron.exchange.common.api.common.api.trading.Order;
+import com.herron.exchange.common.api.common.api.trading.OrderbookEvent;
+import com.herron.exchange.common.api.common.messages.common.Participant;
+import com.herron.exchange.common.api.common.messages.common.Price;
+import com.herron.exchange.common.api.common.messages.common.Timestamp;
+import com.herron.exchange.common.api.common.messages.common.Volume;
+import com.herron.exchange.common.api.common.messages.trading.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encodes orderbook events into a fixed field layout. The size of a frame is computed before it is written, so it is
+ * encoded in one pass either into an array of exactly that size or into a buffer owned by the encoder which is reused
+ * from message to message. Not thread safe, use one encoder per thread.
+ * <p>
+ * A frame is {@code publisherId:u16 sequenceNumber:i64} followed by one message. Every message starts with the header
+ * {@code template:u8 schemaVersion:u8 eventType:u8 timeOfEvent:i64 orderbookId:str} followed by the fields of its
+ * template, a trade execution is an i32 message count followed by its messages. Strings are a u16 length and UTF-8
+ * bytes, prices and volumes are f64, enums are u8 ordinal + 1 with 0 for null. Enums are encoded by ordinal, so
+ * producer and consumer have to agree on the common-api version, which is what the schema version guards.
+ */
+public class BinaryMessageEncoder {
+    public static final byte SCHEMA_VERSION = 2;
+    public static final int MAX_PUBLISHER_ID = 0xFFFF;
+    static final int NULL_STRING = 0xFFFF;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int FRAME_HEADER_LENGTH = 2 + 8;
+    private static final int MESSAGE_HEADER_LENGTH = 1 + 1 + 1 + 8;
+
+    private final int publisherId;
+    private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_CAPACITY).order(ByteOrder.LITTLE_ENDIAN);
+
+    public BinaryMessageEncoder() {
+        this(0);
+    }
+
+    /**
+     * @param publisherId written into every frame, sequence numbers are only gap free per publisher.
+     */
+    public BinaryMessageEncoder(int publisherId) {
+        if (publisherId < 0 || publisherId > MAX_PUBLISHER_ID) {
+            throw new IllegalArgumentException(String.format("Publisher id %s is outside 0..%s.", publisherId, MAX_PUBLISHER_ID));
+        }
+        this.publisherId = publisherId;
+    }
+
+    public static boolean supports(Object message) {
+        return MessageTemplate.of(message) != null;
+    }
+
+    /**
+     * Encodes the event as a frame into a byte array of exactly its size, which is handed to the producer as it is.
+     */
+    public byte[] encodeToBytes(long sequenceNumber, OrderbookEvent event) {
+        int length = encodedLength(event);
+        byte[] frame = new byte[length];
+        write(sequenceNumber, event, ByteBuffer.wrap(frame).order(ByteOrder.LITTLE_ENDIAN));
+        return frame;
+    }
+
+    /**
+     * Encodes the event as a frame into the encoder's buffer, valid until the next call. The buffer is sized up front
+     * and only grows when a frame does not fit.
+     *
+     * @return the number of bytes written from the start of {@link #buffer()}.
+     */
+    public int encode(long sequenceNumber, OrderbookEvent event) {
+        int length = encodedLength(event);
+        if (length > buffer.capacity()) {
+            buffer = ByteBuffer.allocate(Integer.highestOneBit(length - 1) << 1).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        buffer.clear();
+        write(sequenceNumber, event, buffer);
+        return length;
+    }
+
+    /**
+     * Encodes the event as a frame at the position of the target buffer, leaving the position after it.
+     *
+     * @return the number of bytes written.
+     */
+    public int encode(long sequenceNumber, OrderbookEvent event, ByteBuffer target) {
+        int length = encodedLength(event);
+        if (target.remaining() < length) {
+            throw new IllegalArgumentException(String.format("Frame of %s bytes does not fit the %s bytes remaining.", length, target.remaining()));
+        }
+        write(sequenceNumber, event, target.order(ByteOrder.LITTLE_ENDIAN));
+        return length;
+    }
+
+    private void write(long sequenceNumber, OrderbookEvent event, ByteBuffer target) {
+        target.putShort((short) publisherId);
+        target.putLong(sequenceNumber);
+        write(target, event);
+    }
+
+    public ByteBuffer buffer() {
+        return buffer;
+    }
+
+    /**
+     * @return the size of the frame the event encodes to.
+     */
+    public static int encodedLength(OrderbookEvent event) {
+        return FRAME_HEADER_LENGTH + messageLength(event);
+    }
+
+    private static int messageLength(OrderbookEvent event) {
+        MessageTemplate template = MessageTemplate.of(event);
+        if (template == null) {
+            throw new IllegalArgumentException(String.format("No binary layout for %s.", event));
+        }
+        int length = MESSAGE_HEADER_LENGTH + stringLength(event.orderbookId());
+        return length + switch (template) {
+            case LIMIT_ORDER, MARKET_ORDER -> orderLength((Order) event);
+            case TRADE -> tradeLength((Trade) event);
+            case TRADE_EXECUTION -> tradeExecutionLength((TradeExecution) event);
+            case TOP_OF_BOOK -> topOfBookLength((TopOfBook) event);
+            case STATE_CHANGE -> 1;
+        };
+    }
+
+    private static int orderLength(Order order) {
+        return stringLength(order.orderId()) + stringLength(order.instrumentId()) + 4 + 8 + 8 + 8 + participantLength(order.participant());
+    }
+
+    private static int tradeLength(Trade trade) {
+        return stringLength(trade.tradeId()) +
+                stringLength(trade.instrumentId()) +
+                stringLength(trade.bidOrderId()) +
+                stringLength(trade.askOrderId()) +
+                participantLength(trade.bidParticipant()) +
+                participantLength(trade.askParticipant()) +
+                1 + 8 + 8 + 1;
+    }
+
+    private static int tradeExecutionLength(TradeExecution tradeExecution) {
+        int length = 4;
+        for (var message : tradeExecution.messages()) {
+            length += messageLength(message);
+        }
+        return length;
+    }
+
+    private static int topOfBookLength(TopOfBook topOfBook) {
+        return quoteLength(topOfBook.lastQuote()) + quoteLength(topOfBook.bidQuote()) + quoteLength(topOfBook.askQuote());
+    }
+
+    private static int quoteLength(PriceQuote quote) {
+        return quote == null ? 1 : 1 + 1 + 8 + 8;
+    }
+
+    private static int participantLength(Participant participant) {
+        if (participant == null) {
+            return 4;
+        }
+        return stringLength(participant.member() == null ? null : participant.member().memberId()) +
+                stringLength(participant.user() == null ? null : participant.user().userId());
+    }
+
+    private static int stringLength(String value) {
+        if (value == null) {
+            return 2;
+        }
+        int length = utf8Length(value);
+        if (length >= NULL_STRING) {
+            throw new IllegalArgumentException(String.format("String of %s bytes is too long to encode.", length));
+        }
+        return 2 + length;
+    }
+
+    /**
+     * Length of the value as written by {@link String#getBytes}, which replaces an unpaired surrogate with one byte.
+     */
+    private static int utf8Length(String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private static void write(ByteBuffer buffer, OrderbookEvent event) {
+        MessageTemplate template = MessageTemplate.of(event);
+        buffer.put(template.getId());
+        buffer.put(SCHEMA_VERSION);
+        putEnum(buffer, event.eventType());
+        putTimestamp(buffer, event.timeOfEvent());
+        putString(buffer, event.orderbookId());
+
+        switch (template) {
+            case LIMIT_ORDER, MARKET_ORDER -> writeOrder(buffer, (Order) event);
+            case TRADE -> writeTrade(buffer, (Trade) event);
+            case TRADE_EXECUTION -> writeTradeExecution(buffer, (TradeExecution) event);
+            case TOP_OF_BOOK -> writeTopOfBook(buffer, (TopOfBook) event);
+            case STATE_CHANGE -> putEnum(buffer, ((StateChange) event).tradeState());
+        }
+    }
+
+    private static void writeOrder(ByteBuffer buffer, Order order) {
+        putString(buffer, order.orderId());
+        putString(buffer, order.instrumentId());
+        putEnum(buffer, order.orderSide());
+        putEnum(buffer, order.timeInForce());
+        putEnum(buffer, order.orderOperation());
+        putEnum(buffer, order.orderOperationCause());
+        putPrice(buffer, order.price());
+        putVolume(buffer, order.currentVolume());
+        putVolume(buffer, order.initialVolume());
+        putParticipant(buffer, order.participant());
+    }
+
+    private static void writeTrade(ByteBuffer buffer, Trade trade) {
+        putString(buffer, trade.tradeId());
+        putString(buffer, trade.instrumentId());
+        putString(buffer, trade.bidOrderId());
+        putString(buffer, trade.askOrderId());
+        putParticipant(buffer, trade.bidParticipant());
+        putParticipant(buffer, trade.askParticipant());
+        buffer.put((byte) (trade.isBidSideAggressor() ? 1 : 0));
+        putPrice(buffer, trade.price());
+        putVolume(buffer, trade.volume());
+        putEnum(buffer, trade.tradeType());
+    }
+
+    private static void writeTradeExecution(ByteBuffer buffer, TradeExecution tradeExecution) {
+        var messages = tradeExecution.messages();
+        buffer.putInt(messages.size());
+        for (var message : messages) {
+            write(buffer, message);
+        }
+    }
+
+    private static void writeTopOfBook(ByteBuffer buffer, TopOfBook topOfBook) {
+        putQuote(buffer, topOfBook.lastQuote());
+        putQuote(buffer, topOfBook.bidQuote());
+        putQuote(buffer, topOfBook.askQuote());
+    }
+
+    private static void putQuote(ByteBuffer buffer, PriceQuote quote) {
+        if (quote == null) {
+            buffer.put((byte) 0);
+            return;
+        }
+        buffer.put((byte) 1);
+        putEnum(buffer, quote.eventType());
+        putTimestamp(buffer, quote.timeOfEvent());
+        putPrice(buffer, quote.price());
+    }
+
+    private static void putParticipant(ByteBuffer buffer, Participant participant) {
+        if (participant == null) {
+            putString(buffer, null);
+            putString(buffer, null);
+            return;
+        }
+        putString(buffer, participant.member() == null ? null : participant.member().memberId());
+        putString(buffer, participant.user() == null ? null : participant.user().userId());
+    }
+
+    private static void putTimestamp(ByteBuffer buffer, Timestamp timestamp) {
+        buffer.putLong(timestamp == null ? Long.MIN_VALUE : timestamp.getTimeStampMs());
+    }
+
+    private static void putPrice(ByteBuffer buffer, Price price) {
+        buffer.putDouble(price == null ? Double.NaN : price.getRealValue());
+    }
+
+    private static void putVolume(ByteBuffer buffer, Volume volume) {
+        buffer.putDouble(volume == null ? Double.NaN : volume.getRealValue());
+    }
+
+    private static void putEnum(ByteBuffer buffer, Enum<?> value) {
+        buffer.put((byte) (value == null ? 0 : value.ordinal() + 1));
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putShort((short) NULL_STRING);
+            return;
+        }
+        int length = utf8Length(value);
+        buffer.putShort((short) length);
+        if (length == value.length()) {
+            for (int i = 0; i < length; i++) {
+                buffer.put((byte) value.charAt(i));
+            }
+        } else {
+            buffer.put(value.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
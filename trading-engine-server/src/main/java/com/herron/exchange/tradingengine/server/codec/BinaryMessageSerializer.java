@@ -0,0 +1,45 @@
+package com.herron.exchange.tradingengine.server.codec;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Value serializer of the producer. Frames already encoded by {@link BinaryMessageEncoder} are sent as they are with a
+ * {@value #CONTENT_TYPE_HEADER} header so consumers can tell the formats apart, everything else goes to the fallback
+ * serializer.
+ */
+public class BinaryMessageSerializer implements Serializer<Object> {
+    public static final String CONTENT_TYPE_HEADER = "content-type";
+    public static final String BINARY_CONTENT_TYPE = "application/x-herron-binary";
+    private static final byte[] BINARY_CONTENT_TYPE_BYTES = BINARY_CONTENT_TYPE.getBytes(StandardCharsets.UTF_8);
+
+    private final Serializer<Object> fallbackSerializer;
+
+    public BinaryMessageSerializer(Serializer<Object> fallbackSerializer) {
+        this.fallbackSerializer = fallbackSerializer;
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        if (data instanceof byte[] frame) {
+            return frame;
+        }
+        return fallbackSerializer.serialize(topic, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        if (data instanceof byte[] frame) {
+            headers.add(CONTENT_TYPE_HEADER, BINARY_CONTENT_TYPE_BYTES);
+            return frame;
+        }
+        return fallbackSerializer.serialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        fallbackSerializer.close();
+    }
+}
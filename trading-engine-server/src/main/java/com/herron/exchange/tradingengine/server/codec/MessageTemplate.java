@@ -0,0 +1,64 @@
+package com.herron.exchange.tradingengine.server.codec;
+
+import com.herron.exchange.common.api.common.api.trading.Order;
+import com.herron.exchange.common.api.common.enums.OrderTypeEnum;
+import com.herron.exchange.common.api.common.messages.trading.StateChange;
+import com.herron.exchange.common.api.common.messages.trading.TopOfBook;
+import com.herron.exchange.common.api.common.messages.trading.Trade;
+import com.herron.exchange.common.api.common.messages.trading.TradeExecution;
+
+/**
+ * Identifies the layout of an encoded message, written as the first byte of every message.
+ */
+public enum MessageTemplate {
+    LIMIT_ORDER(1),
+    MARKET_ORDER(2),
+    TRADE(3),
+    TRADE_EXECUTION(4),
+    TOP_OF_BOOK(5),
+    STATE_CHANGE(6);
+
+    private static final MessageTemplate[] ID_TO_TEMPLATE = new MessageTemplate[7];
+
+    static {
+        for (var template : values()) {
+            ID_TO_TEMPLATE[template.id] = template;
+        }
+    }
+
+    private final byte id;
+
+    MessageTemplate(int id) {
+        this.id = (byte) id;
+    }
+
+    public byte getId() {
+        return id;
+    }
+
+    public static MessageTemplate fromId(byte id) {
+        MessageTemplate template = id > 0 && id < ID_TO_TEMPLATE.length ? ID_TO_TEMPLATE[id] : null;
+        if (template == null) {
+            throw new IllegalArgumentException(String.format("Unknown message template %s.", id));
+        }
+        return template;
+    }
+
+    /**
+     * @return the template of the message, or null if the message has no binary layout.
+     */
+    public static MessageTemplate of(Object message) {
+        if (message instanceof Order order) {
+            return order.orderType() == OrderTypeEnum.MARKET ? MARKET_ORDER : LIMIT_ORDER;
+        } else if (message instanceof Trade) {
+            return TRADE;
+        } else if (message instanceof TradeExecution) {
+            return TRADE_EXECUTION;
+        } else if (message instanceof TopOfBook) {
+            return TOP_OF_BOOK;
+        } else if (message instanceof StateChange) {
+            return STATE_CHANGE;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,230 @@
+package com.herron.exchange.tradingengine.server.codec;
+
+import com.herron.exchange.common.api.common.api.trading.Order;
+import com.herron.exchange.common.api.common.enums.*;
+import com.herron.exchange.common.api.common.messages.common.*;
+import com.herron.exchange.common.api.common.messages.trading.ImmutableLimitOrder;
+import com.herron.exchange.common.api.common.messages.trading.ImmutableMarketOrder;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import static com.herron.exchange.tradingengine.server.codec.BinaryMessageEncoder.NULL_STRING;
+import static com.herron.exchange.tradingengine.server.codec.BinaryMessageEncoder.SCHEMA_VERSION;
+
+/**
+ * Reads an order frame written by {@link BinaryMessageEncoder} in place, straight from the record's byte array. Wrapping
+ * only locates the variable length fields, nothing is copied or allocated until {@link #toOrder()} materializes the
+ * order the engine works with. Not thread safe, one flyweight is reused per consuming thread.
+ */
+public class OrderFlyweight {
+    private static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle DOUBLE = MethodHandles.byteArrayViewVarHandle(double[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle SHORT = MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final EventType[] EVENT_TYPES = EventType.values();
+    private static final OrderSideEnum[] ORDER_SIDES = OrderSideEnum.values();
+    private static final TimeInForceEnum[] TIME_IN_FORCES = TimeInForceEnum.values();
+    private static final OrderOperationEnum[] ORDER_OPERATIONS = OrderOperationEnum.values();
+    private static final OrderOperationCauseEnum[] ORDER_OPERATION_CAUSES = OrderOperationCauseEnum.values();
+
+    private static final int PUBLISHER_ID_OFFSET = 0;
+    private static final int SEQUENCE_NUMBER_OFFSET = 2;
+    private static final int TEMPLATE_OFFSET = 10;
+    private static final int SCHEMA_VERSION_OFFSET = 11;
+    private static final int EVENT_TYPE_OFFSET = 12;
+    private static final int TIME_OF_EVENT_OFFSET = 13;
+    private static final int ORDERBOOK_ID_OFFSET = 21;
+
+    private byte[] buffer;
+    private int offset;
+    private MessageTemplate template;
+    private int orderIdOffset;
+    private int instrumentIdOffset;
+    private int fixedFieldsOffset;
+    private int memberIdOffset;
+    private int userIdOffset;
+
+    /**
+     * @throws IllegalArgumentException if the frame does not hold an order of the supported schema version.
+     */
+    public OrderFlyweight wrap(byte[] buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.offset = offset;
+        if (offset < 0 || length < 0 || offset + length > buffer.length) {
+            throw new IllegalArgumentException(String.format("Frame of %s bytes at %s is outside a buffer of %s bytes.", length, offset, buffer.length));
+        }
+        if (length < ORDERBOOK_ID_OFFSET + 2) {
+            throw new IllegalArgumentException(String.format("Frame of %s bytes is too short for an order.", length));
+        }
+        template = MessageTemplate.fromId(buffer[offset + TEMPLATE_OFFSET]);
+        if (template != MessageTemplate.LIMIT_ORDER && template != MessageTemplate.MARKET_ORDER) {
+            throw new IllegalArgumentException(String.format("Frame holds a %s, not an order.", template));
+        }
+        if (buffer[offset + SCHEMA_VERSION_OFFSET] != SCHEMA_VERSION) {
+            throw new IllegalArgumentException(String.format("Unsupported schema version %s, expected %s.", buffer[offset + SCHEMA_VERSION_OFFSET], SCHEMA_VERSION));
+        }
+        int end = offset + length;
+        orderIdOffset = skipString(offset + ORDERBOOK_ID_OFFSET, end);
+        instrumentIdOffset = skipString(orderIdOffset, end);
+        fixedFieldsOffset = skipString(instrumentIdOffset, end);
+        memberIdOffset = fixedFieldsOffset + 4 + 3 * 8;
+        userIdOffset = skipString(memberIdOffset, end);
+        skipString(userIdOffset, end);
+        return this;
+    }
+
+    public int publisherId() {
+        return Short.toUnsignedInt((short) SHORT.get(buffer, offset + PUBLISHER_ID_OFFSET));
+    }
+
+    public long sequenceNumber() {
+        return (long) LONG.get(buffer, offset + SEQUENCE_NUMBER_OFFSET);
+    }
+
+    public OrderTypeEnum orderType() {
+        return template == MessageTemplate.MARKET_ORDER ? OrderTypeEnum.MARKET : OrderTypeEnum.LIMIT;
+    }
+
+    public EventType eventType() {
+        return getEnum(offset + EVENT_TYPE_OFFSET, EVENT_TYPES);
+    }
+
+    public long timeOfEventMs() {
+        return (long) LONG.get(buffer, offset + TIME_OF_EVENT_OFFSET);
+    }
+
+    public String orderbookId() {
+        return getString(offset + ORDERBOOK_ID_OFFSET);
+    }
+
+    public String orderId() {
+        return getString(orderIdOffset);
+    }
+
+    public String instrumentId() {
+        return getString(instrumentIdOffset);
+    }
+
+    public OrderSideEnum orderSide() {
+        return getEnum(fixedFieldsOffset, ORDER_SIDES);
+    }
+
+    public TimeInForceEnum timeInForce() {
+        return getEnum(fixedFieldsOffset + 1, TIME_IN_FORCES);
+    }
+
+    public OrderOperationEnum orderOperation() {
+        return getEnum(fixedFieldsOffset + 2, ORDER_OPERATIONS);
+    }
+
+    public OrderOperationCauseEnum orderOperationCause() {
+        return getEnum(fixedFieldsOffset + 3, ORDER_OPERATION_CAUSES);
+    }
+
+    public double price() {
+        return (double) DOUBLE.get(buffer, fixedFieldsOffset + 4);
+    }
+
+    public double currentVolume() {
+        return (double) DOUBLE.get(buffer, fixedFieldsOffset + 12);
+    }
+
+    public double initialVolume() {
+        return (double) DOUBLE.get(buffer, fixedFieldsOffset + 20);
+    }
+
+    public Order toOrder() {
+        var participant = toParticipant();
+        if (template == MessageTemplate.MARKET_ORDER) {
+            return ImmutableMarketOrder.builder()
+                    .eventType(eventType())
+                    .timeOfEvent(toTimestamp(timeOfEventMs()))
+                    .orderbookId(orderbookId())
+                    .orderId(orderId())
+                    .instrumentId(instrumentId())
+                    .orderSide(orderSide())
+                    .timeInForce(timeInForce())
+                    .orderOperation(orderOperation())
+                    .orderOperationCause(orderOperationCause())
+                    .price(toPrice(price()))
+                    .currentVolume(toVolume(currentVolume()))
+                    .initialVolume(toVolume(initialVolume()))
+                    .participant(participant)
+                    .build();
+        }
+        return ImmutableLimitOrder.builder()
+                .eventType(eventType())
+                .timeOfEvent(toTimestamp(timeOfEventMs()))
+                .orderbookId(orderbookId())
+                .orderId(orderId())
+                .instrumentId(instrumentId())
+                .orderSide(orderSide())
+                .timeInForce(timeInForce())
+                .orderOperation(orderOperation())
+                .orderOperationCause(orderOperationCause())
+                .price(toPrice(price()))
+                .currentVolume(toVolume(currentVolume()))
+                .initialVolume(toVolume(initialVolume()))
+                .participant(participant)
+                .build();
+    }
+
+    private Participant toParticipant() {
+        String memberId = getString(memberIdOffset);
+        String userId = getString(userIdOffset);
+        if (memberId == null && userId == null) {
+            return null;
+        }
+        return new Participant(memberId == null ? null : new Member(memberId), userId == null ? null : new User(userId));
+    }
+
+    private static Timestamp toTimestamp(long timeStampMs) {
+        return timeStampMs == Long.MIN_VALUE ? null : Timestamp.from(timeStampMs);
+    }
+
+    private static Price toPrice(double value) {
+        return Double.isNaN(value) ? null : Price.create(value);
+    }
+
+    private static Volume toVolume(double value) {
+        return Double.isNaN(value) ? null : Volume.create(value);
+    }
+
+    private <E extends Enum<E>> E getEnum(int index, E[] values) {
+        int ordinal = Byte.toUnsignedInt(buffer[index]) - 1;
+        if (ordinal >= values.length) {
+            throw new IllegalArgumentException(String.format("Unknown %s ordinal %s.", values.getClass().getComponentType().getSimpleName(), ordinal));
+        }
+        return ordinal < 0 ? null : values[ordinal];
+    }
+
+    private int stringLength(int index) {
+        return Short.toUnsignedInt((short) SHORT.get(buffer, index));
+    }
+
+    /**
+     * Every length is checked against the end of the frame before it is followed, so a corrupt length fails the wrap
+     * instead of reading past the frame.
+     */
+    private int skipString(int index, int end) {
+        if (index + 2 > end) {
+            throw new IllegalArgumentException("Order frame is truncated.");
+        }
+        int length = stringLength(index);
+        int next = index + 2 + (length == NULL_STRING ? 0 : length);
+        if (next > end) {
+            throw new IllegalArgumentException(String.format("String of %s bytes at %s runs past the end of the order frame.", length, index - offset));
+        }
+        return next;
+    }
+
+    private String getString(int index) {
+        int length = stringLength(index);
+        if (length == NULL_STRING) {
+            return null;
+        }
+        return new String(buffer, index + 2, length, StandardCharsets.UTF_8);
+    }
+}
@@ -7,10 +7,12 @@ import com.herron.exchange.common.api.common.kafka.KafkaBroadcastProducer;
 import com.herron.exchange.common.api.common.kafka.KafkaConsumerClient;
 import com.herron.exchange.common.api.common.kafka.model.KafkaSubscriptionDetails;
 import com.herron.exchange.common.api.common.messages.common.PartitionKey;
+import com.herron.exchange.tradingengine.server.codec.BinaryMessageSerializer;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.config.TopicConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
@@ -19,6 +21,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.*;
+import org.springframework.kafka.support.TopicPartitionOffset;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 import org.springframework.stereotype.Component;
 
@@ -29,7 +32,10 @@ import java.util.stream.Collectors;
 
 @Configuration
 public class KafkaConfig {
-    private static final String GROUP_ID = "trading-engine";
+    public static final String INDICATIVE_AUCTION_PRICE_TOPIC = "indicative-auction-price";
+    public static final String MARKET_BY_LEVEL_TOPIC = "market-by-level";
+    public static final String USER_ORDER_DATA_BINARY_TOPIC = "user-order-data-binary";
+    static final String GROUP_ID = "trading-engine";
 
     @Bean
     public KafkaBroadcastHandler kafkaBroadcastHandler(KafkaTemplate<String, Object> kafkaTemplate, KafkaConfig.KafkaProducerConfig config) {
@@ -50,15 +56,24 @@ public class KafkaConfig {
         return new DefaultKafkaConsumerFactory<>(configProps);
     }
 
+    @Bean
+    public ConsumerFactory<String, byte[]> binaryConsumerFactory(@Value("${kafka.bootstrap-servers}") String bootstrapServers) {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        return new DefaultKafkaConsumerFactory<>(configProps, new StringDeserializer(), new ByteArrayDeserializer());
+    }
+
     @Bean
     public ProducerFactory<String, Object> producerFactory(@Value("${kafka.bootstrap-servers}") String bootstrapServers,
-                                                           @Value("${kafka.producer.properties.max-request-size}") String maxRequestSize) {
+                                                           @Value("${kafka.producer.properties.max-request-size}") String maxRequestSize,
+                                                           @Value("${kafka.producer.properties.linger-ms:0}") String lingerMs,
+                                                           @Value("${kafka.producer.properties.batch-size:16384}") String batchSize) {
         Map<String, Object> configProps = new HashMap<>();
-        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.MAX_REQUEST_SIZE_CONFIG, maxRequestSize);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
-        return new DefaultKafkaProducerFactory<>(configProps);
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        return new DefaultKafkaProducerFactory<>(configProps, new StringSerializer(), new BinaryMessageSerializer(new JsonSerializer<>()));
     }
 
     @Bean
@@ -96,6 +111,26 @@ public class KafkaConfig {
                 .build();
     }
 
+    @Bean
+    public NewTopic indicativeAuctionPriceTopic(@Value("${kafka.producer.topic.indicative-auction-price.nr-of-partitions:1}") int nrOfPartitions,
+                                                @Value("${kafka.producer.topic.indicative-auction-price.max-message-bytes}") String maxMessageBytes) {
+        return TopicBuilder
+                .name(INDICATIVE_AUCTION_PRICE_TOPIC)
+                .partitions(nrOfPartitions)
+                .config(TopicConfig.MAX_MESSAGE_BYTES_CONFIG, maxMessageBytes)
+                .build();
+    }
+
+    @Bean
+    public NewTopic marketByLevelTopic(@Value("${kafka.producer.topic.market-by-level.nr-of-partitions:1}") int nrOfPartitions,
+                                       @Value("${kafka.producer.topic.market-by-level.max-message-bytes}") String maxMessageBytes) {
+        return TopicBuilder
+                .name(MARKET_BY_LEVEL_TOPIC)
+                .partitions(nrOfPartitions)
+                .config(TopicConfig.MAX_MESSAGE_BYTES_CONFIG, maxMessageBytes)
+                .build();
+    }
+
     @Component
     @ConfigurationProperties(prefix = "kafka.producer.broadcast")
     public static class KafkaProducerConfig {
@@ -146,6 +181,13 @@ public class KafkaConfig {
                     .toList();
         }
 
+        List<TopicPartitionOffset> getTopicPartitionOffsets(String topic) {
+            return config.stream()
+                    .filter(c -> c.topic.equals(topic))
+                    .map(c -> new TopicPartitionOffset(topic, c.partition, (long) c.offset))
+                    .toList();
+        }
+
         public record KafkaTopicConfig(int offset,
                                        int partition,
                                        int eventLogging,
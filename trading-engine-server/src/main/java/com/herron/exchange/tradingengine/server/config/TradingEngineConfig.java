@@ -1,16 +1,46 @@
 package com.herron.exchange.tradingengine.server.config;
 
 import com.herron.exchange.common.api.common.api.MessageFactory;
+import com.herron.exchange.common.api.common.cache.ReferenceDataCache;
+import com.herron.exchange.common.api.common.enums.KafkaTopicEnum;
 import com.herron.exchange.common.api.common.kafka.KafkaBroadcastHandler;
 import com.herron.exchange.common.api.common.kafka.KafkaConsumerClient;
 import com.herron.exchange.common.api.common.mapping.DefaultMessageFactory;
 import com.herron.exchange.tradingengine.server.TradingEngine;
 import com.herron.exchange.tradingengine.server.TradingEngineBootloader;
+import com.herron.exchange.tradingengine.server.admission.AdmissionControl;
+import com.herron.exchange.tradingengine.server.admission.AdmissionMode;
+import com.herron.exchange.tradingengine.server.consumers.BinaryOrderDataConsumer;
 import com.herron.exchange.tradingengine.server.consumers.ReferenceDataConsumer;
 import com.herron.exchange.tradingengine.server.consumers.UserOrderDataConsumer;
+import com.herron.exchange.tradingengine.server.matchingengine.MatchingEngine;
 import com.herron.exchange.tradingengine.server.matchingengine.StateChangeOrchestrator;
+import com.herron.exchange.tradingengine.server.matchingengine.broadcast.BroadcastPublisher;
+import com.herron.exchange.tradingengine.server.matchingengine.concurrency.WaitStrategy;
+import com.herron.exchange.tradingengine.server.matchingengine.concurrency.WaitStrategyType;
+import com.herron.exchange.tradingengine.server.sharding.ExplicitShardRouter;
+import com.herron.exchange.tradingengine.server.sharding.HashShardRouter;
+import com.herron.exchange.tradingengine.server.sharding.ShardRebalancer;
+import com.herron.exchange.tradingengine.server.sharding.ShardRouter;
+import com.herron.exchange.tradingengine.server.sharding.ShardRoutingType;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import static com.herron.exchange.common.api.common.enums.KafkaTopicEnum.REFERENCE_DATA;
 import static com.herron.exchange.common.api.common.enums.KafkaTopicEnum.USER_ORDER_DATA;
@@ -33,20 +63,318 @@ public class TradingEngineConfig {
         return new ReferenceDataConsumer(kafkaConsumerClient, config.getDetails(REFERENCE_DATA));
     }
 
+    @Bean(destroyMethod = "stop")
+    public UserOrderDataConsumer userOrderDataConsumer(TradingEngine tradingEngine,
+                                                       MessageFactory messageFactory,
+                                                       ConsumerFactory<String, String> consumerFactory,
+                                                       KafkaConfig.KafkaConsumerConfig config,
+                                                       AdmissionControl admissionControl) {
+        var userOrderDataConsumer = new UserOrderDataConsumer(tradingEngine, messageFactory, consumerFactory, config.getDetails(USER_ORDER_DATA));
+        admissionControl.addIngressListener(userOrderDataConsumer);
+        return userOrderDataConsumer;
+    }
+
+    @Bean(destroyMethod = "stop")
+    public BinaryOrderDataConsumer binaryOrderDataConsumer(TradingEngine tradingEngine,
+                                                           ConsumerFactory<String, byte[]> binaryConsumerFactory,
+                                                           KafkaConfig.KafkaConsumerConfig config,
+                                                           AdmissionControl admissionControl) {
+        var binaryOrderDataConsumer = new BinaryOrderDataConsumer(
+                tradingEngine,
+                binaryConsumerFactory,
+                KafkaConfig.GROUP_ID,
+                config.getTopicPartitionOffsets(KafkaConfig.USER_ORDER_DATA_BINARY_TOPIC)
+        );
+        admissionControl.addIngressListener(binaryOrderDataConsumer);
+        return binaryOrderDataConsumer;
+    }
+
     @Bean
-    public UserOrderDataConsumer userOrderDataConsumer(TradingEngine tradingEngine, KafkaConsumerClient kafkaConsumerClient, KafkaConfig.KafkaConsumerConfig config) {
-        return new UserOrderDataConsumer(tradingEngine, kafkaConsumerClient, config.getDetails(USER_ORDER_DATA));
+    public AdmissionControl admissionControl(@Value("${trading-engine.matching-engine.admission.mode:NONE}") AdmissionMode mode,
+                                             @Value("${trading-engine.matching-engine.admission.high-watermark:2147483647}") int highWatermark,
+                                             @Value("${trading-engine.matching-engine.admission.low-watermark:0}") int lowWatermark) {
+        return new AdmissionControl(mode, highWatermark, lowWatermark);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnExpression("${trading-engine.auction-run.parallelism:0} > 0")
+    public ForkJoinPool auctionPool(@Value("${trading-engine.auction-run.parallelism}") int auctionParallelism) {
+        return new ForkJoinPool(auctionParallelism);
     }
 
     @Bean
-    public TradingEngine tradingEngine(KafkaBroadcastHandler kafkaBroadcastHandler) {
-        return new TradingEngine(kafkaBroadcastHandler);
+    public TradingEngine tradingEngine(KafkaBroadcastHandler kafkaBroadcastHandler,
+                                       KafkaTemplate<String, Object> kafkaTemplate,
+                                       WaitStrategyConfig waitStrategyConfig,
+                                       ShardConfig shardConfig,
+                                       TopOfBookConfig topOfBookConfig,
+                                       TickSizeConfig tickSizeConfig,
+                                       AdmissionControl admissionControl,
+                                       ObjectProvider<ForkJoinPool> auctionPool,
+                                       @Value("${trading-engine.matching-engine.queue-capacity:65536}") int queueCapacity,
+                                       @Value("${trading-engine.matching-engine.publisher.queue-capacity:65536}") int publisherQueueCapacity,
+                                       @Value("${trading-engine.matching-engine.publisher.max-batch-size:512}") int publisherMaxBatchSize,
+                                       @Value("${trading-engine.matching-engine.publisher.linger-nanos:0}") long publisherLingerNanos,
+                                       @Value("${trading-engine.matching-engine.depth-feed.enabled:false}") boolean isDepthFeedEnabled,
+                                       @Value("${trading-engine.matching-engine.depth-feed.snapshot-interval-ms:5000}") long depthSnapshotIntervalMs,
+                                       @Value("${kafka.producer.binary-topics:}") String[] binaryTopicNames) {
+        Set<KafkaTopicEnum> binaryTopics = Arrays.stream(binaryTopicNames)
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .map(KafkaTopicEnum::fromValue)
+                .collect(Collectors.toSet());
+        return new TradingEngine(
+                shard -> {
+                    var matchingEngine = new MatchingEngine(
+                            shardConfig.getThreadName(shard),
+                            new BroadcastPublisher(
+                                    TradingEngine.getShardName(shard) + "-publisher",
+                                    shard,
+                                    kafkaBroadcastHandler,
+                                    publisherQueueCapacity,
+                                    publisherMaxBatchSize,
+                                    publisherLingerNanos,
+                                    kafkaTemplate,
+                                    binaryTopics
+                            ),
+                            indicativeAuctionPrice -> kafkaTemplate.send(KafkaConfig.INDICATIVE_AUCTION_PRICE_TOPIC, indicativeAuctionPrice.orderbookId(), indicativeAuctionPrice),
+                            auctionPool.getIfAvailable(),
+                            queueCapacity,
+                            waitStrategyConfig.createWaitStrategy(shard),
+                            topOfBookConfig::getMinIntervalNanos
+                    );
+                    matchingEngine.setTickSizes(tickSizeConfig::getTickSize);
+                    if (isDepthFeedEnabled) {
+                        matchingEngine.enableDepthFeed(
+                                depthMessage -> kafkaTemplate.send(KafkaConfig.MARKET_BY_LEVEL_TOPIC, depthMessage.orderbookId(), depthMessage),
+                                TimeUnit.MILLISECONDS.toNanos(depthSnapshotIntervalMs)
+                        );
+                    }
+                    return matchingEngine;
+                },
+                shardConfig.createShardRouter(),
+                admissionControl
+        );
+    }
+
+    @Bean(initMethod = "init", destroyMethod = "stop")
+    @ConditionalOnProperty(prefix = "trading-engine.shards.rebalance", name = "enabled", havingValue = "true")
+    public ShardRebalancer shardRebalancer(TradingEngine tradingEngine,
+                                           @Value("${trading-engine.shards.rebalance.queue-depth-threshold:10000}") int queueDepthThreshold,
+                                           @Value("${trading-engine.shards.rebalance.interval-ms:1000}") long intervalMillis) {
+        return new ShardRebalancer(tradingEngine, queueDepthThreshold, intervalMillis);
     }
 
     @Bean(initMethod = "init")
     public TradingEngineBootloader tradingEngineBootloader(ReferenceDataConsumer referenceDataConsumer,
                                                            StateChangeOrchestrator stateChangeOrchestrator,
-                                                           UserOrderDataConsumer userOrderDataConsumer) {
-        return new TradingEngineBootloader(referenceDataConsumer, stateChangeOrchestrator, userOrderDataConsumer);
+                                                           UserOrderDataConsumer userOrderDataConsumer,
+                                                           BinaryOrderDataConsumer binaryOrderDataConsumer,
+                                                           TradingEngine tradingEngine) {
+        return new TradingEngineBootloader(referenceDataConsumer, stateChangeOrchestrator, userOrderDataConsumer, binaryOrderDataConsumer, tradingEngine);
+    }
+
+    @Component
+    @ConfigurationProperties(prefix = "trading-engine.matching-engine.top-of-book")
+    public static class TopOfBookConfig {
+
+        private long minIntervalNanos = 0;
+        private Map<String, Long> orderbooks = Map.of();
+        private Map<String, Long> markets = Map.of();
+
+        public long getMinIntervalNanos() {
+            return minIntervalNanos;
+        }
+
+        public void setMinIntervalNanos(long minIntervalNanos) {
+            this.minIntervalNanos = minIntervalNanos;
+        }
+
+        public Map<String, Long> getOrderbooks() {
+            return orderbooks;
+        }
+
+        public void setOrderbooks(Map<String, Long> orderbooks) {
+            this.orderbooks = orderbooks;
+        }
+
+        public Map<String, Long> getMarkets() {
+            return markets;
+        }
+
+        public void setMarkets(Map<String, Long> markets) {
+            this.markets = markets;
+        }
+
+        /**
+         * The orderbook's own interval, else the interval of the market it is listed on, else the default.
+         */
+        long getMinIntervalNanos(String orderbookId) {
+            Long minIntervalNanos = orderbooks.get(orderbookId);
+            if (minIntervalNanos == null && !markets.isEmpty()) {
+                minIntervalNanos = markets.get(getMarketId(orderbookId));
+            }
+            return minIntervalNanos != null ? minIntervalNanos : this.minIntervalNanos;
+        }
+    }
+
+    @Component
+    @ConfigurationProperties(prefix = "trading-engine.matching-engine.tick-size")
+    public static class TickSizeConfig {
+
+        private double defaultTickSize = 0;
+        private Map<String, Double> orderbooks = Map.of();
+        private Map<String, Double> markets = Map.of();
+
+        public double getDefaultTickSize() {
+            return defaultTickSize;
+        }
+
+        public void setDefaultTickSize(double defaultTickSize) {
+            this.defaultTickSize = defaultTickSize;
+        }
+
+        public Map<String, Double> getOrderbooks() {
+            return orderbooks;
+        }
+
+        public void setOrderbooks(Map<String, Double> orderbooks) {
+            this.orderbooks = orderbooks;
+        }
+
+        public Map<String, Double> getMarkets() {
+            return markets;
+        }
+
+        public void setMarkets(Map<String, Double> markets) {
+            this.markets = markets;
+        }
+
+        /**
+         * The orderbook's own tick size, else the tick size of the market it is listed on, else the default.
+         */
+        double getTickSize(String orderbookId) {
+            Double tickSize = orderbooks.get(orderbookId);
+            if (tickSize == null && !markets.isEmpty()) {
+                tickSize = markets.get(getMarketId(orderbookId));
+            }
+            return tickSize != null ? tickSize : defaultTickSize;
+        }
+    }
+
+    private static String getMarketId(String orderbookId) {
+        var orderbookData = ReferenceDataCache.getCache().getOrderbookData(orderbookId);
+        return orderbookData == null ? null : orderbookData.instrument().product().market().marketId();
+    }
+
+    @Component
+    @ConfigurationProperties(prefix = "trading-engine.matching-engine.wait-strategy")
+    public static class WaitStrategyConfig {
+
+        private WaitStrategySettings defaultSettings = new WaitStrategySettings(null, WaitStrategyType.BLOCKING, 0, 0, 0);
+        private List<WaitStrategySettings> shards = List.of();
+
+        public WaitStrategySettings getDefaultSettings() {
+            return defaultSettings;
+        }
+
+        public void setDefaultSettings(WaitStrategySettings defaultSettings) {
+            this.defaultSettings = defaultSettings;
+        }
+
+        public List<WaitStrategySettings> getShards() {
+            return shards;
+        }
+
+        public void setShards(List<WaitStrategySettings> shards) {
+            this.shards = shards;
+        }
+
+        WaitStrategy createWaitStrategy(int shard) {
+            var settings = shards.stream()
+                    .filter(s -> s.shard() != null && s.shard() == shard)
+                    .findFirst()
+                    .orElse(defaultSettings);
+            return settings.type().createWaitStrategy(settings.spinTries(), settings.yieldTries(), settings.parkNanos());
+        }
+
+        public record WaitStrategySettings(Integer shard,
+                                           WaitStrategyType type,
+                                           int spinTries,
+                                           int yieldTries,
+                                           long parkNanos) {
+        }
+    }
+
+    @Component
+    @ConfigurationProperties(prefix = "trading-engine.shards")
+    public static class ShardConfig {
+
+        private int nrOfShards = Runtime.getRuntime().availableProcessors();
+        private ShardRoutingType routing = ShardRoutingType.HASH;
+        private Map<String, Integer> orderbooks = Map.of();
+        private Map<String, Integer> products = Map.of();
+        private Map<Integer, Integer> cpuAffinity = Map.of();
+
+        public int getNrOfShards() {
+            return nrOfShards;
+        }
+
+        public void setNrOfShards(int nrOfShards) {
+            this.nrOfShards = nrOfShards;
+        }
+
+        public ShardRoutingType getRouting() {
+            return routing;
+        }
+
+        public void setRouting(ShardRoutingType routing) {
+            this.routing = routing;
+        }
+
+        public Map<String, Integer> getOrderbooks() {
+            return orderbooks;
+        }
+
+        public void setOrderbooks(Map<String, Integer> orderbooks) {
+            this.orderbooks = orderbooks;
+        }
+
+        public Map<String, Integer> getProducts() {
+            return products;
+        }
+
+        public void setProducts(Map<String, Integer> products) {
+            this.products = products;
+        }
+
+        public Map<Integer, Integer> getCpuAffinity() {
+            return cpuAffinity;
+        }
+
+        public void setCpuAffinity(Map<Integer, Integer> cpuAffinity) {
+            this.cpuAffinity = cpuAffinity;
+        }
+
+        ShardRouter createShardRouter() {
+            return switch (routing) {
+                case HASH -> new HashShardRouter(nrOfShards);
+                case EXPLICIT -> new ExplicitShardRouter(
+                        nrOfShards,
+                        orderbooks,
+                        products,
+                        orderbookId -> ReferenceDataCache.getCache().getOrderbookData(orderbookId).instrument().product().productName()
+                );
+            };
+        }
+
+        /**
+         * The JVM cannot pin threads, the preferred cpu is carried in the thread name so that it can be applied to
+         * the native thread with e.g. taskset.
+         */
+        String getThreadName(int shard) {
+            Integer cpu = cpuAffinity.get(shard);
+            return cpu == null ? TradingEngine.getShardName(shard) : TradingEngine.getShardName(shard) + "@cpu" + cpu;
+        }
     }
 }
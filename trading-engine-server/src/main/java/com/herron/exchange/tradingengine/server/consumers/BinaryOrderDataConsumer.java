@@ -0,0 +1,113 @@
+package com.herron.exchange.tradingengine.server.consumers;
+
+import com.herron.exchange.tradingengine.server.TradingEngine;
+import com.herron.exchange.tradingengine.server.admission.IngressListener;
+import com.herron.exchange.tradingengine.server.codec.OrderFlyweight;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.KafkaMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.kafka.support.TopicPartitionOffset;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.herron.exchange.tradingengine.server.codec.BinaryMessageSerializer.BINARY_CONTENT_TYPE;
+import static com.herron.exchange.tradingengine.server.codec.BinaryMessageSerializer.CONTENT_TYPE_HEADER;
+
+/**
+ * Order entry in the binary format of {@link com.herron.exchange.tradingengine.server.codec.BinaryMessageEncoder}.
+ * Records are consumed as raw bytes and read in place by a single {@link OrderFlyweight}, only the order queued to the
+ * engine is allocated. Json order entry stays on {@link UserOrderDataConsumer}. Pausing ingress pauses the partitions
+ * of the listener container.
+ * <p>
+ * The topic is binary only, records without the binary content-type header are skipped with a warning instead of
+ * being decoded.
+ */
+public class BinaryOrderDataConsumer implements MessageListener<String, byte[]>, IngressListener {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BinaryOrderDataConsumer.class);
+    private static final byte[] BINARY_CONTENT_TYPE_BYTES = BINARY_CONTENT_TYPE.getBytes(StandardCharsets.UTF_8);
+
+    private final TradingEngine tradingEngine;
+    private final OrderFlyweight orderFlyweight = new OrderFlyweight();
+    private final ConsumerFactory<String, byte[]> consumerFactory;
+    private final String groupId;
+    private final List<TopicPartitionOffset> topicPartitions;
+    private volatile KafkaMessageListenerContainer<String, byte[]> container;
+    private volatile boolean isPaused = false;
+
+    public BinaryOrderDataConsumer(TradingEngine tradingEngine,
+                                   ConsumerFactory<String, byte[]> consumerFactory,
+                                   String groupId,
+                                   List<TopicPartitionOffset> topicPartitions) {
+        this.tradingEngine = tradingEngine;
+        this.consumerFactory = consumerFactory;
+        this.groupId = groupId;
+        this.topicPartitions = List.copyOf(topicPartitions);
+    }
+
+    public void init() {
+        if (topicPartitions.isEmpty()) {
+            LOGGER.info("No partitions configured for binary order data.");
+            return;
+        }
+        var containerProperties = new ContainerProperties(topicPartitions.toArray(TopicPartitionOffset[]::new));
+        containerProperties.setGroupId(groupId);
+        containerProperties.setMessageListener(this);
+        var listenerContainer = new KafkaMessageListenerContainer<>(consumerFactory, containerProperties);
+        listenerContainer.setBeanName("binary-order-data");
+        container = listenerContainer;
+        listenerContainer.start();
+        if (isPaused) {
+            listenerContainer.pause();
+        }
+    }
+
+    public void stop() {
+        var container = this.container;
+        if (container != null) {
+            container.stop();
+        }
+    }
+
+    @Override
+    public void onMessage(ConsumerRecord<String, byte[]> consumerRecord) {
+        byte[] value = consumerRecord.value();
+        if (value == null || !isBinary(consumerRecord.headers().lastHeader(CONTENT_TYPE_HEADER))) {
+            LOGGER.warn("Skipping record {} at offset {} of {}, no binary content type.", consumerRecord.key(), consumerRecord.offset(), consumerRecord.topic());
+            return;
+        }
+        try {
+            tradingEngine.queueOrder(orderFlyweight.wrap(value, 0, value.length).toOrder());
+        } catch (IllegalArgumentException e) {
+            LOGGER.error("Unable to decode record at offset {} of {}.", consumerRecord.offset(), consumerRecord.topic(), e);
+        }
+    }
+
+    @Override
+    public void pause() {
+        isPaused = true;
+        var container = this.container;
+        if (container != null) {
+            container.pause();
+        }
+    }
+
+    @Override
+    public void resume() {
+        isPaused = false;
+        var container = this.container;
+        if (container != null) {
+            container.resume();
+        }
+    }
+
+    private static boolean isBinary(Header contentType) {
+        return contentType != null && Arrays.equals(contentType.value(), BINARY_CONTENT_TYPE_BYTES);
+    }
+}
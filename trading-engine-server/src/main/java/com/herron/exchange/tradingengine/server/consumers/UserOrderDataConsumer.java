@@ -1,39 +1,96 @@
 package com.herron.exchange.tradingengine.server.consumers;
 
 import com.herron.exchange.common.api.common.api.Message;
-import com.herron.exchange.common.api.common.api.kafka.KafkaMessageHandler;
+import com.herron.exchange.common.api.common.api.MessageFactory;
 import com.herron.exchange.common.api.common.api.trading.Order;
 import com.herron.exchange.common.api.common.consumer.DataConsumer;
-import com.herron.exchange.common.api.common.kafka.KafkaConsumerClient;
 import com.herron.exchange.common.api.common.kafka.model.KafkaSubscriptionDetails;
-import com.herron.exchange.common.api.common.kafka.model.KafkaSubscriptionRequest;
 import com.herron.exchange.common.api.common.messages.BroadcastMessage;
 import com.herron.exchange.common.api.common.messages.common.DataStreamState;
+import com.herron.exchange.common.api.common.messages.common.PartitionKey;
 import com.herron.exchange.tradingengine.server.TradingEngine;
+import com.herron.exchange.tradingengine.server.admission.IngressListener;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.KafkaMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.kafka.support.TopicPartitionOffset;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 
 
-public class UserOrderDataConsumer extends DataConsumer implements KafkaMessageHandler {
+/**
+ * Each partition is consumed by a listener container of its own, so that pausing ingress pauses the containers
+ * instead of holding up the listener threads. A paused container keeps polling and stays within
+ * {@code max.poll.interval.ms}.
+ */
+public class UserOrderDataConsumer extends DataConsumer implements IngressListener {
     private final TradingEngine tradingEngine;
-    private final KafkaConsumerClient consumerClient;
-    private final List<KafkaSubscriptionRequest> requests;
+    private final MessageFactory messageFactory;
+    private final ConsumerFactory<String, String> consumerFactory;
+    private final List<KafkaSubscriptionDetails> subscriptionDetails;
+    private final Map<PartitionKey, KafkaMessageListenerContainer<String, String>> partitionKeyToContainer = new ConcurrentHashMap<>();
+    private volatile boolean isPaused = false;
 
-    public UserOrderDataConsumer(TradingEngine tradingEngine, KafkaConsumerClient consumerClient, List<KafkaSubscriptionDetails> subscriptionDetails) {
+    public UserOrderDataConsumer(TradingEngine tradingEngine,
+                                 MessageFactory messageFactory,
+                                 ConsumerFactory<String, String> consumerFactory,
+                                 List<KafkaSubscriptionDetails> subscriptionDetails) {
         super("User-Order-Data", new CountDownLatch(subscriptionDetails.size()));
         this.tradingEngine = tradingEngine;
-        this.consumerClient = consumerClient;
-        this.requests = subscriptionDetails.stream().map(d -> new KafkaSubscriptionRequest(d, this)).toList();
+        this.messageFactory = messageFactory;
+        this.consumerFactory = consumerFactory;
+        this.subscriptionDetails = List.copyOf(subscriptionDetails);
     }
 
     @Override
     protected void consumerInit() {
-        requests.forEach(consumerClient::subscribeToBroadcastTopic);
+        subscriptionDetails.forEach(this::subscribe);
+    }
+
+    public void stop() {
+        partitionKeyToContainer.values().forEach(KafkaMessageListenerContainer::stop);
     }
 
     @Override
-    public void onMessage(BroadcastMessage broadcastMessage) {
+    public void pause() {
+        isPaused = true;
+        partitionKeyToContainer.values().forEach(KafkaMessageListenerContainer::pause);
+    }
+
+    @Override
+    public void resume() {
+        isPaused = false;
+        partitionKeyToContainer.values().forEach(KafkaMessageListenerContainer::resume);
+    }
+
+    private void subscribe(KafkaSubscriptionDetails details) {
+        PartitionKey partitionKey = details.partitionKey();
+        var containerProperties = new ContainerProperties(new TopicPartitionOffset(partitionKey.topicEnum().getTopicName(), partitionKey.partitionId(), (long) details.offset()));
+        containerProperties.setGroupId(details.groupId());
+        containerProperties.setMessageListener((MessageListener<String, String>) this::onRecord);
+        var container = new KafkaMessageListenerContainer<>(consumerFactory, containerProperties);
+        container.setBeanName(String.format("%s-%s", partitionKey.topicEnum().getTopicName(), partitionKey.partitionId()));
+        partitionKeyToContainer.put(partitionKey, container);
+        container.start();
+        if (isPaused) {
+            container.pause();
+        }
+    }
+
+    private void onRecord(ConsumerRecord<String, String> consumerRecord) {
+        if (messageFactory.deserializeMessage(consumerRecord.value()) instanceof BroadcastMessage broadcastMessage) {
+            onMessage(broadcastMessage);
+        } else {
+            logger.warn("Skipping record at offset {} of {}, not a broadcast message.", consumerRecord.offset(), consumerRecord.topic());
+        }
+    }
+
+    private void onMessage(BroadcastMessage broadcastMessage) {
         Message message = broadcastMessage.message();
 
         if (broadcastMessage.message() instanceof Order order) {
@@ -43,7 +100,10 @@ public class UserOrderDataConsumer extends DataConsumer implements KafkaMessageH
             switch (state.state()) {
                 case START -> logger.info("Started user order data.");
                 case DONE -> {
-                    consumerClient.stop(broadcastMessage.partitionKey());
+                    var container = partitionKeyToContainer.get(broadcastMessage.partitionKey());
+                    if (container != null) {
+                        container.stop(() -> logger.info("Stopped user order data on {}.", broadcastMessage.partitionKey()));
+                    }
                     countDownLatch.countDown();
                     if (countDownLatch.getCount() == 0) {
                         consumerComplete();
@@ -0,0 +1,44 @@
+package com.herron.exchange.tradingengine.server.controllers;
+
+import com.herron.exchange.tradingengine.server.TradingEngine;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/shards")
+public class ShardController {
+    private final TradingEngine tradingEngine;
+
+    public ShardController(TradingEngine tradingEngine) {
+        this.tradingEngine = tradingEngine;
+    }
+
+    @GetMapping("/queue-sizes")
+    public Map<Integer, Integer> getQueueSizes() {
+        Map<Integer, Integer> shardToQueueSize = new LinkedHashMap<>();
+        for (int shard = 0; shard < tradingEngine.nrOfShards(); shard++) {
+            shardToQueueSize.put(shard, tradingEngine.getQueueSize(shard));
+        }
+        return shardToQueueSize;
+    }
+
+    @GetMapping("/orderbooks/{orderbookId}")
+    public int getShard(@PathVariable String orderbookId) {
+        return tradingEngine.getShard(orderbookId);
+    }
+
+    @PostMapping("/orderbooks/{orderbookId}")
+    public ResponseEntity<String> migrateOrderbook(@PathVariable String orderbookId, @RequestParam int shard) {
+        try {
+            if (!tradingEngine.migrateOrderbook(orderbookId, shard)) {
+                return ResponseEntity.ok(String.format("Orderbook %s already lives on shard %s.", orderbookId, shard));
+            }
+            return ResponseEntity.accepted().body(String.format("Orderbook %s is migrating to shard %s.", orderbookId, shard));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
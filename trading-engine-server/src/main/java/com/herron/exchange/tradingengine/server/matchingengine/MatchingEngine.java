@@ -5,84 +5,479 @@ import com.herron.exchange.common.api.common.api.trading.OrderbookEvent;
 import com.herron.exchange.common.api.common.enums.KafkaTopicEnum;
 import com.herron.exchange.common.api.common.kafka.KafkaBroadcastHandler;
 import com.herron.exchange.common.api.common.messages.common.PartitionKey;
+import com.herron.exchange.common.api.common.messages.trading.ImmutableTrade;
+import com.herron.exchange.common.api.common.messages.trading.ImmutableTradeExecution;
 import com.herron.exchange.common.api.common.messages.trading.StateChange;
 import com.herron.exchange.common.api.common.messages.trading.TopOfBook;
 import com.herron.exchange.common.api.common.messages.trading.Trade;
 import com.herron.exchange.common.api.common.messages.trading.TradeExecution;
 import com.herron.exchange.common.api.common.wrappers.ThreadWrapper;
 import com.herron.exchange.tradingengine.server.matchingengine.api.Orderbook;
+import com.herron.exchange.tradingengine.server.matchingengine.auctionalgorithms.model.IndicativeAuctionPrice;
+import com.herron.exchange.tradingengine.server.matchingengine.broadcast.BroadcastPublisher;
+import com.herron.exchange.tradingengine.server.matchingengine.broadcast.TopOfBookConflator;
 import com.herron.exchange.tradingengine.server.matchingengine.cache.OrderbookCache;
+import com.herron.exchange.tradingengine.server.matchingengine.concurrency.BlockingWaitStrategy;
+import com.herron.exchange.tradingengine.server.matchingengine.concurrency.OrderbookConcurrencyMode;
+import com.herron.exchange.tradingengine.server.matchingengine.concurrency.QueueWatermarkListener;
+import com.herron.exchange.tradingengine.server.matchingengine.concurrency.RingBufferEventQueue;
+import com.herron.exchange.tradingengine.server.matchingengine.concurrency.WaitStrategy;
+import com.herron.exchange.tradingengine.server.matchingengine.depth.DepthFeed;
+import com.herron.exchange.tradingengine.server.matchingengine.depth.OrderbookDepth;
+import com.herron.exchange.tradingengine.server.matchingengine.depth.model.DepthMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
 
+import static com.herron.exchange.common.api.common.enums.OrderOperationCauseEnum.REJECTED;
 import static com.herron.exchange.common.api.common.enums.TradingStatesEnum.CLOSING_AUCTION_RUN;
 import static com.herron.exchange.common.api.common.enums.TradingStatesEnum.OPEN_AUCTION_RUN;
-import static java.util.concurrent.Executors.newScheduledThreadPool;
+import static com.herron.exchange.tradingengine.server.matchingengine.utils.MatchingEngineUtils.buildCancelOrder;
+import static com.herron.exchange.tradingengine.server.matchingengine.utils.MatchingEngineUtils.nextTradeId;
 
 public class MatchingEngine {
     private static final PartitionKey AUDIT_TRAIL_KEY = new PartitionKey(KafkaTopicEnum.AUDIT_TRAIL, 0);
     private static final PartitionKey TRADE_DATA_KEY = new PartitionKey(KafkaTopicEnum.TRADE_DATA, 0);
     private static final PartitionKey TOP_OF_BOOK_DATA_KEY = new PartitionKey(KafkaTopicEnum.TOP_OF_BOOK_QUOTE, 0);
     private static final Logger LOGGER = LoggerFactory.getLogger(MatchingEngine.class);
-    //private final BlockingQueue<OrderbookEvent> eventQueue = new PriorityBlockingQueue<>(50, new EventComparator<>());
-    private final BlockingQueue<OrderbookEvent> eventQueue = new LinkedBlockingDeque<>();
-    private final OrderbookCache orderbookCache = new OrderbookCache();
+    public static final int DEFAULT_QUEUE_CAPACITY = 1 << 16;
+    private static final int MAX_BATCH_SIZE = 1024;
+    private static final long MAX_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+    private static final long HANDOVER_FENCE_TIMEOUT_MS = 10_000;
+    private static final long ORDERBOOK_SNAPSHOT_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final Object HANDOVER_SIGNAL = new Object();
+    private final RingBufferEventQueue<Object> eventQueue;
+    private final OrderbookCache orderbookCache = new OrderbookCache(OrderbookConcurrencyMode.SINGLE_WRITER);
+    private final String id;
     private final ExecutorService service;
-    private final ScheduledExecutorService queueLoggerThread;
     private final AtomicBoolean isMatching = new AtomicBoolean(false);
-    private final KafkaBroadcastHandler broadcastHandler;
+    private final BroadcastPublisher broadcastPublisher;
+    private final Consumer<IndicativeAuctionPrice> indicativeAuctionPriceBroadcaster;
+    private final Map<String, IndicativeAuctionPrice> orderbookIdToIndicativeAuctionPrice = new HashMap<>();
+    private final ForkJoinPool auctionPool;
+    private final Map<String, List<Object>> orderbookIdToPendingEvents = new HashMap<>();
+    private final Set<String> orderbookIdsArrivedEarly = new HashSet<>();
+    private final Queue<OrderbookHandover> handovers = new ConcurrentLinkedQueue<>();
+    private final List<Object> batch = new ArrayList<>(MAX_BATCH_SIZE);
+    private int batchIndex;
+    private final Set<Orderbook> updatedOrderbooks = new LinkedHashSet<>();
+    private final TopOfBookConflator topOfBookConflator;
+    private final AtomicBoolean isAboveHighWatermark = new AtomicBoolean(false);
+    private final Object watermarkMonitor = new Object();
+    private int highWatermark = Integer.MAX_VALUE;
+    private int lowWatermark = 0;
+    private QueueWatermarkListener watermarkListener;
+    private DepthFeed depthFeed;
+    private long lastOrderbookSnapshotNanos = System.nanoTime();
 
     public MatchingEngine(String id, KafkaBroadcastHandler broadcastHandler) {
-        this.broadcastHandler = broadcastHandler;
+        this(id, broadcastHandler, indicativeAuctionPrice -> {
+        });
+    }
+
+    public MatchingEngine(String id,
+                          KafkaBroadcastHandler broadcastHandler,
+                          Consumer<IndicativeAuctionPrice> indicativeAuctionPriceBroadcaster) {
+        this(id, new BroadcastPublisher(id + "-publisher", broadcastHandler), indicativeAuctionPriceBroadcaster, null, DEFAULT_QUEUE_CAPACITY, new BlockingWaitStrategy());
+    }
+
+    /**
+     * @param broadcastPublisher  sends the output of the engine off the matching thread, it is started and stopped
+     *                            with the engine.
+     * @param auctionPool runs the auctions of orderbooks uncrossing at the same time in parallel, if null auctions
+     *                    are run one by one on the matching thread.
+     * @param queueCapacity number of preallocated event slots, rounded up to a power of two. Producers wait while the
+     *                      queue is full.
+     * @param waitStrategy  how the matching thread waits while the queue is empty.
+     */
+    public MatchingEngine(String id,
+                          BroadcastPublisher broadcastPublisher,
+                          Consumer<IndicativeAuctionPrice> indicativeAuctionPriceBroadcaster,
+                          ForkJoinPool auctionPool,
+                          int queueCapacity,
+                          WaitStrategy waitStrategy) {
+        this(id, broadcastPublisher, indicativeAuctionPriceBroadcaster, auctionPool, queueCapacity, waitStrategy, orderbookId -> 0);
+    }
+
+    /**
+     * @param orderbookIdToTopOfBookIntervalNanos minimum time between two top of books published for an orderbook,
+     *                                            see {@link TopOfBookConflator}.
+     */
+    public MatchingEngine(String id,
+                          BroadcastPublisher broadcastPublisher,
+                          Consumer<IndicativeAuctionPrice> indicativeAuctionPriceBroadcaster,
+                          ForkJoinPool auctionPool,
+                          int queueCapacity,
+                          WaitStrategy waitStrategy,
+                          ToLongFunction<String> orderbookIdToTopOfBookIntervalNanos) {
+        this.topOfBookConflator = new TopOfBookConflator(orderbookIdToTopOfBookIntervalNanos, this::broadcastTopOfBook);
+        this.broadcastPublisher = broadcastPublisher;
+        this.indicativeAuctionPriceBroadcaster = indicativeAuctionPriceBroadcaster;
+        this.auctionPool = auctionPool;
+        this.eventQueue = new RingBufferEventQueue<>(queueCapacity, waitStrategy);
+        this.id = id;
         service = Executors.newSingleThreadExecutor(new ThreadWrapper(id));
-        queueLoggerThread = newScheduledThreadPool(1, new ThreadWrapper(id));
     }
 
     public void init() {
         isMatching.set(true);
+        broadcastPublisher.init();
         service.execute(this::runMatching);
-        queueLoggerThread.scheduleAtFixedRate(() -> LOGGER.info("Message Queue size: {}", eventQueue.size()), 0, 60, TimeUnit.SECONDS);
     }
 
     public void stop() {
-        LOGGER.info("Stopping matching engine.");
+        LOGGER.info("Stopping matching engine {}.", id);
         isMatching.set(false);
-        queueLoggerThread.shutdown();
+        service.shutdown();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public int getQueueSize() {
+        return eventQueue.size();
+    }
+
+    public int getPublisherQueueSize() {
+        return broadcastPublisher.getQueueSize();
+    }
+
+    /**
+     * Has to be set before the engine is started.
+     */
+    public void setWatermarks(int highWatermark, int lowWatermark, QueueWatermarkListener watermarkListener) {
+        if (highWatermark > eventQueue.capacity() || lowWatermark >= highWatermark) {
+            throw new IllegalArgumentException(String.format("Watermarks %s/%s do not fit queue capacity %s.", lowWatermark, highWatermark, eventQueue.capacity()));
+        }
+        this.highWatermark = highWatermark;
+        this.lowWatermark = lowWatermark;
+        this.watermarkListener = watermarkListener;
+    }
+
+    /**
+     * Has to be set before any orderbook is created, see {@link OrderbookCache#setTickSizes(ToDoubleFunction)}.
+     */
+    public void setTickSizes(ToDoubleFunction<String> orderbookIdToTickSize) {
+        orderbookCache.setTickSizes(orderbookIdToTickSize);
     }
 
+    /**
+     * Publishes the market by level feed of the orderbooks of this engine through {@code depthBroadcaster}, see
+     * {@link DepthFeed}. Has to be enabled before the engine is started and before any orderbook is created.
+     */
+    public void enableDepthFeed(Consumer<DepthMessage> depthBroadcaster, long snapshotIntervalNanos) {
+        depthFeed = new DepthFeed(
+                depthMessage -> broadcastPublisher.publish(() -> depthBroadcaster.accept(depthMessage)),
+                snapshotIntervalNanos,
+                System.nanoTime()
+        );
+        orderbookCache.setOrderbookCreatedListener(depthFeed::track);
+    }
+
+    public boolean isAboveHighWatermark() {
+        return isAboveHighWatermark.get();
+    }
+
+    /**
+     * The orderbook is expected to exist, events are routed here by {@code TradingEngine} only for orderbooks in the
+     * reference data.
+     */
     public void queueMessage(OrderbookEvent orderbookEvent) {
-        var orderbook = orderbookCache.getOrCreateOrderbook(orderbookEvent.orderbookId());
-        if (orderbook == null) {
-            LOGGER.error("Orderbook {} does not exist, queue orderbook event {}.", orderbookEvent.orderbookId(), orderbookEvent);
-            return;
+        eventQueue.put(orderbookEvent);
+        if (eventQueue.size() >= highWatermark && !isAboveHighWatermark.get()) {
+            updateWatermark();
         }
-        eventQueue.add(orderbookEvent);
     }
 
+    /**
+     * The flag is flipped and the listener notified under one monitor, against the queue size seen inside it. A
+     * producer crossing the high watermark and the matching thread draining to the low watermark can therefore never
+     * reach the listener in the opposite order of their flips.
+     */
+    private void updateWatermark() {
+        synchronized (watermarkMonitor) {
+            int queueSize = eventQueue.size();
+            if (!isAboveHighWatermark.get() && queueSize >= highWatermark) {
+                isAboveHighWatermark.set(true);
+                watermarkListener.onHighWatermark();
+            } else if (isAboveHighWatermark.get() && queueSize <= lowWatermark) {
+                isAboveHighWatermark.set(false);
+                watermarkListener.onLowWatermark();
+            }
+        }
+    }
+
+    /**
+     * The order is cancelled with cause {@code REJECTED}, so that gateways can tell back pressure apart from a kill. The
+     * cancel goes straight to the publisher of this engine instead of taking a slot in the full event queue, it can
+     * therefore overtake the output of events still queued. A rejected order never reaches the orderbook, so there is
+     * no output it has to follow.
+     */
+    public void rejectOrder(Order order, String reason) {
+        LOGGER.info("Rejecting order {}: {}", order, reason);
+        broadcast(AUDIT_TRAIL_KEY, buildCancelOrder(order, REJECTED));
+    }
+
+    /**
+     * Creates the orderbook ahead of its first event so that it is not created on the matching thread.
+     */
+    public void createOrderbook(String orderbookId) {
+        if (orderbookCache.getOrCreateOrderbook(orderbookId) == null) {
+            LOGGER.error("Orderbook {} could not be created on {}.", orderbookId, id);
+        }
+    }
+
+    /**
+     * Moves the orderbook, with its state and every event queued for it, to {@code target}. Events queued here before
+     * this call are matched here, events queued to {@code target} after it are held back there until the orderbook
+     * has arrived. The caller has to make sure no further events for the orderbook are queued to this engine.
+     * <p>
+     * The orderbook itself is handed over on an unbounded lane next to the event queue, so two engines handing
+     * orderbooks to each other never wait on each other's full queue. Output of {@code target} is held back by its
+     * publisher until this engine's publisher has sent everything published before the handover.
+     */
+    public void migrateOrderbook(String orderbookId, MatchingEngine target) {
+        target.eventQueue.put(new IncomingOrderbook(orderbookId));
+        eventQueue.put(new OutgoingOrderbook(orderbookId, target));
+    }
+
+    /**
+     * Drains whatever has been queued and matches it back to back, waiting on the queue only when it is empty. Top of
+     * book and indicative auction prices are published once per batch for the orderbooks the batch has updated, top of
+     * book further conflated by the {@link TopOfBookConflator}. While top of books are pending the wait for events is
+     * cut short when the next one is due.
+     */
     private void runMatching() {
-        LOGGER.info("Starting matching engine.");
-        OrderbookEvent orderbookEvent;
+        LOGGER.info("Starting matching engine {}.", id);
         while (isMatching.get() || !eventQueue.isEmpty()) {
+            takeOverHandovers();
+
+            if (eventQueue.drainTo(batch, MAX_BATCH_SIZE) == 0) {
+                var event = poll();
+                if (event == null) {
+                    long nowNanos = System.nanoTime();
+                    topOfBookConflator.flush(nowNanos);
+                    if (depthFeed != null) {
+                        depthFeed.publishSnapshotsIfDue(nowNanos);
+                    }
+                    publishOrderbookSnapshotsIfDue(nowNanos);
+                    continue;
+                }
+                batch.add(event);
+                eventQueue.drainTo(batch, MAX_BATCH_SIZE - 1);
+            }
 
-            orderbookEvent = poll();
-            if (orderbookEvent == null) {
-                continue;
+            for (batchIndex = 0; batchIndex < batch.size(); batchIndex++) {
+                var event = batch.get(batchIndex);
+                try {
+                    handleEvent(event);
+                } catch (Exception e) {
+                    LOGGER.warn("Unhandled exception for event: {}", event, e);
+                }
             }
+            batch.clear();
+            endOfBatch();
 
+            if (isAboveHighWatermark.get() && eventQueue.size() <= lowWatermark) {
+                updateWatermark();
+            }
+        }
+        topOfBookConflator.flushAll(System.nanoTime());
+        broadcastPublisher.stop();
+    }
+
+    private void endOfBatch() {
+        for (var orderbook : updatedOrderbooks) {
             try {
+                broadcastMarketData(orderbook);
+            } catch (Exception e) {
+                LOGGER.warn("Unhandled exception broadcasting market data of orderbook {}.", orderbook.getOrderbookId(), e);
+            }
+        }
+        updatedOrderbooks.clear();
+        long nowNanos = System.nanoTime();
+        topOfBookConflator.flush(nowNanos);
+        if (depthFeed != null) {
+            depthFeed.publishSnapshotsIfDue(nowNanos);
+        }
+        publishOrderbookSnapshotsIfDue(nowNanos);
+    }
+
+    /**
+     * Readers on other threads are served from snapshots published here, so they lag the orderbooks by up to the
+     * interval, or by up to the poll timeout while the engine is idle.
+     */
+    private void publishOrderbookSnapshotsIfDue(long nowNanos) {
+        if (nowNanos - lastOrderbookSnapshotNanos < ORDERBOOK_SNAPSHOT_INTERVAL_NANOS) {
+            return;
+        }
+        lastOrderbookSnapshotNanos = nowNanos;
+        orderbookCache.publishRequestedSnapshots();
+    }
+
+    private void broadcastMarketData(Orderbook orderbook) {
+        if (depthFeed != null) {
+            depthFeed.publishDelta(orderbook.getOrderbookId());
+        }
+        TopOfBook topOfBook = orderbook.getTopOfBook();
+        if (topOfBook != null) {
+            topOfBookConflator.update(topOfBook, System.nanoTime());
+        }
+        broadcastIndicativeAuctionPrice(orderbook);
+    }
+
+    private void handleEvent(Object event) {
+        if (isPendingMigration(event)) {
+            return;
+        }
+
+        if (event instanceof OrderbookEvent orderbookEvent) {
+            if (auctionPool != null && isAuctionRun(orderbookEvent)) {
+                runAuctions(pollAuctionRuns((StateChange) orderbookEvent));
+            } else {
                 updateOrderbook(orderbookEvent);
+            }
+
+        } else if (event instanceof IncomingOrderbook incomingOrderbook) {
+            if (!orderbookIdsArrivedEarly.remove(incomingOrderbook.orderbookId())) {
+                orderbookIdToPendingEvents.put(incomingOrderbook.orderbookId(), new ArrayList<>());
+            }
+
+        } else if (event instanceof OutgoingOrderbook outgoingOrderbook) {
+            handOver(outgoingOrderbook);
+
+        } else if (event == HANDOVER_SIGNAL) {
+            takeOverHandovers();
+
+        } else {
+            LOGGER.error("Unhandled event {}", event);
+        }
+    }
+
+    /**
+     * Events, including further migrations, for an orderbook which is on its way to this engine are held back in
+     * queue order until it arrives.
+     */
+    private boolean isPendingMigration(Object event) {
+        if (orderbookIdToPendingEvents.isEmpty()) {
+            return false;
+        }
+        var pendingEvents = orderbookIdToPendingEvents.get(getOrderbookId(event));
+        if (pendingEvents == null) {
+            return false;
+        }
+        pendingEvents.add(event);
+        return true;
+    }
+
+    private static String getOrderbookId(Object event) {
+        return switch (event) {
+            case OrderbookEvent orderbookEvent -> orderbookEvent.orderbookId();
+            case IncomingOrderbook incomingOrderbook -> incomingOrderbook.orderbookId();
+            case OutgoingOrderbook outgoingOrderbook -> outgoingOrderbook.orderbookId();
+            default -> null;
+        };
+    }
+
+    private void handOver(OutgoingOrderbook outgoingOrderbook) {
+        String orderbookId = outgoingOrderbook.orderbookId();
+        var orderbook = orderbookCache.removeOrderbook(orderbookId);
+        if (orderbook != null && updatedOrderbooks.remove(orderbook)) {
+            broadcastMarketData(orderbook);
+        }
+        topOfBookConflator.remove(orderbookId, System.nanoTime());
+        var indicativeAuctionPrice = orderbookIdToIndicativeAuctionPrice.remove(orderbookId);
+        var depth = depthFeed != null ? depthFeed.untrack(orderbookId) : null;
+        var isPublishedUpToHandover = new CountDownLatch(1);
+        broadcastPublisher.publish(isPublishedUpToHandover::countDown);
+        outgoingOrderbook.target().receiveHandover(new OrderbookHandover(orderbookId, orderbook, indicativeAuctionPrice, depth, id, isPublishedUpToHandover));
+        LOGGER.info("Orderbook {} handed over from {} to {}.", orderbookId, id, outgoingOrderbook.target().getId());
+    }
+
+    /**
+     * Never blocks, if the event queue is full the matching thread is busy and picks the handover up before its next
+     * batch anyway.
+     */
+    private void receiveHandover(OrderbookHandover orderbookHandover) {
+        handovers.add(orderbookHandover);
+        eventQueue.offer(HANDOVER_SIGNAL);
+    }
+
+    private void takeOverHandovers() {
+        OrderbookHandover orderbookHandover;
+        while ((orderbookHandover = handovers.poll()) != null) {
+            try {
+                takeOver(orderbookHandover);
             } catch (Exception e) {
-                LOGGER.warn("Unhandled exception for orderbookEvent: {}", orderbookEvent, e);
+                LOGGER.warn("Unhandled exception taking over orderbook {}.", orderbookHandover.orderbookId(), e);
             }
         }
     }
 
-    private OrderbookEvent poll() {
+    /**
+     * A handover can overtake its {@link IncomingOrderbook} on the event queue, the orderbook is then marked as arrived
+     * so that no events are held back for it.
+     */
+    private void takeOver(OrderbookHandover orderbookHandover) {
+        String orderbookId = orderbookHandover.orderbookId();
+        broadcastPublisher.publish(() -> awaitSourcePublisher(orderbookHandover));
+        if (orderbookHandover.orderbook() != null) {
+            orderbookHandover.orderbook().claim();
+            orderbookCache.addOrderbook(orderbookHandover.orderbook());
+            if (depthFeed != null) {
+                if (orderbookHandover.depth() != null) {
+                    depthFeed.track(orderbookHandover.orderbook(), orderbookHandover.depth());
+                } else {
+                    depthFeed.track(orderbookHandover.orderbook());
+                }
+            }
+        }
+        if (orderbookHandover.indicativeAuctionPrice() != null) {
+            orderbookIdToIndicativeAuctionPrice.put(orderbookId, orderbookHandover.indicativeAuctionPrice());
+        }
+
+        var pendingEvents = orderbookIdToPendingEvents.remove(orderbookId);
+        if (pendingEvents == null) {
+            orderbookIdsArrivedEarly.add(orderbookId);
+        }
+        LOGGER.info("Orderbook {} taken over by {}, replaying {} pending events.", orderbookId, id, pendingEvents == null ? 0 : pendingEvents.size());
+        if (pendingEvents != null) {
+            for (var pendingEvent : pendingEvents) {
+                try {
+                    handleEvent(pendingEvent);
+                } catch (Exception e) {
+                    LOGGER.warn("Unhandled exception for event: {}", pendingEvent, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs on the publisher thread, so output of this engine published after the take over waits behind the output the
+     * source engine published before the handover.
+     */
+    private void awaitSourcePublisher(OrderbookHandover orderbookHandover) {
+        try {
+            if (!orderbookHandover.isPublishedUpToHandover().await(HANDOVER_FENCE_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                LOGGER.warn("Publisher of {} did not reach the handover of orderbook {} within {} ms, publishing anyway.",
+                        orderbookHandover.sourceId(), orderbookHandover.orderbookId(), HANDOVER_FENCE_TIMEOUT_MS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Object poll() {
         try {
-            return eventQueue.poll(500, TimeUnit.MILLISECONDS);
+            long timeoutNanos = Math.min(MAX_POLL_NANOS, topOfBookConflator.nanosUntilNextFlush(System.nanoTime()));
+            return eventQueue.poll(timeoutNanos, TimeUnit.NANOSECONDS);
         } catch (InterruptedException e) {
             return null;
         }
@@ -107,8 +502,6 @@ public class MatchingEngine {
             return;
         }
 
-        TopOfBook preMatchTob = orderbook.getTopOfBook();
-
         if (!orderbook.updateOrderbook(order)) {
             LOGGER.error("Could not update orderbook {}", order);
             return;
@@ -117,44 +510,120 @@ public class MatchingEngine {
         broadcast(AUDIT_TRAIL_KEY, order);
         var tradeExecution = orderbook.runMatchingAlgorithm(order);
         broadcast(tradeExecution);
+        updatedOrderbooks.add(orderbook);
+    }
 
-        TopOfBook postMatchTob = orderbook.getTopOfBook();
+    private void updateOrderbook(StateChange stateChange) {
+        var orderbook = updateState(stateChange);
+        if (orderbook == null) {
+            return;
+        }
 
-        if (preMatchTob.hasUpdated(postMatchTob)) {
-            broadcastTopOfBook(postMatchTob);
+        if (isAuctionRun(stateChange)) {
+            broadcast(orderbook.runAuctionAlgorithm());
         }
+        updatedOrderbooks.add(orderbook);
     }
 
-    private void updateOrderbook(StateChange stateChange) {
+    private Orderbook updateState(StateChange stateChange) {
         var orderbook = orderbookCache.getOrCreateOrderbook(stateChange.orderbookId());
         if (orderbook == null) {
             LOGGER.error("Cannot update orderbook {} state to {} does not exist.", stateChange.orderbookId(), stateChange.tradeState());
-            return;
+            return null;
         }
 
-        if (orderbook.updateState(stateChange.tradeState())) {
-            broadcast(AUDIT_TRAIL_KEY, stateChange);
-
-            if (stateChange.tradeState() == OPEN_AUCTION_RUN || stateChange.tradeState() == CLOSING_AUCTION_RUN) {
-                runAuction(orderbook);
-            }
-
-        } else {
+        if (!orderbook.updateState(stateChange.tradeState())) {
             LOGGER.error("Could not update orderbook {}", stateChange);
+            return null;
         }
+
+        broadcast(AUDIT_TRAIL_KEY, stateChange);
+        if (isAuctionRun(stateChange)) {
+            orderbookIdToIndicativeAuctionPrice.remove(orderbook.getOrderbookId());
+        }
+        return orderbook;
     }
 
-    private void runAuction(Orderbook orderbook) {
-        TopOfBook preMatchTob = orderbook.getTopOfBook();
+    private static boolean isAuctionRun(OrderbookEvent orderbookEvent) {
+        return orderbookEvent instanceof StateChange stateChange &&
+                (stateChange.tradeState() == OPEN_AUCTION_RUN || stateChange.tradeState() == CLOSING_AUCTION_RUN);
+    }
 
-        var tradeExecution = orderbook.runAuctionAlgorithm();
-        broadcast(tradeExecution);
+    /**
+     * Takes the auction runs directly behind {@code stateChange} in the batch, stopping at any other event or at a
+     * second run for the same orderbook so that the queue order is kept per orderbook.
+     */
+    private List<StateChange> pollAuctionRuns(StateChange stateChange) {
+        List<StateChange> auctionRuns = new ArrayList<>();
+        Set<String> orderbookIds = new HashSet<>();
+        auctionRuns.add(stateChange);
+        orderbookIds.add(stateChange.orderbookId());
+        while (batchIndex + 1 < batch.size() && batch.get(batchIndex + 1) instanceof StateChange next && isAuctionRun(next) &&
+                !orderbookIdToPendingEvents.containsKey(next.orderbookId()) && orderbookIds.add(next.orderbookId())) {
+            auctionRuns.add(next);
+            batchIndex++;
+        }
+        return auctionRuns;
+    }
 
-        TopOfBook postMatchTob = orderbook.getTopOfBook();
+    /**
+     * Orderbooks are independent, so their auctions are forked to the auction pool. Each orderbook is claimed by the
+     * pool thread running its auction and claimed back by the matching thread after the join, the fork and the join
+     * order the two. The results are broadcast in queue order once all of them are done, and their trades are given
+     * ids at that point so that the ids follow the queue order rather than the order the auctions happened to finish in.
+     */
+    private void runAuctions(List<StateChange> auctionRuns) {
+        List<Orderbook> orderbooks = new ArrayList<>(auctionRuns.size());
+        List<ForkJoinTask<TradeExecution>> auctions = new ArrayList<>(auctionRuns.size());
+        for (var stateChange : auctionRuns) {
+            var orderbook = updateState(stateChange);
+            if (orderbook != null) {
+                orderbooks.add(orderbook);
+                auctions.add(auctionPool.submit(() -> {
+                    orderbook.claim();
+                    return orderbook.runAuctionAlgorithm();
+                }));
+                updatedOrderbooks.add(orderbook);
+            }
+        }
 
-        if (!preMatchTob.hasUpdated(postMatchTob)) {
-            broadcastTopOfBook(postMatchTob);
+        for (int i = 0; i < auctions.size(); i++) {
+            try {
+                broadcast(assignTradeIds(auctions.get(i).join()));
+            } catch (Exception e) {
+                LOGGER.warn("Unhandled exception in auction run.", e);
+            } finally {
+                orderbooks.get(i).claim();
+            }
+        }
+    }
+
+    /**
+     * The ids drawn by the auction pool are replaced, which leaves gaps in the id sequence but keeps it ascending in
+     * queue order.
+     */
+    private static TradeExecution assignTradeIds(TradeExecution tradeExecution) {
+        if (tradeExecution == null) {
+            return null;
         }
+        List<OrderbookEvent> messages = new ArrayList<>(tradeExecution.messages().size());
+        for (var message : tradeExecution.messages()) {
+            messages.add(message instanceof Trade trade ? ImmutableTrade.builder().from(trade).tradeId(nextTradeId()).build() : message);
+        }
+        return ImmutableTradeExecution.builder().from(tradeExecution).messages(messages).build();
+    }
+
+    /**
+     * Conflated: only an indicative price that differs from the last one published for the orderbook is broadcast.
+     */
+    private void broadcastIndicativeAuctionPrice(Orderbook orderbook) {
+        orderbook.getIndicativeAuctionPrice().ifPresent(indicativeAuctionPrice -> {
+            var previous = orderbookIdToIndicativeAuctionPrice.get(orderbook.getOrderbookId());
+            if (indicativeAuctionPrice.hasUpdated(previous)) {
+                orderbookIdToIndicativeAuctionPrice.put(orderbook.getOrderbookId(), indicativeAuctionPrice);
+                broadcastPublisher.publish(() -> indicativeAuctionPriceBroadcaster.accept(indicativeAuctionPrice));
+            }
+        });
     }
 
     private void broadcastTopOfBook(TopOfBook topOfBook) {
@@ -176,6 +645,20 @@ public class MatchingEngine {
         if (orderbookEvent == null) {
             return;
         }
-        broadcastHandler.broadcastMessage(partitionKey, orderbookEvent);
+        broadcastPublisher.publish(partitionKey, orderbookEvent);
+    }
+
+    private record IncomingOrderbook(String orderbookId) {
+    }
+
+    private record OutgoingOrderbook(String orderbookId, MatchingEngine target) {
+    }
+
+    private record OrderbookHandover(String orderbookId,
+                                     Orderbook orderbook,
+                                     IndicativeAuctionPrice indicativeAuctionPrice,
+                                     OrderbookDepth depth,
+                                     String sourceId,
+                                     CountDownLatch isPublishedUpToHandover) {
     }
-}
\ No newline at end of file
+}
@@ -18,4 +18,8 @@ public interface ActiveOrderReadOnly {
     Optional<PriceLevel> getBestBidPriceLevel();
 
     Optional<PriceLevel> getBestAskPriceLevel();
+
+    Iterable<PriceLevel> getBidPriceLevels();
+
+    Iterable<PriceLevel> getAskPriceLevels();
 }
@@ -1,8 +1,23 @@
 package com.herron.exchange.tradingengine.server.matchingengine.api;
 
+import com.herron.exchange.common.api.common.messages.common.Price;
 import com.herron.exchange.tradingengine.server.matchingengine.auctionalgorithms.model.EquilibriumPriceResult;
 
 public interface AuctionAlgorithm {
 
-    EquilibriumPriceResult calculateEquilibriumPrice();
+    /**
+     * Starts tracking book changes so that {@link #calculateOptimalPrice(Price)} is answered without rescanning the
+     * book until {@link #stopCallPhase()}.
+     */
+    void startCallPhase();
+
+    void stopCallPhase();
+
+    EquilibriumPriceResult.VolumeMatchAtPriceItem calculateOptimalPrice(Price referencePrice);
+
+    default EquilibriumPriceResult calculateEquilibriumPrice() {
+        return calculateEquilibriumPrice(null);
+    }
+
+    EquilibriumPriceResult calculateEquilibriumPrice(Price referencePrice);
 }
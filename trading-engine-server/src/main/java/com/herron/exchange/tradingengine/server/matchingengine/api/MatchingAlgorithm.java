@@ -3,11 +3,22 @@ package com.herron.exchange.tradingengine.server.matchingengine.api;
 import com.herron.exchange.common.api.common.api.trading.Order;
 import com.herron.exchange.common.api.common.api.trading.OrderbookEvent;
 import com.herron.exchange.common.api.common.messages.common.Price;
+import com.herron.exchange.common.api.common.messages.common.Volume;
 
 import java.util.List;
 
 public interface MatchingAlgorithm {
-    List<OrderbookEvent> matchOrder(Order incomingOrder);
 
-    List<OrderbookEvent> matchAtPrice(Price price);
+    /**
+     * Matches the incoming order against the crossing opposing orders, best first, without updating the book.
+     * The resulting events are appended to {@code events} and the incoming order as it stands after the sweep is
+     * returned. A sweep may stop early when the book has to be updated before matching can continue.
+     */
+    Order sweep(Order incomingOrder, List<OrderbookEvent> events);
+
+    /**
+     * Executes {@code executableVolume} at {@code price} in one pass over both sides of the book, allocating by the
+     * algorithm's priority. All fills and trades are appended to {@code events} without updating the book.
+     */
+    void uncross(Price price, Volume executableVolume, List<OrderbookEvent> events);
 }
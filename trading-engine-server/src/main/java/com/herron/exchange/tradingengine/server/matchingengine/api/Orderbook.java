@@ -8,6 +8,7 @@ import com.herron.exchange.common.api.common.messages.common.Volume;
 import com.herron.exchange.common.api.common.messages.trading.MarketByLevel;
 import com.herron.exchange.common.api.common.messages.trading.TopOfBook;
 import com.herron.exchange.common.api.common.messages.trading.TradeExecution;
+import com.herron.exchange.tradingengine.server.matchingengine.auctionalgorithms.model.IndicativeAuctionPrice;
 
 import java.util.Optional;
 
@@ -16,12 +17,32 @@ public interface Orderbook {
 
     TopOfBook getTopOfBook();
 
+    /**
+     * Has to be set from the thread updating the orderbook, or before the orderbook is handed to it.
+     */
+    void setPriceLevelUpdateListener(PriceLevelUpdateListener priceLevelUpdateListener);
+
+    /**
+     * Makes the current thread the one updating the orderbook. Has to happen-after the last update of the previous
+     * thread, for example through the queue or the fork and join that handed the orderbook over.
+     */
+    void claim();
+
+    /**
+     * Readers on other threads than the one updating the orderbook are served price levels, best orders and the
+     * indicative auction price from a snapshot. If one of them has asked since the last call and the orderbook has
+     * changed, a fresh snapshot is published. Has to be called from the thread updating the orderbook.
+     */
+    void publishSnapshotIfRequested();
+
     Optional<Order> getBestBidOrder();
 
     Optional<Order> getBestAskOrder();
 
     TradeExecution runAuctionAlgorithm();
 
+    Optional<IndicativeAuctionPrice> getIndicativeAuctionPrice();
+
     boolean updateOrderbook(Order order);
 
     boolean isAccepting();
@@ -0,0 +1,33 @@
+package com.herron.exchange.tradingengine.server.matchingengine.api;
+
+import com.herron.exchange.common.api.common.messages.common.Price;
+import com.herron.exchange.tradingengine.server.matchingengine.orderbook.model.PriceLevel;
+
+import java.util.Optional;
+
+/**
+ * One side of the book. Iteration order is from the best to the worst price level, levels are ranked from 1 (best).
+ */
+public interface PriceLevelSide extends Iterable<PriceLevel> {
+
+    PriceLevel getPriceLevel(Price price);
+
+    /**
+     * Whether a price level at {@code price} can be added to this side.
+     */
+    default boolean isValidPrice(Price price) {
+        return true;
+    }
+
+    PriceLevel getPriceLevel(int level);
+
+    void addPriceLevel(PriceLevel priceLevel);
+
+    PriceLevel removePriceLevel(Price price);
+
+    Optional<PriceLevel> getBestPriceLevel();
+
+    int nrOfPriceLevels();
+
+    boolean isEmpty();
+}
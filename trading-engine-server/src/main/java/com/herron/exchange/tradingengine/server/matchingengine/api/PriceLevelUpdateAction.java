@@ -0,0 +1,7 @@
+package com.herron.exchange.tradingengine.server.matchingengine.api;
+
+public enum PriceLevelUpdateAction {
+    ADD,
+    CHANGE,
+    DELETE
+}
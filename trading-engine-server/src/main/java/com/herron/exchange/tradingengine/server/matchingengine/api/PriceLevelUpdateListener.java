@@ -0,0 +1,13 @@
+package com.herron.exchange.tradingengine.server.matchingengine.api;
+
+import com.herron.exchange.common.api.common.enums.OrderSideEnum;
+import com.herron.exchange.common.api.common.messages.common.Price;
+
+/**
+ * Notified when a price level is added to the book, changes or is removed from it, with the state of the level after
+ * the change. A removed level has no volume and no orders.
+ */
+public interface PriceLevelUpdateListener {
+
+    void onPriceLevelUpdate(PriceLevelUpdateAction action, OrderSideEnum orderSide, Price price, double volume, long nrOfOrders);
+}
@@ -0,0 +1,12 @@
+package com.herron.exchange.tradingengine.server.matchingengine.api;
+
+import com.herron.exchange.common.api.common.enums.OrderSideEnum;
+import com.herron.exchange.common.api.common.messages.common.Price;
+
+/**
+ * Notified on every change of resting volume in the book, keyed by side and price.
+ */
+public interface PriceLevelVolumeListener {
+
+    void onVolumeChange(OrderSideEnum orderSide, Price price, double volumeChange, long nrOfOrdersChange);
+}
@@ -0,0 +1,268 @@
+package com.herron.exchange.tradingengine.server.matchingengine.auctionalgorithms;
+
+import com.herron.exchange.common.api.common.enums.OrderSideEnum;
+import com.herron.exchange.common.api.common.messages.common.Price;
+import com.herron.exchange.common.api.common.messages.common.Volume;
+import com.herron.exchange.tradingengine.server.matchingengine.api.PriceLevelVolumeListener;
+import com.herron.exchange.tradingengine.server.matchingengine.auctionalgorithms.model.EquilibriumPriceResult;
+import com.herron.exchange.tradingengine.server.matchingengine.orderbook.model.PriceLevel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Cumulative bid and ask curves maintained during the call phase. Resting volume per price is kept in two Fenwick
+ * trees over the ascending candidate prices, so a volume change at a known price costs O(log P) and the equilibrium
+ * price is found by a binary search for the crossing point of the curves. A price not seen before rebuilds the trees
+ * in O(P), dropping the prices that no longer hold any orders.
+ */
+public class AuctionCurves implements PriceLevelVolumeListener {
+    private static final int INITIAL_CAPACITY = 64;
+    private Price[] prices = new Price[INITIAL_CAPACITY];
+    private double[] bidVolumes = new double[INITIAL_CAPACITY];
+    private double[] askVolumes = new double[INITIAL_CAPACITY];
+    private long[] nrOfBidOrders = new long[INITIAL_CAPACITY];
+    private long[] nrOfAskOrders = new long[INITIAL_CAPACITY];
+    private double[] bidVolumeTree = new double[INITIAL_CAPACITY + 1];
+    private double[] askVolumeTree = new double[INITIAL_CAPACITY + 1];
+    private int nrOfPrices = 0;
+    private double totalBidVolume = 0;
+    private double totalAskVolume = 0;
+
+    public void load(Iterable<PriceLevel> bidPriceLevels, Iterable<PriceLevel> askPriceLevels) {
+        List<PriceLevel> bidLevels = new ArrayList<>();
+        bidPriceLevels.forEach(bidLevels::add);
+        List<PriceLevel> askLevels = new ArrayList<>();
+        askPriceLevels.forEach(askLevels::add);
+
+        clear();
+        ensureCapacity(bidLevels.size() + askLevels.size());
+        int bidIndex = bidLevels.size() - 1;
+        int askIndex = 0;
+        while (bidIndex >= 0 || askIndex < askLevels.size()) {
+            double bidPrice = bidIndex >= 0 ? bidLevels.get(bidIndex).getPrice().getValue() : Double.POSITIVE_INFINITY;
+            double askPrice = askIndex < askLevels.size() ? askLevels.get(askIndex).getPrice().getValue() : Double.POSITIVE_INFINITY;
+            if (bidPrice <= askPrice) {
+                var bidLevel = bidLevels.get(bidIndex--);
+                prices[nrOfPrices] = bidLevel.getPrice();
+                bidVolumes[nrOfPrices] = bidLevel.volumeAtPriceLevel().getRealValue();
+                nrOfBidOrders[nrOfPrices] = bidLevel.nrOfOrdersAtPriceLevel();
+                totalBidVolume += bidVolumes[nrOfPrices];
+            }
+            if (askPrice <= bidPrice) {
+                var askLevel = askLevels.get(askIndex++);
+                prices[nrOfPrices] = askLevel.getPrice();
+                askVolumes[nrOfPrices] = askLevel.volumeAtPriceLevel().getRealValue();
+                nrOfAskOrders[nrOfPrices] = askLevel.nrOfOrdersAtPriceLevel();
+                totalAskVolume += askVolumes[nrOfPrices];
+            }
+            nrOfPrices++;
+        }
+        buildTrees();
+    }
+
+    @Override
+    public void onVolumeChange(OrderSideEnum orderSide, Price price, double volumeChange, long nrOfOrdersChange) {
+        int index = indexOf(price);
+        if (index < 0) {
+            index = insertPrice(price, -index - 1);
+        }
+
+        switch (orderSide) {
+            case BID -> {
+                nrOfBidOrders[index] += nrOfOrdersChange;
+                // Snap to zero once the last order is gone so that rounding never leaves a phantom price behind.
+                double change = nrOfBidOrders[index] == 0 ? -bidVolumes[index] : volumeChange;
+                bidVolumes[index] += change;
+                totalBidVolume += change;
+                updateTree(bidVolumeTree, index, change);
+            }
+            case ASK -> {
+                nrOfAskOrders[index] += nrOfOrdersChange;
+                double change = nrOfAskOrders[index] == 0 ? -askVolumes[index] : volumeChange;
+                askVolumes[index] += change;
+                totalAskVolume += change;
+                updateTree(askVolumeTree, index, change);
+            }
+        }
+    }
+
+    /**
+     * The executable volume peaks where the falling cumulative bid curve crosses the rising cumulative ask curve, so
+     * only the last occupied price at or below the crossing and the first one above it can be optimal. They are
+     * compared with the same tie-breaks as {@link DutchAuctionAlgorithm}.
+     */
+    public EquilibriumPriceResult.VolumeMatchAtPriceItem calculateEquilibriumPrice(Price referencePrice) {
+        int low = 0;
+        int high = nrOfPrices - 1;
+        int crossing = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (bidVolumeAtOrAbove(mid) >= askVolumeAtOrBelow(mid)) {
+                crossing = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        int below = crossing;
+        while (below >= 0 && isEmpty(below)) {
+            below--;
+        }
+        int above = crossing + 1;
+        while (above < nrOfPrices && isEmpty(above)) {
+            above++;
+        }
+
+        int optimalIndex = below;
+        if (above < nrOfPrices && (below < 0 || isBetter(above, below, referencePrice))) {
+            optimalIndex = above;
+        }
+        if (optimalIndex < 0) {
+            return null;
+        }
+
+        double bidVolume = bidVolumeAtOrAbove(optimalIndex);
+        double askVolume = askVolumeAtOrBelow(optimalIndex);
+        if (Math.min(bidVolume, askVolume) <= 0) {
+            return null;
+        }
+        return new EquilibriumPriceResult.VolumeMatchAtPriceItem(prices[optimalIndex], Volume.create(bidVolume), Volume.create(askVolume));
+    }
+
+    private boolean isBetter(int index, int otherIndex, Price referencePrice) {
+        return DutchAuctionAlgorithm.isBetter(
+                prices[index].getValue(), bidVolumeAtOrAbove(index), askVolumeAtOrBelow(index),
+                prices[otherIndex].getValue(), bidVolumeAtOrAbove(otherIndex), askVolumeAtOrBelow(otherIndex),
+                referencePrice
+        );
+    }
+
+    private double bidVolumeAtOrAbove(int index) {
+        return totalBidVolume - prefixSum(bidVolumeTree, index - 1);
+    }
+
+    private double askVolumeAtOrBelow(int index) {
+        return prefixSum(askVolumeTree, index);
+    }
+
+    private boolean isEmpty(int index) {
+        return nrOfBidOrders[index] == 0 && nrOfAskOrders[index] == 0;
+    }
+
+    private int indexOf(Price price) {
+        double value = price.getValue();
+        int low = 0;
+        int high = nrOfPrices - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            double midValue = prices[mid].getValue();
+            if (midValue < value) {
+                low = mid + 1;
+            } else if (midValue > value) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private int insertPrice(Price price, int insertionPoint) {
+        int newInsertionPoint = -1;
+        int size = 0;
+        for (int index = 0; index < nrOfPrices; index++) {
+            if (index == insertionPoint) {
+                newInsertionPoint = size;
+            }
+            if (isEmpty(index)) {
+                continue;
+            }
+            prices[size] = prices[index];
+            bidVolumes[size] = bidVolumes[index];
+            askVolumes[size] = askVolumes[index];
+            nrOfBidOrders[size] = nrOfBidOrders[index];
+            nrOfAskOrders[size] = nrOfAskOrders[index];
+            size++;
+        }
+        if (newInsertionPoint < 0) {
+            newInsertionPoint = size;
+        }
+        Arrays.fill(prices, size, nrOfPrices, null);
+
+        nrOfPrices = size;
+        ensureCapacity(nrOfPrices + 1);
+        int tail = nrOfPrices - newInsertionPoint;
+        System.arraycopy(prices, newInsertionPoint, prices, newInsertionPoint + 1, tail);
+        System.arraycopy(bidVolumes, newInsertionPoint, bidVolumes, newInsertionPoint + 1, tail);
+        System.arraycopy(askVolumes, newInsertionPoint, askVolumes, newInsertionPoint + 1, tail);
+        System.arraycopy(nrOfBidOrders, newInsertionPoint, nrOfBidOrders, newInsertionPoint + 1, tail);
+        System.arraycopy(nrOfAskOrders, newInsertionPoint, nrOfAskOrders, newInsertionPoint + 1, tail);
+        prices[newInsertionPoint] = price;
+        bidVolumes[newInsertionPoint] = 0;
+        askVolumes[newInsertionPoint] = 0;
+        nrOfBidOrders[newInsertionPoint] = 0;
+        nrOfAskOrders[newInsertionPoint] = 0;
+        nrOfPrices++;
+
+        buildTrees();
+        return newInsertionPoint;
+    }
+
+    private void clear() {
+        Arrays.fill(prices, 0, nrOfPrices, null);
+        Arrays.fill(bidVolumes, 0);
+        Arrays.fill(askVolumes, 0);
+        Arrays.fill(nrOfBidOrders, 0);
+        Arrays.fill(nrOfAskOrders, 0);
+        nrOfPrices = 0;
+        totalBidVolume = 0;
+        totalAskVolume = 0;
+    }
+
+    private void ensureCapacity(int nrOfPrices) {
+        if (prices.length >= nrOfPrices) {
+            return;
+        }
+        int capacity = Math.max(nrOfPrices, prices.length << 1);
+        prices = Arrays.copyOf(prices, capacity);
+        bidVolumes = Arrays.copyOf(bidVolumes, capacity);
+        askVolumes = Arrays.copyOf(askVolumes, capacity);
+        nrOfBidOrders = Arrays.copyOf(nrOfBidOrders, capacity);
+        nrOfAskOrders = Arrays.copyOf(nrOfAskOrders, capacity);
+        bidVolumeTree = new double[capacity + 1];
+        askVolumeTree = new double[capacity + 1];
+    }
+
+    private void buildTrees() {
+        buildTree(bidVolumeTree, bidVolumes);
+        buildTree(askVolumeTree, askVolumes);
+    }
+
+    private void buildTree(double[] tree, double[] volumes) {
+        Arrays.fill(tree, 0);
+        for (int i = 1; i <= nrOfPrices; i++) {
+            tree[i] += volumes[i - 1];
+            int parent = i + (i & -i);
+            if (parent <= nrOfPrices) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    private void updateTree(double[] tree, int index, double change) {
+        for (int i = index + 1; i <= nrOfPrices; i += i & -i) {
+            tree[i] += change;
+        }
+    }
+
+    private static double prefixSum(double[] tree, int index) {
+        double sum = 0;
+        for (int i = index + 1; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+}
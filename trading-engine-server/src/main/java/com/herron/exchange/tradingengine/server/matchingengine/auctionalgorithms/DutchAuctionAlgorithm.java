@@ -9,58 +9,204 @@ import com.herron.exchange.tradingengine.server.matchingengine.orderbook.ActiveO
 import com.herron.exchange.tradingengine.server.matchingengine.orderbook.model.PriceLevel;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Set;
 
+/**
+ * Candidate prices are the crossing bid and ask prices merged into one ascending ladder, cumulative bid volume is
+ * summed from the top and cumulative ask volume from the bottom, so every candidate is evaluated in O(P). The price
+ * with the highest executable volume wins, ties go to the lowest imbalance, then to the side with market pressure and
+ * finally to the price closest to the reference price. During the call phase the curves are instead kept up to date
+ * by {@link AuctionCurves} on every book change, which turns the optimal price into a lookup.
+ */
 public class DutchAuctionAlgorithm implements AuctionAlgorithm {
+    private static final int INITIAL_CAPACITY = 64;
 
     private final ActiveOrders activeOrders;
+    private PriceLevel[] bidLevels = new PriceLevel[INITIAL_CAPACITY];
+    private PriceLevel[] askLevels = new PriceLevel[INITIAL_CAPACITY];
+    private Price[] prices = new Price[2 * INITIAL_CAPACITY];
+    private double[] bidVolumes = new double[2 * INITIAL_CAPACITY];
+    private double[] askVolumes = new double[2 * INITIAL_CAPACITY];
+    private AuctionCurves auctionCurves;
 
     public DutchAuctionAlgorithm(ActiveOrders activeOrders) {
         this.activeOrders = activeOrders;
     }
 
-    public EquilibriumPriceResult calculateEquilibriumPrice() {
+    @Override
+    public void startCallPhase() {
+        auctionCurves = new AuctionCurves();
+        auctionCurves.load(activeOrders.getBidPriceLevels(), activeOrders.getAskPriceLevels());
+        activeOrders.setVolumeListener(auctionCurves);
+    }
+
+    @Override
+    public void stopCallPhase() {
+        activeOrders.setVolumeListener(null);
+        auctionCurves = null;
+    }
+
+    @Override
+    public EquilibriumPriceResult.VolumeMatchAtPriceItem calculateOptimalPrice(Price referencePrice) {
+        if (auctionCurves != null) {
+            return auctionCurves.calculateEquilibriumPrice(referencePrice);
+        }
+        var equilibriumPrice = calculateEquilibriumPrice(referencePrice);
+        return equilibriumPrice == null ? null : equilibriumPrice.optimalPrice();
+    }
+
+    @Override
+    public EquilibriumPriceResult calculateEquilibriumPrice(Price referencePrice) {
         var bestBidPriceLevel = activeOrders.getBestBidPriceLevel();
         var bestAskPriceLevel = activeOrders.getBestAskPriceLevel();
         if (bestBidPriceLevel.isEmpty() || bestAskPriceLevel.isEmpty()) {
             return null;
         }
 
-        List<PriceLevel> bidPriceLevels = activeOrders.getBidPriceLevelsHigherOrEqual(bestAskPriceLevel.get().getPrice());
-        List<PriceLevel> askPriceLevels = activeOrders.getAskPriceLevelsLowerOrEqual(bestBidPriceLevel.get().getPrice());
+        int nrOfBidLevels = loadBidLevels(bestAskPriceLevel.get().getPrice());
+        int nrOfAskLevels = loadAskLevels(bestBidPriceLevel.get().getPrice());
+        int nrOfPrices = mergePrices(nrOfBidLevels, nrOfAskLevels);
+        Arrays.fill(bidLevels, 0, nrOfBidLevels, null);
+        Arrays.fill(askLevels, 0, nrOfAskLevels, null);
+        if (nrOfPrices == 0) {
+            return null;
+        }
+
+        double cumulativeAskVolume = 0;
+        for (int i = 0; i < nrOfPrices; i++) {
+            cumulativeAskVolume += askVolumes[i];
+            askVolumes[i] = cumulativeAskVolume;
+        }
+        double cumulativeBidVolume = 0;
+        for (int i = nrOfPrices - 1; i >= 0; i--) {
+            cumulativeBidVolume += bidVolumes[i];
+            bidVolumes[i] = cumulativeBidVolume;
+        }
+
+        int optimalIndex = 0;
+        for (int i = 1; i < nrOfPrices; i++) {
+            if (isBetter(i, optimalIndex, referencePrice)) {
+                optimalIndex = i;
+            }
+        }
+
+        List<EquilibriumPriceResult.VolumeMatchAtPriceItem> volumeMatchAtPriceItems = new ArrayList<>(nrOfPrices);
+        for (int i = 0; i < nrOfPrices; i++) {
+            volumeMatchAtPriceItems.add(new EquilibriumPriceResult.VolumeMatchAtPriceItem(prices[i], Volume.create(bidVolumes[i]), Volume.create(askVolumes[i])));
+            prices[i] = null;
+        }
 
-        return calculateEquilibriumPrice(bidPriceLevels, askPriceLevels);
+        return new EquilibriumPriceResult(Timestamp.now(), volumeMatchAtPriceItems.get(optimalIndex), volumeMatchAtPriceItems);
     }
 
-    private EquilibriumPriceResult calculateEquilibriumPrice(List<PriceLevel> bidPriceLevels, List<PriceLevel> askPriceLevels) {
-        Set<Price> possibleEquilibriumPrice = new HashSet<>();
-        bidPriceLevels.forEach(pl -> possibleEquilibriumPrice.add(pl.getPrice()));
-        askPriceLevels.forEach(pl -> possibleEquilibriumPrice.add(pl.getPrice()));
+    private boolean isBetter(int index, int otherIndex, Price referencePrice) {
+        return isBetter(
+                prices[index].getValue(), bidVolumes[index], askVolumes[index],
+                prices[otherIndex].getValue(), bidVolumes[otherIndex], askVolumes[otherIndex],
+                referencePrice
+        );
+    }
 
-        if (possibleEquilibriumPrice.isEmpty()) {
-            return null;
+    static boolean isBetter(double price,
+                            double bidVolume,
+                            double askVolume,
+                            double otherPrice,
+                            double otherBidVolume,
+                            double otherAskVolume,
+                            Price referencePrice) {
+        double volume = Math.min(bidVolume, askVolume);
+        double otherVolume = Math.min(otherBidVolume, otherAskVolume);
+        if (volume != otherVolume) {
+            return volume > otherVolume;
         }
-        EquilibriumPriceResult.VolumeMatchAtPriceItem maxVolumeMatchAtPrice = new EquilibriumPriceResult.VolumeMatchAtPriceItem(Price.ZERO, Volume.ZERO, Volume.ZERO);
-        List<EquilibriumPriceResult.VolumeMatchAtPriceItem> volumeMatchAtPriceItems = new ArrayList<>();
-        for (var eqPrice : possibleEquilibriumPrice) {
-            var bidVolume = bidPriceLevels.stream()
-                    .filter(pl -> pl.getPrice().geq(eqPrice))
-                    .map(PriceLevel::volumeAtPriceLevel)
-                    .reduce(Volume.ZERO, Volume::add);
-            var askVolume = askPriceLevels.stream()
-                    .filter(pl -> pl.getPrice().leq(eqPrice))
-                    .map(PriceLevel::volumeAtPriceLevel)
-                    .reduce(Volume.ZERO, Volume::add);
-
-            var matchingVolumeAtPrice = new EquilibriumPriceResult.VolumeMatchAtPriceItem(eqPrice, bidVolume, askVolume);
-            volumeMatchAtPriceItems.add(matchingVolumeAtPrice);
-            if (maxVolumeMatchAtPrice.matchedVolume().lt(matchingVolumeAtPrice.matchedVolume())) {
-                maxVolumeMatchAtPrice = matchingVolumeAtPrice;
+
+        double surplus = bidVolume - askVolume;
+        double otherSurplus = otherBidVolume - otherAskVolume;
+        if (Math.abs(surplus) != Math.abs(otherSurplus)) {
+            return Math.abs(surplus) < Math.abs(otherSurplus);
+        }
+
+        if (surplus > 0 && otherSurplus > 0) {
+            return price > otherPrice;
+        }
+        if (surplus < 0 && otherSurplus < 0) {
+            return price < otherPrice;
+        }
+
+        if (referencePrice != null) {
+            double distance = Math.abs(price - referencePrice.getValue());
+            double otherDistance = Math.abs(otherPrice - referencePrice.getValue());
+            if (distance != otherDistance) {
+                return distance < otherDistance;
             }
         }
+        return false;
+    }
 
-        return new EquilibriumPriceResult(Timestamp.now(), maxVolumeMatchAtPrice, volumeMatchAtPriceItems);
+    private int loadBidLevels(Price bestAskPrice) {
+        int nrOfLevels = 0;
+        for (var priceLevel : activeOrders.getBidPriceLevels()) {
+            if (priceLevel.getPrice().lt(bestAskPrice)) {
+                break;
+            }
+            if (nrOfLevels == bidLevels.length) {
+                bidLevels = Arrays.copyOf(bidLevels, nrOfLevels << 1);
+            }
+            bidLevels[nrOfLevels++] = priceLevel;
+        }
+        return nrOfLevels;
+    }
+
+    private int loadAskLevels(Price bestBidPrice) {
+        int nrOfLevels = 0;
+        for (var priceLevel : activeOrders.getAskPriceLevels()) {
+            if (priceLevel.getPrice().gt(bestBidPrice)) {
+                break;
+            }
+            if (nrOfLevels == askLevels.length) {
+                askLevels = Arrays.copyOf(askLevels, nrOfLevels << 1);
+            }
+            askLevels[nrOfLevels++] = priceLevel;
+        }
+        return nrOfLevels;
+    }
+
+    /**
+     * Merges the descending bid levels and ascending ask levels into one ascending price ladder holding the volume
+     * of each side at every price.
+     */
+    private int mergePrices(int nrOfBidLevels, int nrOfAskLevels) {
+        ensureCapacity(nrOfBidLevels + nrOfAskLevels);
+
+        int bidIndex = nrOfBidLevels - 1;
+        int askIndex = 0;
+        int nrOfPrices = 0;
+        while (bidIndex >= 0 || askIndex < nrOfAskLevels) {
+            double bidPrice = bidIndex >= 0 ? bidLevels[bidIndex].getPrice().getValue() : Double.POSITIVE_INFINITY;
+            double askPrice = askIndex < nrOfAskLevels ? askLevels[askIndex].getPrice().getValue() : Double.POSITIVE_INFINITY;
+            bidVolumes[nrOfPrices] = 0;
+            askVolumes[nrOfPrices] = 0;
+            if (bidPrice <= askPrice) {
+                prices[nrOfPrices] = bidLevels[bidIndex].getPrice();
+                bidVolumes[nrOfPrices] = bidLevels[bidIndex--].volumeAtPriceLevel().getRealValue();
+            }
+            if (askPrice <= bidPrice) {
+                prices[nrOfPrices] = askLevels[askIndex].getPrice();
+                askVolumes[nrOfPrices] = askLevels[askIndex++].volumeAtPriceLevel().getRealValue();
+            }
+            nrOfPrices++;
+        }
+        return nrOfPrices;
+    }
+
+    private void ensureCapacity(int nrOfPrices) {
+        if (prices.length >= nrOfPrices) {
+            return;
+        }
+        int capacity = Math.max(nrOfPrices, prices.length << 1);
+        prices = new Price[capacity];
+        bidVolumes = new double[capacity];
+        askVolumes = new double[capacity];
     }
 }
@@ -0,0 +1,30 @@
+package com.herron.exchange.tradingengine.server.matchingengine.auctionalgorithms.model;
+
+import com.herron.exchange.common.api.common.enums.OrderSideEnum;
+import com.herron.exchange.common.api.common.messages.common.Price;
+import com.herron.exchange.common.api.common.messages.common.Timestamp;
+import com.herron.exchange.common.api.common.messages.common.Volume;
+
+import java.util.Objects;
+
+public record IndicativeAuctionPrice(String orderbookId,
+                                     Timestamp timeOfEvent,
+                                     Price equilibriumPrice,
+                                     Volume matchedVolume,
+                                     Volume imbalance,
+                                     OrderSideEnum imbalanceSide) {
+
+    public static IndicativeAuctionPrice create(String orderbookId, EquilibriumPriceResult.VolumeMatchAtPriceItem item) {
+        double surplus = item.bidVolume().getRealValue() - item.askVolume().getRealValue();
+        OrderSideEnum imbalanceSide = surplus > 0 ? OrderSideEnum.BID : surplus < 0 ? OrderSideEnum.ASK : null;
+        return new IndicativeAuctionPrice(orderbookId, Timestamp.now(), item.equilibriumPrice(), item.matchedVolume(), Volume.create(Math.abs(surplus)), imbalanceSide);
+    }
+
+    public boolean hasUpdated(IndicativeAuctionPrice other) {
+        return other == null ||
+                !Objects.equals(equilibriumPrice, other.equilibriumPrice) ||
+                !Objects.equals(matchedVolume, other.matchedVolume) ||
+                !Objects.equals(imbalance, other.imbalance) ||
+                imbalanceSide != other.imbalanceSide;
+    }
+}
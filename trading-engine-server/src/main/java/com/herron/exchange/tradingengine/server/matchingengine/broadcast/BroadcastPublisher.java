@@ -0,0 +1,180 @@
+package com.herron.exchange.tradingengine.server.matchingengine.broadcast;
+
+import com.herron.exchange.common.api.common.api.Message;
+import com.herron.exchange.common.api.common.api.trading.OrderbookEvent;
+import com.herron.exchange.common.api.common.enums.KafkaTopicEnum;
+import com.herron.exchange.common.api.common.kafka.KafkaBroadcastHandler;
+import com.herron.exchange.common.api.common.messages.common.PartitionKey;
+import com.herron.exchange.common.api.common.wrappers.ThreadWrapper;
+import com.herron.exchange.tradingengine.server.codec.BinaryMessageEncoder;
+import com.herron.exchange.tradingengine.server.matchingengine.concurrency.RingBufferEventQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Output stage of a matching engine. The matching thread hands messages over through a ring buffer and a publisher
+ * thread of its own serializes and sends them, in the order they were published, in batches of at most
+ * {@code maxBatchSize}. With a linger the publisher waits up to that long for a batch to fill before sending it.
+ * <p>
+ * Messages for the binary topics are encoded on the publisher thread into {@link BinaryMessageEncoder} frames,
+ * stamped with the publisher id and numbered per topic partition, and sent with the kafka template instead of the
+ * broadcast handler. Shards share output partitions, so the sequence is only gap free per publisher id.
+ */
+public class BroadcastPublisher {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BroadcastPublisher.class);
+    public static final int DEFAULT_QUEUE_CAPACITY = 1 << 16;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 512;
+    private final String id;
+    private final KafkaBroadcastHandler broadcastHandler;
+    private final RingBufferEventQueue<Object> outboundQueue;
+    private final int maxBatchSize;
+    private final long lingerNanos;
+    private final List<Object> batch;
+    private final ExecutorService service;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final Set<KafkaTopicEnum> binaryTopics;
+    private final BinaryMessageEncoder encoder;
+    private final Map<PartitionKey, MutableLong> partitionKeyToSequenceNumber = new HashMap<>();
+    private volatile boolean isPublishing = false;
+
+    public BroadcastPublisher(String id, KafkaBroadcastHandler broadcastHandler) {
+        this(id, broadcastHandler, DEFAULT_QUEUE_CAPACITY, DEFAULT_MAX_BATCH_SIZE, 0);
+    }
+
+    public BroadcastPublisher(String id, KafkaBroadcastHandler broadcastHandler, int queueCapacity, int maxBatchSize, long lingerNanos) {
+        this(id, 0, broadcastHandler, queueCapacity, maxBatchSize, lingerNanos, null, Set.of());
+    }
+
+    public BroadcastPublisher(String id,
+                              int publisherId,
+                              KafkaBroadcastHandler broadcastHandler,
+                              int queueCapacity,
+                              int maxBatchSize,
+                              long lingerNanos,
+                              KafkaTemplate<String, Object> kafkaTemplate,
+                              Set<KafkaTopicEnum> binaryTopics) {
+        if (maxBatchSize < 1 || lingerNanos < 0) {
+            throw new IllegalArgumentException(String.format("Invalid batch size %s or linger %s.", maxBatchSize, lingerNanos));
+        }
+        this.id = id;
+        this.broadcastHandler = broadcastHandler;
+        this.outboundQueue = new RingBufferEventQueue<>(queueCapacity);
+        this.maxBatchSize = maxBatchSize;
+        this.lingerNanos = lingerNanos;
+        this.batch = new ArrayList<>(maxBatchSize);
+        this.service = Executors.newSingleThreadExecutor(new ThreadWrapper(id));
+        this.kafkaTemplate = kafkaTemplate;
+        this.encoder = new BinaryMessageEncoder(publisherId);
+        this.binaryTopics = binaryTopics.isEmpty() ? Set.of() : EnumSet.copyOf(binaryTopics);
+        if (!binaryTopics.isEmpty() && kafkaTemplate == null) {
+            throw new IllegalArgumentException("Binary topics need a kafka template.");
+        }
+    }
+
+    public void init() {
+        isPublishing = true;
+        service.execute(this::runPublishing);
+    }
+
+    /**
+     * Messages published before this call are still sent.
+     */
+    public void stop() {
+        LOGGER.info("Stopping broadcast publisher {}.", id);
+        isPublishing = false;
+        service.shutdown();
+    }
+
+    public void publish(PartitionKey partitionKey, Message message) {
+        outboundQueue.put(new OutboundMessage(partitionKey, message));
+    }
+
+    /**
+     * For output which does not go through the broadcast handler, the send is run on the publisher thread in order
+     * with the other messages.
+     */
+    public void publish(Runnable send) {
+        outboundQueue.put(send);
+    }
+
+    public int getQueueSize() {
+        return outboundQueue.size();
+    }
+
+    private void runPublishing() {
+        LOGGER.info("Starting broadcast publisher {}.", id);
+        while (isPublishing || !outboundQueue.isEmpty()) {
+            if (outboundQueue.drainTo(batch, maxBatchSize) == 0) {
+                var outbound = poll();
+                if (outbound == null) {
+                    continue;
+                }
+                batch.add(outbound);
+            }
+            if (lingerNanos > 0) {
+                linger();
+            }
+
+            for (var outbound : batch) {
+                send(outbound);
+            }
+            batch.clear();
+        }
+    }
+
+    private void linger() {
+        long deadline = System.nanoTime() + lingerNanos;
+        while (batch.size() < maxBatchSize && deadline - System.nanoTime() > 0) {
+            if (outboundQueue.drainTo(batch, maxBatchSize - batch.size()) == 0) {
+                LockSupport.parkNanos(Math.min(lingerNanos, 10_000));
+            }
+        }
+    }
+
+    private Object poll() {
+        try {
+            return outboundQueue.poll(500, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            return null;
+        }
+    }
+
+    private void send(Object outbound) {
+        try {
+            if (outbound instanceof OutboundMessage outboundMessage) {
+                send(outboundMessage.partitionKey(), outboundMessage.message());
+            } else if (outbound instanceof Runnable send) {
+                send.run();
+            }
+        } catch (Exception e) {
+            LOGGER.warn("Unhandled exception publishing {}.", outbound, e);
+        }
+    }
+
+    private void send(PartitionKey partitionKey, Message message) {
+        if (!binaryTopics.isEmpty() &&
+                binaryTopics.contains(partitionKey.topicEnum()) &&
+                message instanceof OrderbookEvent orderbookEvent &&
+                BinaryMessageEncoder.supports(orderbookEvent)) {
+            long sequenceNumber = ++partitionKeyToSequenceNumber.computeIfAbsent(partitionKey, key -> new MutableLong()).value;
+            byte[] frame = encoder.encodeToBytes(sequenceNumber, orderbookEvent);
+            kafkaTemplate.send(partitionKey.topicEnum().getTopicName(), partitionKey.partitionId(), orderbookEvent.orderbookId(), frame);
+        } else {
+            broadcastHandler.broadcastMessage(partitionKey, message);
+        }
+    }
+
+    private static class MutableLong {
+        private long value;
+    }
+
+    private record OutboundMessage(PartitionKey partitionKey, Message message) {
+    }
+}
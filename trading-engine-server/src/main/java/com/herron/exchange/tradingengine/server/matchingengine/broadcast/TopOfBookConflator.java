@@ -0,0 +1,128 @@
+package com.herron.exchange.tradingengine.server.matchingengine.broadcast;
+
+import com.herron.exchange.common.api.common.messages.trading.TopOfBook;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * Rate limits top of book per orderbook. A top of book which differs from the last one published is published at once
+ * if the orderbook's minimum interval has passed, otherwise it replaces whatever is pending for the orderbook and is
+ * published by {@link #flush(long)} once the interval has passed. The latest state of an orderbook is therefore always
+ * published, only the states in between are dropped. Used by the matching thread only.
+ */
+public class TopOfBookConflator {
+    private final ToLongFunction<String> orderbookIdToMinIntervalNanos;
+    private final Consumer<TopOfBook> publisher;
+    private final Map<String, ConflatedTopOfBook> orderbookIdToTopOfBook = new HashMap<>();
+    private final Set<ConflatedTopOfBook> pending = new LinkedHashSet<>();
+
+    /**
+     * @param orderbookIdToMinIntervalNanos minimum time between two top of books of an orderbook, resolved once per
+     *                                      orderbook. With 0 every update is published.
+     */
+    public TopOfBookConflator(ToLongFunction<String> orderbookIdToMinIntervalNanos, Consumer<TopOfBook> publisher) {
+        this.orderbookIdToMinIntervalNanos = orderbookIdToMinIntervalNanos;
+        this.publisher = publisher;
+    }
+
+    public void update(TopOfBook topOfBook, long nowNanos) {
+        var conflated = orderbookIdToTopOfBook.computeIfAbsent(
+                topOfBook.orderbookId(),
+                id -> new ConflatedTopOfBook(orderbookIdToMinIntervalNanos.applyAsLong(id))
+        );
+        if (conflated.published != null && !conflated.published.hasUpdated(topOfBook)) {
+            conflated.pending = null;
+            pending.remove(conflated);
+            return;
+        }
+        if (conflated.published == null || nowNanos - conflated.publishedNanos >= conflated.minIntervalNanos) {
+            conflated.pending = null;
+            pending.remove(conflated);
+            publish(conflated, topOfBook, nowNanos);
+        } else if (conflated.pending == null) {
+            conflated.pending = topOfBook;
+            pending.add(conflated);
+        } else {
+            conflated.pending = topOfBook;
+        }
+    }
+
+    /**
+     * Publishes the pending top of books whose interval has passed.
+     */
+    public void flush(long nowNanos) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Iterator<ConflatedTopOfBook> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            var conflated = iterator.next();
+            if (nowNanos - conflated.publishedNanos >= conflated.minIntervalNanos) {
+                iterator.remove();
+                var topOfBook = conflated.pending;
+                conflated.pending = null;
+                publish(conflated, topOfBook, nowNanos);
+            }
+        }
+    }
+
+    /**
+     * Publishes every pending top of book regardless of its interval.
+     */
+    public void flushAll(long nowNanos) {
+        for (var conflated : pending) {
+            var topOfBook = conflated.pending;
+            conflated.pending = null;
+            publish(conflated, topOfBook, nowNanos);
+        }
+        pending.clear();
+    }
+
+    /**
+     * Publishes what is pending for the orderbook and forgets it, for orderbooks leaving the engine.
+     */
+    public void remove(String orderbookId, long nowNanos) {
+        var conflated = orderbookIdToTopOfBook.remove(orderbookId);
+        if (conflated != null && pending.remove(conflated)) {
+            publish(conflated, conflated.pending, nowNanos);
+        }
+    }
+
+    /**
+     * @return how long until the next pending top of book is due, {@link Long#MAX_VALUE} if none is pending.
+     */
+    public long nanosUntilNextFlush(long nowNanos) {
+        long nanosUntilNextFlush = Long.MAX_VALUE;
+        for (var conflated : pending) {
+            nanosUntilNextFlush = Math.min(nanosUntilNextFlush, Math.max(0, conflated.publishedNanos + conflated.minIntervalNanos - nowNanos));
+        }
+        return nanosUntilNextFlush;
+    }
+
+    public int getNrOfPending() {
+        return pending.size();
+    }
+
+    private void publish(ConflatedTopOfBook conflated, TopOfBook topOfBook, long nowNanos) {
+        conflated.published = topOfBook;
+        conflated.publishedNanos = nowNanos;
+        publisher.accept(topOfBook);
+    }
+
+    private static class ConflatedTopOfBook {
+        private final long minIntervalNanos;
+        private TopOfBook published;
+        private long publishedNanos;
+        private TopOfBook pending;
+
+        private ConflatedTopOfBook(long minIntervalNanos) {
+            this.minIntervalNanos = minIntervalNanos;
+        }
+    }
+}
@@ -2,19 +2,75 @@ package com.herron.exchange.tradingengine.server.matchingengine.cache;
 
 import com.herron.exchange.common.api.common.cache.ReferenceDataCache;
 import com.herron.exchange.tradingengine.server.matchingengine.api.Orderbook;
+import com.herron.exchange.tradingengine.server.matchingengine.concurrency.OrderbookConcurrencyMode;
 import com.herron.exchange.tradingengine.server.matchingengine.factory.OrderbookFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
 
 public class OrderbookCache {
     private static final Logger LOGGER = LoggerFactory.getLogger(OrderbookCache.class);
 
     private final Map<String, Orderbook> orderbookIdToOrderBook = new ConcurrentHashMap<>();
+    private final OrderbookConcurrencyMode concurrencyMode;
+    private Consumer<Orderbook> orderbookCreatedListener = orderbook -> {
+    };
+    private ToDoubleFunction<String> orderbookIdToTickSize = orderbookId -> 0;
+
+    public OrderbookCache() {
+        this(OrderbookConcurrencyMode.READ_WRITE_LOCK);
+    }
+
+    public OrderbookCache(OrderbookConcurrencyMode concurrencyMode) {
+        this.concurrencyMode = concurrencyMode;
+    }
+
+    /**
+     * Called for every orderbook created by the cache before it is returned.
+     */
+    public void setOrderbookCreatedListener(Consumer<Orderbook> orderbookCreatedListener) {
+        this.orderbookCreatedListener = orderbookCreatedListener;
+    }
+
+    /**
+     * Tick size of the orderbooks created by the cache, with a tick size of 0 an orderbook keeps its price levels in a
+     * tree instead of a tick ladder.
+     */
+    public void setTickSizes(ToDoubleFunction<String> orderbookIdToTickSize) {
+        this.orderbookIdToTickSize = orderbookIdToTickSize;
+    }
 
     public Orderbook getOrCreateOrderbook(String orderbookId) {
-        return orderbookIdToOrderBook.computeIfAbsent(orderbookId, obId -> OrderbookFactory.createOrderbook(ReferenceDataCache.getCache().getOrderbookData(obId)));
+        return orderbookIdToOrderBook.computeIfAbsent(orderbookId, obId -> {
+            var orderbook = OrderbookFactory.createOrderbook(ReferenceDataCache.getCache().getOrderbookData(obId), orderbookIdToTickSize.applyAsDouble(obId), concurrencyMode);
+            if (orderbook != null) {
+                orderbookCreatedListener.accept(orderbook);
+            }
+            return orderbook;
+        });
+    }
+
+    /**
+     * See {@link Orderbook#publishSnapshotIfRequested()}, has to be called from the thread updating the orderbooks.
+     */
+    public void publishRequestedSnapshots() {
+        for (var orderbook : orderbookIdToOrderBook.values()) {
+            orderbook.publishSnapshotIfRequested();
+        }
+    }
+
+    public Orderbook removeOrderbook(String orderbookId) {
+        return orderbookIdToOrderBook.remove(orderbookId);
+    }
+
+    /**
+     * Adds an orderbook created elsewhere, replacing any orderbook cached under the same id.
+     */
+    public void addOrderbook(Orderbook orderbook) {
+        orderbookIdToOrderBook.put(orderbook.getOrderbookId(), orderbook);
     }
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.herron.exchange.tradingengine.server.matchingengine.concurrency;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Sleeps on a condition until a producer signals. Producers only take the lock while the consumer is waiting, the
+ * full fences on both sides make sure that either the consumer sees the new event or the producer sees the waiter.
+ */
+public class BlockingWaitStrategy implements WaitStrategy {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition hasEventsCondition = lock.newCondition();
+    private volatile boolean isWaiting = false;
+
+    @Override
+    public void idle(int idleCount, BooleanSupplier hasEvents, long remainingNanos) throws InterruptedException {
+        lock.lock();
+        try {
+            isWaiting = true;
+            VarHandle.fullFence();
+            if (!hasEvents.getAsBoolean()) {
+                hasEventsCondition.awaitNanos(remainingNanos);
+            }
+        } finally {
+            isWaiting = false;
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void signal() {
+        VarHandle.fullFence();
+        if (!isWaiting) {
+            return;
+        }
+        lock.lock();
+        try {
+            hasEventsCondition.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
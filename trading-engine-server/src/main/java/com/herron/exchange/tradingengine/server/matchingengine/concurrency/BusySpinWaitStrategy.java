@@ -0,0 +1,11 @@
+package com.herron.exchange.tradingengine.server.matchingengine.concurrency;
+
+import java.util.function.BooleanSupplier;
+
+public class BusySpinWaitStrategy implements WaitStrategy {
+
+    @Override
+    public void idle(int idleCount, BooleanSupplier hasEvents, long remainingNanos) {
+        Thread.onSpinWait();
+    }
+}
@@ -0,0 +1,13 @@
+package com.herron.exchange.tradingengine.server.matchingengine.concurrency;
+
+public enum OrderbookConcurrencyMode {
+    READ_WRITE_LOCK,
+    SINGLE_WRITER;
+
+    public OrderbookLock createLock() {
+        return switch (this) {
+            case READ_WRITE_LOCK -> new ReadWriteOrderbookLock();
+            case SINGLE_WRITER -> new SequenceLock();
+        };
+    }
+}
@@ -0,0 +1,25 @@
+package com.herron.exchange.tradingengine.server.matchingengine.concurrency;
+
+import java.util.function.Supplier;
+
+public interface OrderbookLock {
+
+    <T> T read(Supplier<T> reader);
+
+    <T> T write(Supplier<T> writer);
+
+    /**
+     * Whether the current thread may walk collections through {@link #read(Supplier)}. If not, such reads have to be
+     * served from a snapshot published by the writer.
+     */
+    default boolean canReadCollections() {
+        return true;
+    }
+
+    /**
+     * Makes the current thread the writer, for locks which only allow one. Has to happen-after the last write of the
+     * previous writer, for example through the queue or the fork and join that handed the data over.
+     */
+    default void claim() {
+    }
+}
@@ -0,0 +1,52 @@
+package com.herron.exchange.tradingengine.server.matchingengine.concurrency;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+abstract class PaddedSequenceLhs {
+    protected long p01, p02, p03, p04, p05, p06, p07;
+}
+
+abstract class PaddedSequenceValue extends PaddedSequenceLhs {
+    protected volatile long value;
+}
+
+abstract class PaddedSequenceRhs extends PaddedSequenceValue {
+    protected long p11, p12, p13, p14, p15, p16, p17;
+}
+
+/**
+ * A sequence counter padded on both sides so that it always sits on a cache line of its own, a producer bumping one
+ * sequence never invalidates the line holding another.
+ */
+public class PaddedSequence extends PaddedSequenceRhs {
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(PaddedSequenceValue.class, "value", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    public PaddedSequence(long initialValue) {
+        this.value = initialValue;
+    }
+
+    public long get() {
+        return (long) VALUE.getAcquire(this);
+    }
+
+    public long getPlain() {
+        return (long) VALUE.get(this);
+    }
+
+    public void set(long value) {
+        VALUE.setRelease(this, value);
+    }
+
+    public boolean compareAndSet(long expectedValue, long newValue) {
+        return VALUE.compareAndSet(this, expectedValue, newValue);
+    }
+}
@@ -0,0 +1,15 @@
+package com.herron.exchange.tradingengine.server.matchingengine.concurrency;
+
+public interface QueueWatermarkListener {
+
+    /**
+     * Called once when the queue grows to the high watermark, on the thread that queued the event. Calls of one queue
+     * never overlap and alternate with {@link #onLowWatermark()}.
+     */
+    void onHighWatermark();
+
+    /**
+     * Called once when the queue has drained back to the low watermark, usually on the matching thread.
+     */
+    void onLowWatermark();
+}
@@ -0,0 +1,19 @@
+package com.herron.exchange.tradingengine.server.matchingengine.concurrency;
+
+import com.herron.exchange.common.api.common.locks.LockHandler;
+
+import java.util.function.Supplier;
+
+public class ReadWriteOrderbookLock implements OrderbookLock {
+    private final LockHandler lock = new LockHandler();
+
+    @Override
+    public <T> T read(Supplier<T> reader) {
+        return lock.executeWithReadLock(reader);
+    }
+
+    @Override
+    public <T> T write(Supplier<T> writer) {
+        return lock.executeWithWriteLock(writer);
+    }
+}
@@ -0,0 +1,182 @@
+package com.herron.exchange.tradingengine.server.matchingengine.concurrency;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Bounded multi-producer, single-consumer queue over a preallocated ring of slots. Producers claim a sequence with a
+ * CAS on the producer sequence, write the slot and publish it by storing the sequence in the slot's published marker.
+ * The consumer reads slots strictly in sequence order and frees them by advancing the consumer sequence, neither side
+ * takes a lock or allocates per element. How the consumer waits while the buffer is empty is up to its
+ * {@link WaitStrategy}.
+ */
+public class RingBufferEventQueue<E> {
+    private static final VarHandle PUBLISHED = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int MAX_CAPACITY = 1 << 30;
+    private static final int SPIN_TRIES = 1000;
+
+    private final Object[] slots;
+    private final long[] published;
+    private final int mask;
+    private final PaddedSequence producerSequence = new PaddedSequence(-1);
+    private final PaddedSequence consumerSequence = new PaddedSequence(-1);
+    private final WaitStrategy waitStrategy;
+    private final BooleanSupplier hasPublished = this::hasPublished;
+
+    public RingBufferEventQueue(int capacity) {
+        this(capacity, new SpinParkWaitStrategy(SPIN_TRIES, 0, TimeUnit.MICROSECONDS.toNanos(50)));
+    }
+
+    public RingBufferEventQueue(int capacity, WaitStrategy waitStrategy) {
+        if (capacity < 1 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException(String.format("Ring buffer capacity has to be between 1 and %s: %s", MAX_CAPACITY, capacity));
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new Object[size];
+        this.published = new long[size];
+        this.mask = size - 1;
+        this.waitStrategy = waitStrategy;
+        Arrays.fill(published, -1);
+    }
+
+    /**
+     * Adds the element if there is a free slot, returns false without waiting if the buffer is full.
+     */
+    public boolean offer(E element) {
+        long sequence;
+        do {
+            long current = producerSequence.get();
+            sequence = current + 1;
+            if (sequence - slots.length > consumerSequence.get()) {
+                return false;
+            }
+            if (producerSequence.compareAndSet(current, sequence)) {
+                break;
+            }
+        } while (true);
+
+        int index = (int) sequence & mask;
+        slots[index] = element;
+        PUBLISHED.setRelease(published, index, sequence);
+        waitStrategy.signal();
+        return true;
+    }
+
+    /**
+     * Adds the element, waiting for the consumer to free a slot if the buffer is full.
+     */
+    public void put(E element) {
+        int tries = 0;
+        while (!offer(element)) {
+            if (tries++ < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
+    /**
+     * Consumer side only.
+     */
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long sequence = consumerSequence.getPlain() + 1;
+        int index = (int) sequence & mask;
+        if ((long) PUBLISHED.getAcquire(published, index) != sequence) {
+            return null;
+        }
+        E element = (E) slots[index];
+        slots[index] = null;
+        consumerSequence.set(sequence);
+        return element;
+    }
+
+    /**
+     * Consumer side only. Moves up to {@code maxElements} published elements, in sequence order, to {@code target} and
+     * frees all of their slots with a single store to the consumer sequence.
+     *
+     * @return the number of elements moved.
+     */
+    @SuppressWarnings("unchecked")
+    public int drainTo(Collection<? super E> target, int maxElements) {
+        long consumed = consumerSequence.getPlain();
+        int nrOfElements = 0;
+        while (nrOfElements < maxElements) {
+            long sequence = consumed + nrOfElements + 1;
+            int index = (int) sequence & mask;
+            if ((long) PUBLISHED.getAcquire(published, index) != sequence) {
+                break;
+            }
+            target.add((E) slots[index]);
+            slots[index] = null;
+            nrOfElements++;
+        }
+        if (nrOfElements > 0) {
+            consumerSequence.set(consumed + nrOfElements);
+        }
+        return nrOfElements;
+    }
+
+    /**
+     * Consumer side only. Waits according to the wait strategy until an element is published or the timeout expires.
+     */
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        E element = poll();
+        if (element != null) {
+            return element;
+        }
+
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int idleCount = 0;
+        while ((element = poll()) == null) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            long remainingNanos = deadline - System.nanoTime();
+            if (remainingNanos <= 0) {
+                return null;
+            }
+            waitStrategy.idle(idleCount++, hasPublished, remainingNanos);
+        }
+        return element;
+    }
+
+    /**
+     * Consumer side only.
+     */
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        long sequence = consumerSequence.getPlain() + 1;
+        int index = (int) sequence & mask;
+        if ((long) PUBLISHED.getAcquire(published, index) != sequence) {
+            return null;
+        }
+        return (E) slots[index];
+    }
+
+    private boolean hasPublished() {
+        long sequence = consumerSequence.getPlain() + 1;
+        return (long) PUBLISHED.getAcquire(published, (int) sequence & mask) == sequence;
+    }
+
+    /**
+     * Number of claimed slots, including slots whose producers have not yet published them.
+     */
+    public int size() {
+        long consumed = consumerSequence.get();
+        return (int) (producerSequence.get() - consumed);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+}
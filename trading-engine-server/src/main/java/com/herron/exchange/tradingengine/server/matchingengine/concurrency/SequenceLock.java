@@ -0,0 +1,118 @@
+package com.herron.exchange.tradingengine.server.matchingengine.concurrency;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.function.Supplier;
+
+/**
+ * Sequence lock for data that is mutated by a single writer thread. The writer never blocks and takes no lock, it only
+ * bumps the sequence to an odd value before mutating and back to an even value after. The writer is the first thread
+ * to write, or the last one to {@link #claim()} the lock, writes from any other thread fail.
+ * <p>
+ * Reads on the writer thread go straight through. Readers on other threads read optimistically and retry while the
+ * sequence is odd or changed underneath them, including when a racing read threw. They must therefore only load
+ * plain fields or do a point lookup, never walk a collection, see {@link #canReadCollections()}.
+ */
+public class SequenceLock implements OrderbookLock {
+    private static final int MAX_SPINS = 64;
+    private static final VarHandle SEQUENCE;
+
+    static {
+        try {
+            SEQUENCE = MethodHandles.lookup().findVarHandle(SequenceLock.class, "sequence", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile long sequence = 0;
+    private volatile Thread writerThread;
+    private int writeDepth = 0;
+
+    @Override
+    public <T> T read(Supplier<T> reader) {
+        if (writerThread == Thread.currentThread()) {
+            return reader.get();
+        }
+
+        for (int attempt = 0; ; attempt++) {
+            long startSequence = (long) SEQUENCE.getAcquire(this);
+            if ((startSequence & 1) != 0) {
+                backOff(attempt);
+                continue;
+            }
+
+            T result;
+            try {
+                result = reader.get();
+            } catch (RuntimeException e) {
+                if ((long) SEQUENCE.getAcquire(this) == startSequence) {
+                    throw e;
+                }
+                continue;
+            }
+            VarHandle.loadLoadFence();
+            if ((long) SEQUENCE.getAcquire(this) == startSequence) {
+                return result;
+            }
+        }
+    }
+
+    @Override
+    public <T> T write(Supplier<T> writer) {
+        checkWriter();
+        if (writeDepth++ == 0) {
+            beginWrite();
+        }
+        try {
+            return writer.get();
+        } finally {
+            if (--writeDepth == 0) {
+                endWrite();
+            }
+        }
+    }
+
+    @Override
+    public boolean canReadCollections() {
+        return writerThread == Thread.currentThread();
+    }
+
+    @Override
+    public void claim() {
+        writerThread = Thread.currentThread();
+    }
+
+    private void checkWriter() {
+        Thread currentThread = Thread.currentThread();
+        Thread currentWriter = writerThread;
+        if (currentWriter == currentThread) {
+            return;
+        }
+        if (currentWriter != null) {
+            throw new IllegalStateException(String.format("Write from %s while %s is the writer.", currentThread.getName(), currentWriter.getName()));
+        }
+        writerThread = currentThread;
+    }
+
+    private void beginWrite() {
+        SEQUENCE.setOpaque(this, (long) SEQUENCE.getOpaque(this) + 1);
+        VarHandle.storeStoreFence();
+    }
+
+    private void endWrite() {
+        SEQUENCE.setRelease(this, (long) SEQUENCE.getOpaque(this) + 1);
+    }
+
+    private static void backOff(int attempt) {
+        if (attempt < MAX_SPINS) {
+            Thread.onSpinWait();
+        } else {
+            Thread.yield();
+        }
+    }
+
+    public long getSequence() {
+        return (long) SEQUENCE.getAcquire(this);
+    }
+}
@@ -0,0 +1,31 @@
+package com.herron.exchange.tradingengine.server.matchingengine.concurrency;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Spins for {@code spinTries} empty polls, yields for the next {@code yieldTries} and then parks for
+ * {@code parkNanos} between polls.
+ */
+public class SpinParkWaitStrategy implements WaitStrategy {
+    private final int spinTries;
+    private final int yieldTries;
+    private final long parkNanos;
+
+    public SpinParkWaitStrategy(int spinTries, int yieldTries, long parkNanos) {
+        this.spinTries = spinTries;
+        this.yieldTries = yieldTries;
+        this.parkNanos = parkNanos;
+    }
+
+    @Override
+    public void idle(int idleCount, BooleanSupplier hasEvents, long remainingNanos) {
+        if (idleCount < spinTries) {
+            Thread.onSpinWait();
+        } else if (idleCount - spinTries < yieldTries) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(Math.min(parkNanos, remainingNanos));
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.herron.exchange.tradingengine.server.matchingengine.concurrency;
+
+import java.util.function.BooleanSupplier;
+
+public class SpinYieldWaitStrategy implements WaitStrategy {
+    private final int spinTries;
+
+    public SpinYieldWaitStrategy(int spinTries) {
+        this.spinTries = spinTries;
+    }
+
+    @Override
+    public void idle(int idleCount, BooleanSupplier hasEvents, long remainingNanos) {
+        if (idleCount < spinTries) {
+            Thread.onSpinWait();
+        } else {
+            Thread.yield();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.herron.exchange.tradingengine.server.matchingengine.concurrency;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * How the consuming thread waits while its queue is empty.
+ */
+public interface WaitStrategy {
+
+    /**
+     * Waits once after the consumer found the queue empty. {@code idleCount} is the number of consecutive empty polls
+     * so far, {@code hasEvents} re-checks the queue and {@code remainingNanos} bounds the wait.
+     */
+    void idle(int idleCount, BooleanSupplier hasEvents, long remainingNanos) throws InterruptedException;
+
+    /**
+     * Called by producers after publishing an event.
+     */
+    default void signal() {
+    }
+}
@@ -0,0 +1,17 @@
+package com.herron.exchange.tradingengine.server.matchingengine.concurrency;
+
+public enum WaitStrategyType {
+    BUSY_SPIN,
+    SPIN_YIELD,
+    SPIN_PARK,
+    BLOCKING;
+
+    public WaitStrategy createWaitStrategy(int spinTries, int yieldTries, long parkNanos) {
+        return switch (this) {
+            case BUSY_SPIN -> new BusySpinWaitStrategy();
+            case SPIN_YIELD -> new SpinYieldWaitStrategy(spinTries);
+            case SPIN_PARK -> new SpinParkWaitStrategy(spinTries, yieldTries, parkNanos);
+            case BLOCKING -> new BlockingWaitStrategy();
+        };
+    }
+}
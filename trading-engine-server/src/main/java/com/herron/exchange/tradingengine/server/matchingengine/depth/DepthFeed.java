@@ -0,0 +1,77 @@
+package com.herron.exchange.tradingengine.server.matchingengine.depth;
+
+import com.herron.exchange.tradingengine.server.matchingengine.api.Orderbook;
+import com.herron.exchange.tradingengine.server.matchingengine.depth.model.DepthMessage;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Market by level feed of the orderbooks of one matching engine. Deltas are published for the orderbooks a batch has
+ * updated, and a full snapshot of every orderbook each {@code snapshotIntervalNanos} so that consumers can recover.
+ * Orderbooks may be tracked from any thread before their first event, everything else runs on the matching thread.
+ */
+public class DepthFeed {
+    private final Map<String, OrderbookDepth> orderbookIdToDepth = new ConcurrentHashMap<>();
+    private final Consumer<DepthMessage> publisher;
+    private final long snapshotIntervalNanos;
+    private long lastSnapshotNanos;
+
+    public DepthFeed(Consumer<DepthMessage> publisher, long snapshotIntervalNanos, long nowNanos) {
+        if (snapshotIntervalNanos <= 0) {
+            throw new IllegalArgumentException(String.format("Snapshot interval has to be positive: %s", snapshotIntervalNanos));
+        }
+        this.publisher = publisher;
+        this.snapshotIntervalNanos = snapshotIntervalNanos;
+        this.lastSnapshotNanos = nowNanos;
+    }
+
+    public void track(Orderbook orderbook) {
+        track(orderbook, new OrderbookDepth(orderbook));
+    }
+
+    /**
+     * Continues the sequence of an orderbook migrated from another engine.
+     */
+    public void track(Orderbook orderbook, OrderbookDepth depth) {
+        orderbookIdToDepth.put(orderbook.getOrderbookId(), depth);
+        orderbook.setPriceLevelUpdateListener(depth);
+    }
+
+    /**
+     * Stops publishing the orderbook, whatever is pending is published first.
+     */
+    public OrderbookDepth untrack(String orderbookId) {
+        var depth = orderbookIdToDepth.remove(orderbookId);
+        if (depth != null) {
+            publishDelta(depth);
+        }
+        return depth;
+    }
+
+    public void publishDelta(String orderbookId) {
+        var depth = orderbookIdToDepth.get(orderbookId);
+        if (depth != null) {
+            publishDelta(depth);
+        }
+    }
+
+    public void publishSnapshotsIfDue(long nowNanos) {
+        if (nowNanos - lastSnapshotNanos < snapshotIntervalNanos) {
+            return;
+        }
+        lastSnapshotNanos = nowNanos;
+        for (var depth : orderbookIdToDepth.values()) {
+            publishDelta(depth);
+            publisher.accept(depth.takeSnapshot());
+        }
+    }
+
+    private void publishDelta(OrderbookDepth depth) {
+        var delta = depth.takeDelta();
+        if (delta != null) {
+            publisher.accept(delta);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.herron.exchange.tradingengine.server.matchingengine.depth;
+
+import com.herron.exchange.common.api.common.enums.OrderSideEnum;
+import com.herron.exchange.common.api.common.messages.common.Price;
+import com.herron.exchange.common.api.common.messages.common.Timestamp;
+import com.herron.exchange.common.api.common.messages.common.Volume;
+import com.herron.exchange.tradingengine.server.matchingengine.api.Orderbook;
+import com.herron.exchange.tradingengine.server.matchingengine.api.PriceLevelUpdateAction;
+import com.herron.exchange.tradingengine.server.matchingengine.api.PriceLevelUpdateListener;
+import com.herron.exchange.tradingengine.server.matchingengine.depth.model.LevelUpdate;
+import com.herron.exchange.tradingengine.server.matchingengine.depth.model.MarketByLevelDelta;
+import com.herron.exchange.tradingengine.server.matchingengine.depth.model.MarketByLevelSnapshot;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.herron.exchange.tradingengine.server.matchingengine.api.PriceLevelUpdateAction.*;
+
+/**
+ * Collects the price level updates of one orderbook, straight from the mutations of its active orders, and nets them
+ * per side and price until the next delta is taken. A level added and removed in between is left out, a level removed
+ * and added again becomes a change. Only touched by the thread updating the orderbook.
+ */
+public class OrderbookDepth implements PriceLevelUpdateListener {
+    private final Orderbook orderbook;
+    private final Map<Price, PendingLevel> pendingBidLevels = new LinkedHashMap<>();
+    private final Map<Price, PendingLevel> pendingAskLevels = new LinkedHashMap<>();
+    private long sequenceNumber = 0;
+
+    public OrderbookDepth(Orderbook orderbook) {
+        this.orderbook = orderbook;
+    }
+
+    @Override
+    public void onPriceLevelUpdate(PriceLevelUpdateAction action, OrderSideEnum orderSide, Price price, double volume, long nrOfOrders) {
+        var pendingLevels = orderSide == OrderSideEnum.BID ? pendingBidLevels : pendingAskLevels;
+        var pendingLevel = pendingLevels.get(price);
+        if (pendingLevel == null) {
+            pendingLevel = new PendingLevel(action != ADD);
+            pendingLevels.put(price, pendingLevel);
+        }
+        pendingLevel.exists = action != DELETE;
+        pendingLevel.volume = volume;
+        pendingLevel.nrOfOrders = nrOfOrders;
+    }
+
+    public String getOrderbookId() {
+        return orderbook.getOrderbookId();
+    }
+
+    public long getSequenceNumber() {
+        return sequenceNumber;
+    }
+
+    public boolean hasPendingUpdates() {
+        return !pendingBidLevels.isEmpty() || !pendingAskLevels.isEmpty();
+    }
+
+    /**
+     * @return the net updates since the last delta under the next sequence number, null if nothing has changed.
+     */
+    public MarketByLevelDelta takeDelta() {
+        if (!hasPendingUpdates()) {
+            return null;
+        }
+        List<LevelUpdate> levelUpdates = new ArrayList<>(pendingBidLevels.size() + pendingAskLevels.size());
+        addLevelUpdates(OrderSideEnum.BID, pendingBidLevels, levelUpdates);
+        addLevelUpdates(OrderSideEnum.ASK, pendingAskLevels, levelUpdates);
+        if (levelUpdates.isEmpty()) {
+            return null;
+        }
+        return new MarketByLevelDelta(getOrderbookId(), ++sequenceNumber, Timestamp.now(), levelUpdates);
+    }
+
+    /**
+     * Has to be taken with no updates pending, so that it matches the last delta.
+     */
+    public MarketByLevelSnapshot takeSnapshot() {
+        int nrOfLevels = Math.max(orderbook.totalNumberOfBidPriceLevels(), orderbook.totalNumberOfAskPriceLevels());
+        return new MarketByLevelSnapshot(getOrderbookId(), sequenceNumber, orderbook.getMarketByLevel(nrOfLevels));
+    }
+
+    private static void addLevelUpdates(OrderSideEnum orderSide, Map<Price, PendingLevel> pendingLevels, List<LevelUpdate> levelUpdates) {
+        for (var entry : pendingLevels.entrySet()) {
+            var pendingLevel = entry.getValue();
+            PriceLevelUpdateAction action;
+            if (pendingLevel.existed) {
+                action = pendingLevel.exists ? CHANGE : DELETE;
+            } else if (pendingLevel.exists) {
+                action = ADD;
+            } else {
+                continue;
+            }
+            levelUpdates.add(new LevelUpdate(action, orderSide, entry.getKey(), Volume.create(pendingLevel.volume), pendingLevel.nrOfOrders));
+        }
+        pendingLevels.clear();
+    }
+
+    private static class PendingLevel {
+        private final boolean existed;
+        private boolean exists;
+        private double volume;
+        private long nrOfOrders;
+
+        private PendingLevel(boolean existed) {
+            this.existed = existed;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.herron.exchange.tradingengine.server.matchingengine.depth.model;
+
+/**
+ * Message of the market by level feed. Sequence numbers are per orderbook, a snapshot carries the sequence number of
+ * the last delta it includes.
+ */
+public sealed interface DepthMessage permits MarketByLevelDelta, MarketByLevelSnapshot {
+
+    String orderbookId();
+
+    long sequenceNumber();
+}
@@ -0,0 +1,13 @@
+package com.herron.exchange.tradingengine.server.matchingengine.depth.model;
+
+import com.herron.exchange.common.api.common.enums.OrderSideEnum;
+import com.herron.exchange.common.api.common.messages.common.Price;
+import com.herron.exchange.common.api.common.messages.common.Volume;
+import com.herron.exchange.tradingengine.server.matchingengine.api.PriceLevelUpdateAction;
+
+public record LevelUpdate(PriceLevelUpdateAction action,
+                          OrderSideEnum orderSide,
+                          Price price,
+                          Volume volume,
+                          long nrOfOrders) {
+}
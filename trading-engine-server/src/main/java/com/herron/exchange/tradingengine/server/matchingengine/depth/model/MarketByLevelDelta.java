@@ -0,0 +1,15 @@
+package com.herron.exchange.tradingengine.server.matchingengine.depth.model;
+
+import com.herron.exchange.common.api.common.messages.common.Timestamp;
+
+import java.util.List;
+
+/**
+ * The net change of the price levels of an orderbook over one matching batch. It applies on top of the delta, or
+ * snapshot, with the previous sequence number.
+ */
+public record MarketByLevelDelta(String orderbookId,
+                                 long sequenceNumber,
+                                 Timestamp timeOfEvent,
+                                 List<LevelUpdate> levelUpdates) implements DepthMessage {
+}
@@ -0,0 +1,11 @@
+package com.herron.exchange.tradingengine.server.matchingengine.depth.model;
+
+import com.herron.exchange.common.api.common.messages.trading.MarketByLevel;
+
+/**
+ * Every price level of the orderbook, for consumers to recover from. Deltas with a higher sequence number apply on top.
+ */
+public record MarketByLevelSnapshot(String orderbookId,
+                                    long sequenceNumber,
+                                    MarketByLevel marketByLevel) implements DepthMessage {
+}
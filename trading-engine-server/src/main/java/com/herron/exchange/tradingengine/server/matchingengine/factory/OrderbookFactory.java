@@ -2,41 +2,66 @@ package com.herron.exchange.tradingengine.server.matchingengine.factory;
 
 import com.herron.exchange.common.api.common.api.referencedata.orderbook.OrderbookData;
 import com.herron.exchange.common.api.common.enums.AuctionAlgorithmEnum;
+import com.herron.exchange.common.api.common.messages.common.Price;
 import com.herron.exchange.tradingengine.server.matchingengine.api.AuctionAlgorithm;
 import com.herron.exchange.tradingengine.server.matchingengine.api.Orderbook;
 import com.herron.exchange.tradingengine.server.matchingengine.auctionalgorithms.DutchAuctionAlgorithm;
-import com.herron.exchange.tradingengine.server.matchingengine.comparator.FifoOrderBookComparator;
-import com.herron.exchange.tradingengine.server.matchingengine.comparator.ProRataOrderBookComparator;
+import com.herron.exchange.tradingengine.server.matchingengine.concurrency.OrderbookConcurrencyMode;
 import com.herron.exchange.tradingengine.server.matchingengine.matchingalgorithms.FifoMatchingAlgorithm;
 import com.herron.exchange.tradingengine.server.matchingengine.matchingalgorithms.ProRataMatchingAlgorithm;
 import com.herron.exchange.tradingengine.server.matchingengine.orderbook.ActiveOrders;
 import com.herron.exchange.tradingengine.server.matchingengine.orderbook.OrderbookImpl;
+import com.herron.exchange.tradingengine.server.matchingengine.orderbook.model.FifoPriceLevel;
+import com.herron.exchange.tradingengine.server.matchingengine.orderbook.model.PriceLevel;
+import com.herron.exchange.tradingengine.server.matchingengine.orderbook.model.ProRataPriceLevel;
+import com.herron.exchange.tradingengine.server.matchingengine.orderbook.side.TickLadderPriceLevelSide;
+import com.herron.exchange.tradingengine.server.matchingengine.orderbook.side.TreeMapPriceLevelSide;
+
+import java.util.function.Function;
+
+import static com.herron.exchange.common.api.common.enums.OrderSideEnum.ASK;
+import static com.herron.exchange.common.api.common.enums.OrderSideEnum.BID;
 
 public class OrderbookFactory {
 
     public static Orderbook createOrderbook(OrderbookData orderbookData) {
+        return createOrderbook(orderbookData, 0);
+    }
+
+    public static Orderbook createOrderbook(OrderbookData orderbookData, double tickSize) {
+        return createOrderbook(orderbookData, tickSize, OrderbookConcurrencyMode.READ_WRITE_LOCK);
+    }
+
+    public static Orderbook createOrderbook(OrderbookData orderbookData, double tickSize, OrderbookConcurrencyMode concurrencyMode) {
         return switch (orderbookData.matchingAlgorithm()) {
             case FIFO -> {
-                var activeOrders = new ActiveOrders(new FifoOrderBookComparator());
+                var activeOrders = createActiveOrders(FifoPriceLevel::new, tickSize);
                 var matchingAlgorithm = new FifoMatchingAlgorithm(activeOrders);
                 var auctionAlgorithm = createAuctionAlgorithm(orderbookData.auctionAlgorithm(), activeOrders);
                 if (auctionAlgorithm == null) {
                     yield null;
                 }
-                yield new OrderbookImpl(orderbookData, activeOrders, matchingAlgorithm, auctionAlgorithm);
+                yield new OrderbookImpl(orderbookData, activeOrders, matchingAlgorithm, auctionAlgorithm, concurrencyMode.createLock());
             }
             case PRO_RATA -> {
-                var activeOrders = new ActiveOrders(new ProRataOrderBookComparator());
+                var activeOrders = createActiveOrders(ProRataPriceLevel::new, tickSize);
                 var matchingAlgorithm = new ProRataMatchingAlgorithm(activeOrders, orderbookData.minTradeVolume());
                 var auctionAlgorithm = createAuctionAlgorithm(orderbookData.auctionAlgorithm(), activeOrders);
                 if (auctionAlgorithm == null) {
                     yield null;
                 }
-                yield new OrderbookImpl(orderbookData, activeOrders, matchingAlgorithm, auctionAlgorithm);
+                yield new OrderbookImpl(orderbookData, activeOrders, matchingAlgorithm, auctionAlgorithm, concurrencyMode.createLock());
             }
         };
     }
 
+    private static ActiveOrders createActiveOrders(Function<Price, PriceLevel> priceLevelFactory, double tickSize) {
+        if (tickSize <= 0) {
+            return new ActiveOrders(priceLevelFactory, new TreeMapPriceLevelSide(BID), new TreeMapPriceLevelSide(ASK));
+        }
+        return new ActiveOrders(priceLevelFactory, new TickLadderPriceLevelSide(BID, tickSize), new TickLadderPriceLevelSide(ASK, tickSize));
+    }
+
     private static AuctionAlgorithm createAuctionAlgorithm(AuctionAlgorithmEnum auctionAlgorithmEnum, ActiveOrders activeOrders) {
         return switch (auctionAlgorithmEnum) {
             case DUTCH -> new DutchAuctionAlgorithm(activeOrders);
@@ -0,0 +1,100 @@
+package com.herron.exchange.tradingengine.server.matchingengine.matchingalgorithms;
+
+import com.herron.exchange.common.api.common.api.trading.Order;
+import com.herron.exchange.common.api.common.api.trading.OrderbookEvent;
+import com.herron.exchange.common.api.common.enums.OrderSideEnum;
+import com.herron.exchange.common.api.common.messages.common.Price;
+import com.herron.exchange.common.api.common.messages.common.Volume;
+import com.herron.exchange.tradingengine.server.matchingengine.orderbook.model.PriceLevel;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static com.herron.exchange.tradingengine.server.matchingengine.utils.MatchingEngineUtils.createAuctionMatchingMessages;
+
+/**
+ * One side of an auction uncross: the orders executing at the equilibrium price in priority order together with the
+ * volume allocated to each of them.
+ */
+class AuctionAllocations {
+    private static final int INITIAL_CAPACITY = 64;
+    private Order[] orders = new Order[INITIAL_CAPACITY];
+    private double[] allocations = new double[INITIAL_CAPACITY];
+    private int size = 0;
+
+    void add(Order order, double allocation) {
+        if (size == orders.length) {
+            orders = Arrays.copyOf(orders, size << 1);
+            allocations = Arrays.copyOf(allocations, size << 1);
+        }
+        orders[size] = order;
+        allocations[size] = allocation;
+        size++;
+    }
+
+    /**
+     * Allocates the whole price level in time priority, capped at {@code remainingVolume}, and returns what is left.
+     */
+    double addInTimePriority(PriceLevel priceLevel, double remainingVolume) {
+        for (var order : priceLevel) {
+            if (remainingVolume <= 0) {
+                break;
+            }
+            double allocation = Math.min(remainingVolume, order.currentVolume().getRealValue());
+            add(order, allocation);
+            remainingVolume -= allocation;
+        }
+        return remainingVolume;
+    }
+
+    void clear() {
+        Arrays.fill(orders, 0, size, null);
+        size = 0;
+    }
+
+    static boolean isExecutable(OrderSideEnum orderSide, PriceLevel priceLevel, Price price) {
+        return switch (orderSide) {
+            case BID -> priceLevel.getPrice().geq(price);
+            case ASK -> priceLevel.getPrice().leq(price);
+        };
+    }
+
+    /**
+     * Pairs the bid and ask allocations in priority order and appends every fill and trade to {@code events}. The
+     * order with the larger remaining allocation is passed as the matching order, so its updated state is the one
+     * carried into the next pair while the other order is done.
+     */
+    static void uncross(AuctionAllocations bids, AuctionAllocations asks, Price price, List<OrderbookEvent> events) {
+        int bidIndex = 0;
+        int askIndex = 0;
+        Order bidOrder = null;
+        Order askOrder = null;
+        double remainingBidAllocation = 0;
+        double remainingAskAllocation = 0;
+        while (true) {
+            if (remainingBidAllocation <= 0) {
+                if (bidIndex == bids.size) {
+                    return;
+                }
+                bidOrder = bids.orders[bidIndex];
+                remainingBidAllocation = bids.allocations[bidIndex++];
+            }
+            if (remainingAskAllocation <= 0) {
+                if (askIndex == asks.size) {
+                    return;
+                }
+                askOrder = asks.orders[askIndex];
+                remainingAskAllocation = asks.allocations[askIndex++];
+            }
+
+            double tradeVolume = Math.min(remainingBidAllocation, remainingAskAllocation);
+            if (remainingBidAllocation >= remainingAskAllocation) {
+                bidOrder = createAuctionMatchingMessages(bidOrder, askOrder, price, Volume.create(tradeVolume), events);
+            } else {
+                askOrder = createAuctionMatchingMessages(askOrder, bidOrder, price, Volume.create(tradeVolume), events);
+            }
+            remainingBidAllocation -= tradeVolume;
+            remainingAskAllocation -= tradeVolume;
+        }
+    }
+}
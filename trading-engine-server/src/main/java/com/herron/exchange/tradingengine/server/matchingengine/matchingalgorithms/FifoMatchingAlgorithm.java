@@ -2,106 +2,106 @@ package com.herron.exchange.tradingengine.server.matchingengine.matchingalgorith
 
 import com.herron.exchange.common.api.common.api.trading.Order;
 import com.herron.exchange.common.api.common.api.trading.OrderbookEvent;
+import com.herron.exchange.common.api.common.enums.OrderOperationEnum;
+import com.herron.exchange.common.api.common.enums.OrderSideEnum;
 import com.herron.exchange.common.api.common.enums.OrderTypeEnum;
+import com.herron.exchange.common.api.common.enums.TimeInForceEnum;
 import com.herron.exchange.common.api.common.messages.common.Price;
+import com.herron.exchange.common.api.common.messages.common.Volume;
 import com.herron.exchange.tradingengine.server.matchingengine.api.ActiveOrderReadOnly;
 import com.herron.exchange.tradingengine.server.matchingengine.api.MatchingAlgorithm;
+import com.herron.exchange.tradingengine.server.matchingengine.orderbook.model.PriceLevel;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
 
 import static com.herron.exchange.common.api.common.enums.OrderOperationCauseEnum.KILLED;
+import static com.herron.exchange.common.api.common.enums.OrderSideEnum.ASK;
+import static com.herron.exchange.common.api.common.enums.OrderSideEnum.BID;
 import static com.herron.exchange.tradingengine.server.matchingengine.utils.MatchingEngineUtils.*;
 
 public class FifoMatchingAlgorithm implements MatchingAlgorithm {
 
     private final ActiveOrderReadOnly activeOrders;
+    private final AuctionAllocations bidAllocations = new AuctionAllocations();
+    private final AuctionAllocations askAllocations = new AuctionAllocations();
 
     public FifoMatchingAlgorithm(ActiveOrderReadOnly activeOrders) {
         this.activeOrders = activeOrders;
     }
 
     @Override
-    public List<OrderbookEvent> matchOrder(Order incomingOrder) {
-        return incomingOrder.isActiveOrder() ? matchActiveOrder(incomingOrder) : matchNonActiveOrders(incomingOrder);
-    }
-
-    @Override
-    public List<OrderbookEvent> matchAtPrice(Price price) {
-        Optional<Order> bestBidOrder = activeOrders.getBestBidOrder();
-        Optional<Order> bestAskOrder = activeOrders.getBestAskOrder();
-        if (bestBidOrder.isEmpty() || bestAskOrder.isEmpty()) {
-            return Collections.emptyList();
+    public Order sweep(Order incomingOrder, List<OrderbookEvent> events) {
+        if (isFillOrKill(incomingOrder) && !activeOrders.isTotalFillPossible(incomingOrder)) {
+            return addKillMessage(incomingOrder, events);
         }
 
-        if (isMatch(bestBidOrder.get(), bestAskOrder.get())) {
-            return createAuctionMatchingMessages(bestBidOrder.get(), bestAskOrder.get(), price);
-
+        Order updatedOrder = incomingOrder;
+        for (var opposingPriceLevel : getOpposingPriceLevels(incomingOrder)) {
+            if (!isMatch(incomingOrder, opposingPriceLevel.getPrice())) {
+                break;
+            }
+            for (var opposingOrder : opposingPriceLevel) {
+                updatedOrder = createMatchingMessages(updatedOrder, opposingOrder, events);
+                if (updatedOrder.orderOperation() == OrderOperationEnum.CANCEL) {
+                    return updatedOrder;
+                }
+            }
         }
-        return Collections.emptyList();
-    }
-
-    private List<OrderbookEvent> matchNonActiveOrders(Order nonActiveOrder) {
-        return switch (nonActiveOrder.timeInForce()) {
-            case FOK -> matchFillOrKill(nonActiveOrder);
-            case FAK -> matchFillAndKill(nonActiveOrder);
-            default -> matchMarketOrder(nonActiveOrder);
-        };
-    }
 
-    private List<OrderbookEvent> matchActiveOrder(Order incomingOrder) {
-        return getOpposingBestOrder(incomingOrder)
-                .filter(opposingBest -> isMatch(incomingOrder, opposingBest))
-                .map(opposingBest -> createMatchingMessages(incomingOrder, opposingBest))
-                .orElse(Collections.emptyList());
-    }
-
-    public List<OrderbookEvent> matchFillOrKill(Order fillOrKillOrder) {
-        if (!activeOrders.isTotalFillPossible(fillOrKillOrder)) {
-            return createKillMessage(fillOrKillOrder);
+        if (!incomingOrder.isActiveOrder()) {
+            return addKillMessage(updatedOrder, events);
         }
-
-        return getOpposingBestOrder(fillOrKillOrder)
-                .map(opposingBest -> createMatchingMessages(fillOrKillOrder, opposingBest))
-                .orElseGet(() -> createKillMessage(fillOrKillOrder));
+        return updatedOrder;
     }
 
-    public List<OrderbookEvent> matchFillAndKill(Order fillAndKillOrder) {
-        return getOpposingBestOrder(fillAndKillOrder)
-                .filter(opposingBest -> isMatch(fillAndKillOrder, opposingBest))
-                .map(opposingBest -> createMatchingMessages(fillAndKillOrder, opposingBest))
-                .orElseGet(() -> createKillMessage(fillAndKillOrder));
+    @Override
+    public void uncross(Price price, Volume executableVolume, List<OrderbookEvent> events) {
+        allocate(activeOrders.getBidPriceLevels(), BID, price, executableVolume, bidAllocations);
+        allocate(activeOrders.getAskPriceLevels(), ASK, price, executableVolume, askAllocations);
+        AuctionAllocations.uncross(bidAllocations, askAllocations, price, events);
+        bidAllocations.clear();
+        askAllocations.clear();
     }
 
-    public List<OrderbookEvent> matchMarketOrder(Order marketOrder) {
-        return getOpposingBestOrder(marketOrder)
-                .map(opposingBest -> createMatchingMessages(marketOrder, opposingBest))
-                .orElseGet(() -> createKillMessage(marketOrder));
+    private static void allocate(Iterable<PriceLevel> priceLevels,
+                                 OrderSideEnum orderSide,
+                                 Price price,
+                                 Volume executableVolume,
+                                 AuctionAllocations allocations) {
+        double remainingVolume = executableVolume.getRealValue();
+        for (var priceLevel : priceLevels) {
+            if (remainingVolume <= 0 || !AuctionAllocations.isExecutable(orderSide, priceLevel, price)) {
+                return;
+            }
+            remainingVolume = allocations.addInTimePriority(priceLevel, remainingVolume);
+        }
     }
 
-    private Optional<Order> getOpposingBestOrder(Order incomingOrder) {
+    private Iterable<PriceLevel> getOpposingPriceLevels(Order incomingOrder) {
         return switch (incomingOrder.orderSide()) {
-            case BID -> activeOrders.getBestAskOrder();
-            case ASK -> activeOrders.getBestBidOrder();
+            case BID -> activeOrders.getAskPriceLevels();
+            case ASK -> activeOrders.getBidPriceLevels();
         };
     }
 
-    private boolean isMatch(Order incomingOrder, Order opposingBestOrder) {
+    private static boolean isFillOrKill(Order incomingOrder) {
+        return !incomingOrder.isActiveOrder() && incomingOrder.timeInForce() == TimeInForceEnum.FOK;
+    }
+
+    private boolean isMatch(Order incomingOrder, Price opposingPrice) {
         if (incomingOrder.orderType() == OrderTypeEnum.MARKET) {
             return true;
         }
         return switch (incomingOrder.orderSide()) {
-            case BID -> incomingOrder.price().geq(opposingBestOrder.price());
-            case ASK -> incomingOrder.price().leq(opposingBestOrder.price());
+            case BID -> incomingOrder.price().geq(opposingPrice);
+            case ASK -> incomingOrder.price().leq(opposingPrice);
         };
     }
 
-    private List<OrderbookEvent> createKillMessage(Order nonActiveOrder) {
-        List<OrderbookEvent> matchingMessages = new ArrayList<>();
-        matchingMessages.add(buildCancelOrder(nonActiveOrder, KILLED));
-        return matchingMessages;
+    private Order addKillMessage(Order nonActiveOrder, List<OrderbookEvent> events) {
+        Order killedOrder = buildCancelOrder(nonActiveOrder, KILLED);
+        events.add(killedOrder);
+        return killedOrder;
     }
 
 }
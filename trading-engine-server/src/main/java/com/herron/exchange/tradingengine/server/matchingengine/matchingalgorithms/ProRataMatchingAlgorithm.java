@@ -2,24 +2,36 @@ package com.herron.exchange.tradingengine.server.matchingengine.matchingalgorith
 
 import com.herron.exchange.common.api.common.api.trading.Order;
 import com.herron.exchange.common.api.common.api.trading.OrderbookEvent;
+import com.herron.exchange.common.api.common.enums.OrderOperationEnum;
+import com.herron.exchange.common.api.common.enums.OrderSideEnum;
 import com.herron.exchange.common.api.common.enums.OrderTypeEnum;
+import com.herron.exchange.common.api.common.enums.TimeInForceEnum;
 import com.herron.exchange.common.api.common.messages.common.Price;
 import com.herron.exchange.common.api.common.messages.common.Volume;
 import com.herron.exchange.tradingengine.server.matchingengine.api.ActiveOrderReadOnly;
 import com.herron.exchange.tradingengine.server.matchingengine.api.MatchingAlgorithm;
 import com.herron.exchange.tradingengine.server.matchingengine.orderbook.model.PriceLevel;
 
-import java.util.*;
+import java.util.Arrays;
+import java.util.List;
 
 import static com.herron.exchange.common.api.common.enums.OrderOperationCauseEnum.KILLED;
-import static com.herron.exchange.common.api.common.enums.OrderOperationCauseEnum.PARTIAL_FILL;
+import static com.herron.exchange.common.api.common.enums.OrderSideEnum.ASK;
+import static com.herron.exchange.common.api.common.enums.OrderSideEnum.BID;
 import static com.herron.exchange.tradingengine.server.matchingengine.utils.MatchingEngineUtils.*;
 
 public class ProRataMatchingAlgorithm implements MatchingAlgorithm {
+    private static final int INITIAL_CAPACITY = 64;
 
     private final ActiveOrderReadOnly activeOrders;
     private final double minTradeVolume;
-
+    private final AuctionAllocations bidAllocations = new AuctionAllocations();
+    private final AuctionAllocations askAllocations = new AuctionAllocations();
+    private Order[] orders = new Order[INITIAL_CAPACITY];
+    private double[] volumes = new double[INITIAL_CAPACITY];
+    private double[] allocations = new double[INITIAL_CAPACITY];
+    private int[] priority = new int[INITIAL_CAPACITY];
+    private int[] mergeBuffer = new int[INITIAL_CAPACITY];
 
     public ProRataMatchingAlgorithm(ActiveOrderReadOnly activeOrders, double minTradeVolume) {
         this.activeOrders = activeOrders;
@@ -27,113 +39,177 @@ public class ProRataMatchingAlgorithm implements MatchingAlgorithm {
     }
 
     @Override
-    public List<OrderbookEvent> matchOrder(Order incomingOrder) {
-        return incomingOrder.isActiveOrder() ? matchActiveOrder(incomingOrder) : matchNonActiveOrders(incomingOrder);
-    }
-
-    @Override
-    public List<OrderbookEvent> matchAtPrice(Price price) {
-        Optional<Order> bestBidOrder = activeOrders.getBestBidOrder();
-        Optional<Order> bestAskOrder = activeOrders.getBestAskOrder();
-        if (bestBidOrder.isEmpty() || bestAskOrder.isEmpty()) {
-            return Collections.emptyList();
+    public Order sweep(Order incomingOrder, List<OrderbookEvent> events) {
+        if (isFillOrKill(incomingOrder) && !activeOrders.isTotalFillPossible(incomingOrder)) {
+            return addKillMessage(incomingOrder, events);
         }
 
-        if (isMatch(bestBidOrder.get(), bestAskOrder.get().price())) {
-            return createAuctionMatchingMessages(bestBidOrder.get(), bestAskOrder.get(), price);
-        }
-        return Collections.emptyList();
-    }
+        Order updatedOrder = incomingOrder;
+        for (var opposingPriceLevel : getOpposingPriceLevels(incomingOrder)) {
+            if (!isMatch(incomingOrder, opposingPriceLevel.getPrice())) {
+                break;
+            }
 
-    private List<OrderbookEvent> matchNonActiveOrders(Order nonActiveOrder) {
-        return switch (nonActiveOrder.timeInForce()) {
-            case FOK -> matchFillOrKill(nonActiveOrder);
-            case FAK -> matchFillAndKill(nonActiveOrder);
-            default -> matchMarketOrder(nonActiveOrder);
-        };
-    }
+            double volumeBeforeMatch = updatedOrder.currentVolume().getRealValue();
+            updatedOrder = matchProRata(updatedOrder, opposingPriceLevel, events);
+            if (updatedOrder.orderOperation() == OrderOperationEnum.CANCEL) {
+                return updatedOrder;
+            }
 
-    private List<OrderbookEvent> matchActiveOrder(Order incomingOrder) {
-        return getOpposingBestPriceLevel(incomingOrder)
-                .filter(opposingBest -> isMatch(incomingOrder, opposingBest.getPrice()))
-                .map(opposingBest -> matchProRata(incomingOrder, opposingBest))
-                .orElse(Collections.emptyList());
-    }
+            // A level that was only partly allocated has to be updated before it can be matched again.
+            double matchedVolume = volumeBeforeMatch - updatedOrder.currentVolume().getRealValue();
+            if (matchedVolume < opposingPriceLevel.volumeAtPriceLevel().getRealValue()) {
+                return updatedOrder;
+            }
+        }
 
-    public List<OrderbookEvent> matchFillOrKill(Order fillOrKillOrder) {
-        if (!activeOrders.isTotalFillPossible(fillOrKillOrder)) {
-            return createKillMessage(fillOrKillOrder);
+        if (!incomingOrder.isActiveOrder()) {
+            return addKillMessage(updatedOrder, events);
         }
-        return getOpposingBestPriceLevel(fillOrKillOrder)
-                .map(opposingBest -> matchProRata(fillOrKillOrder, opposingBest))
-                .orElse(createKillMessage(fillOrKillOrder));
+        return updatedOrder;
     }
 
-    public List<OrderbookEvent> matchFillAndKill(Order fillAndKillOrder) {
-        return getOpposingBestPriceLevel(fillAndKillOrder)
-                .filter(opposingBest -> isMatch(fillAndKillOrder, opposingBest.getPrice()))
-                .map(opposingBest -> matchProRata(fillAndKillOrder, opposingBest))
-                .orElse(createKillMessage(fillAndKillOrder));
+    /**
+     * Levels that execute in full are allocated in time priority, the marginal level at the equilibrium price is
+     * allocated pro-rata.
+     */
+    @Override
+    public void uncross(Price price, Volume executableVolume, List<OrderbookEvent> events) {
+        allocate(activeOrders.getBidPriceLevels(), BID, price, executableVolume, bidAllocations);
+        allocate(activeOrders.getAskPriceLevels(), ASK, price, executableVolume, askAllocations);
+        AuctionAllocations.uncross(bidAllocations, askAllocations, price, events);
+        bidAllocations.clear();
+        askAllocations.clear();
     }
 
-    public List<OrderbookEvent> matchMarketOrder(Order marketOrder) {
-        return getOpposingBestPriceLevel(marketOrder)
-                .map(opposingBest -> matchProRata(marketOrder, opposingBest))
-                .orElse(createKillMessage(marketOrder));
+    private void allocate(Iterable<PriceLevel> priceLevels,
+                          OrderSideEnum orderSide,
+                          Price price,
+                          Volume executableVolume,
+                          AuctionAllocations auctionAllocations) {
+        double remainingVolume = executableVolume.getRealValue();
+        for (var priceLevel : priceLevels) {
+            if (remainingVolume <= 0 || !AuctionAllocations.isExecutable(orderSide, priceLevel, price)) {
+                return;
+            }
+            if (priceLevel.volumeAtPriceLevel().getRealValue() <= remainingVolume) {
+                remainingVolume = auctionAllocations.addInTimePriority(priceLevel, remainingVolume);
+                continue;
+            }
+
+            int nrOfOrders = priceLevel.size();
+            int nrOfAllocations = allocateProRata(priceLevel, remainingVolume);
+            for (int i = 0; i < nrOfAllocations; i++) {
+                auctionAllocations.add(orders[priority[i]], allocations[i]);
+            }
+            Arrays.fill(orders, 0, nrOfOrders, null);
+            return;
+        }
     }
 
-    private List<OrderbookEvent> matchProRata(final Order incomingOrder, final PriceLevel opposingBest) {
+    private Order matchProRata(final Order incomingOrder, final PriceLevel opposingBest, final List<OrderbookEvent> events) {
+        final int nrOfOrders = opposingBest.size();
+        final double tradeVolume = Math.min(incomingOrder.currentVolume().getRealValue(), opposingBest.volumeAtPriceLevel().getRealValue());
+        final int nrOfAllocations = allocateProRata(opposingBest, tradeVolume);
 
-        final Volume volumeAtPriceLevel = opposingBest.volumeAtPriceLevel();
-        final Volume tradeVolume = incomingOrder.currentVolume().min(volumeAtPriceLevel);
+        Order updatedIncomingOrder = incomingOrder;
+        for (int i = 0; i < nrOfAllocations; i++) {
+            updatedIncomingOrder = createMatchingMessages(updatedIncomingOrder, orders[priority[i]], Volume.create(allocations[i]), events);
+        }
 
-        Volume remainingTradeVolume = tradeVolume;
-        Map<OrderKey, Volume> keyToVolume = new LinkedHashMap<>();
-        Order updatedIncomingKey = incomingOrder;
-        for (var opposingOrder : opposingBest) {
-            Volume tradeVolumeWeighted = tradeVolume.multiply(opposingOrder.currentVolume().divide(volumeAtPriceLevel));
-            tradeVolumeWeighted = remainingTradeVolume.min(tradeVolumeWeighted);
+        Arrays.fill(orders, 0, nrOfOrders, null);
+        return updatedIncomingOrder;
+    }
 
-            if (tradeVolumeWeighted.leq(0)) {
-                remainingTradeVolume = Volume.ZERO;
+    /**
+     * Splits {@code tradeVolume} over the level in proportion to order volume. On return the first
+     * {@code nrOfAllocations} entries of {@code allocations} belong to {@code orders[priority[i]]}.
+     */
+    private int allocateProRata(final PriceLevel priceLevel, final double tradeVolume) {
+        final int nrOfOrders = loadPriceLevel(priceLevel);
+        final double volumeAtPriceLevel = priceLevel.volumeAtPriceLevel().getRealValue();
+
+        double remainingTradeVolume = tradeVolume;
+        int nrOfAllocations = 0;
+        for (int i = 0; i < nrOfOrders; i++) {
+            double allocation = Math.min(remainingTradeVolume, tradeVolume * (volumes[priority[i]] / volumeAtPriceLevel));
+            if (allocation <= 0) {
+                remainingTradeVolume = 0;
                 break;
-            } else if (tradeVolumeWeighted.subtract(minTradeVolume).leq(0)) {
+            } else if (allocation - minTradeVolume <= 0) {
                 break;
             }
+            remainingTradeVolume -= allocation;
+            allocations[nrOfAllocations++] = allocation;
+        }
 
-            remainingTradeVolume = remainingTradeVolume.subtract(tradeVolumeWeighted);
-
-            var key = new OrderKey(updatedIncomingKey, opposingOrder);
-            var currentVolumeTrade = keyToVolume.computeIfAbsent(key, k -> Volume.ZERO);
-            keyToVolume.put(key, currentVolumeTrade.add(tradeVolumeWeighted));
+        // The rounding remainder goes to the order with the highest priority.
+        if (nrOfAllocations > 0) {
+            allocations[0] += remainingTradeVolume;
+        }
+        return nrOfAllocations;
+    }
 
-            updatedIncomingKey = buildUpdateOrder(updatedIncomingKey, tradeVolumeWeighted, PARTIAL_FILL);
+    /**
+     * Copies the level into the scratch arrays and orders it by volume, largest first. The sort is stable so equal
+     * volumes keep the level's own order.
+     */
+    private int loadPriceLevel(PriceLevel priceLevel) {
+        int nrOfOrders = priceLevel.size();
+        ensureCapacity(nrOfOrders);
+
+        int index = 0;
+        for (var order : priceLevel) {
+            orders[index] = order;
+            volumes[index] = order.currentVolume().getRealValue();
+            priority[index] = index;
+            index++;
         }
 
-        final List<OrderbookEvent> result = new ArrayList<>();
-        for (var entry : keyToVolume.entrySet()) {
-            var key = entry.getKey();
-            var volume = entry.getValue();
-            if (remainingTradeVolume.gt(0) && key.incomingOrder.equals(incomingOrder)) {
-                result.addAll(createMatchingMessages(key.incomingOrder, key.opposingOrder, volume.add(remainingTradeVolume)));
-            } else if (remainingTradeVolume.gt(0)) {
-                result.addAll(createMatchingMessages(buildUpdateOrder(key.incomingOrder, remainingTradeVolume, PARTIAL_FILL), key.opposingOrder, volume));
+        for (int width = 1; width < nrOfOrders; width <<= 1) {
+            for (int low = 0; low < nrOfOrders - width; low += width << 1) {
+                merge(low, low + width, Math.min(low + (width << 1), nrOfOrders));
+            }
+        }
+        return nrOfOrders;
+    }
 
+    private void merge(int low, int mid, int high) {
+        System.arraycopy(priority, low, mergeBuffer, low, high - low);
+        int left = low;
+        int right = mid;
+        for (int i = low; i < high; i++) {
+            if (right >= high || (left < mid && volumes[mergeBuffer[left]] >= volumes[mergeBuffer[right]])) {
+                priority[i] = mergeBuffer[left++];
             } else {
-                result.addAll(createMatchingMessages(key.incomingOrder, key.opposingOrder, volume));
+                priority[i] = mergeBuffer[right++];
             }
         }
+    }
 
-        return result;
+    private void ensureCapacity(int nrOfOrders) {
+        if (orders.length >= nrOfOrders) {
+            return;
+        }
+        int capacity = Math.max(nrOfOrders, orders.length << 1);
+        orders = new Order[capacity];
+        volumes = new double[capacity];
+        allocations = new double[capacity];
+        priority = new int[capacity];
+        mergeBuffer = new int[capacity];
     }
 
-    private Optional<PriceLevel> getOpposingBestPriceLevel(Order incomingOrder) {
+    private Iterable<PriceLevel> getOpposingPriceLevels(Order incomingOrder) {
         return switch (incomingOrder.orderSide()) {
-            case BID -> activeOrders.getBestAskPriceLevel();
-            case ASK -> activeOrders.getBestBidPriceLevel();
+            case BID -> activeOrders.getAskPriceLevels();
+            case ASK -> activeOrders.getBidPriceLevels();
         };
     }
 
+    private static boolean isFillOrKill(Order incomingOrder) {
+        return !incomingOrder.isActiveOrder() && incomingOrder.timeInForce() == TimeInForceEnum.FOK;
+    }
+
     private boolean isMatch(Order incomingOrder, Price opposingPrice) {
         if (incomingOrder.orderType() == OrderTypeEnum.MARKET) {
             return true;
@@ -144,14 +220,10 @@ public class ProRataMatchingAlgorithm implements MatchingAlgorithm {
         };
     }
 
-    private List<OrderbookEvent> createKillMessage(Order nonActiveOrder) {
-        List<OrderbookEvent> matchingMessages = new ArrayList<>();
-        matchingMessages.add(buildCancelOrder(nonActiveOrder, KILLED));
-        return matchingMessages;
-    }
-
-    private record OrderKey(Order incomingOrder, Order opposingOrder) {
-
+    private Order addKillMessage(Order nonActiveOrder, List<OrderbookEvent> events) {
+        Order killedOrder = buildCancelOrder(nonActiveOrder, KILLED);
+        events.add(killedOrder);
+        return killedOrder;
     }
 
 }
@@ -1,41 +1,119 @@
 package com.herron.exchange.tradingengine.server.matchingengine.orderbook;
 
 import com.herron.exchange.common.api.common.api.trading.Order;
+import com.herron.exchange.common.api.common.enums.OrderOperationEnum;
 import com.herron.exchange.common.api.common.enums.OrderSideEnum;
 import com.herron.exchange.common.api.common.enums.OrderTypeEnum;
 import com.herron.exchange.common.api.common.messages.common.Price;
 import com.herron.exchange.common.api.common.messages.common.Volume;
 import com.herron.exchange.tradingengine.server.matchingengine.api.ActiveOrderReadOnly;
+import com.herron.exchange.tradingengine.server.matchingengine.api.PriceLevelSide;
+import com.herron.exchange.tradingengine.server.matchingengine.api.PriceLevelUpdateAction;
+import com.herron.exchange.tradingengine.server.matchingengine.api.PriceLevelUpdateListener;
+import com.herron.exchange.tradingengine.server.matchingengine.api.PriceLevelVolumeListener;
+import com.herron.exchange.tradingengine.server.matchingengine.orderbook.model.OrderNode;
 import com.herron.exchange.tradingengine.server.matchingengine.orderbook.model.PriceLevel;
+import com.herron.exchange.tradingengine.server.matchingengine.orderbook.model.SortedPriceLevel;
+import com.herron.exchange.tradingengine.server.matchingengine.orderbook.side.TreeMapPriceLevelSide;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import static com.herron.exchange.tradingengine.server.matchingengine.utils.MatchingEngineUtils.buildAmendedOrder;
 
 public class ActiveOrders implements ActiveOrderReadOnly {
     private static final Logger LOGGER = LoggerFactory.getLogger(ActiveOrders.class);
-    private final Map<String, Order> orderIdToOrder = new ConcurrentHashMap<>();
-    private final TreeMap<Price, PriceLevel> bidPriceToPriceLevel = new TreeMap<>(Comparator.comparing(Price::getValue).reversed());
-    private final TreeMap<Price, PriceLevel> askPriceToPriceLevel = new TreeMap<>(Comparator.comparing(Price::getValue));
-    private final Comparator<? super Order> comparator;
+    private static final int MAX_POOLED_NODES = 4096;
+    private final Map<String, OrderNode> orderIdToNode = new ConcurrentHashMap<>();
+    private final Deque<OrderNode> nodePool = new ArrayDeque<>();
+    private final PriceLevelSide bidPriceLevels;
+    private final PriceLevelSide askPriceLevels;
+    private final Function<Price, PriceLevel> priceLevelFactory;
+    private double totalBidVolume = 0;
+    private double totalAskVolume = 0;
+    private long totalNumberOfBidOrders = 0;
+    private long totalNumberOfAskOrders = 0;
+    private PriceLevelVolumeListener volumeListener;
+    private PriceLevelUpdateListener priceLevelUpdateListener;
 
     public ActiveOrders(Comparator<? super Order> comparator) {
-        this.comparator = comparator;
+        this(comparator, new TreeMapPriceLevelSide(OrderSideEnum.BID), new TreeMapPriceLevelSide(OrderSideEnum.ASK));
+    }
+
+    public ActiveOrders(Comparator<? super Order> comparator, PriceLevelSide bidPriceLevels, PriceLevelSide askPriceLevels) {
+        this(price -> new SortedPriceLevel(price, comparator), bidPriceLevels, askPriceLevels);
+    }
+
+    public ActiveOrders(Function<Price, PriceLevel> priceLevelFactory, PriceLevelSide bidPriceLevels, PriceLevelSide askPriceLevels) {
+        this.priceLevelFactory = priceLevelFactory;
+        this.bidPriceLevels = bidPriceLevels;
+        this.askPriceLevels = askPriceLevels;
+    }
+
+    public void setVolumeListener(PriceLevelVolumeListener volumeListener) {
+        this.volumeListener = volumeListener;
+    }
+
+    public void setPriceLevelUpdateListener(PriceLevelUpdateListener priceLevelUpdateListener) {
+        this.priceLevelUpdateListener = priceLevelUpdateListener;
     }
 
     public boolean updateOrder(Order order) {
+        OrderNode node = orderIdToNode.get(order.orderId());
+        if (node != null && isPriorityPreservingAmend(node.getOrder(), order)) {
+            return replaceOrder(node, buildAmendedOrder(node.getOrder(), order));
+        }
+        if (!isValidPrice(order)) {
+            return false;
+        }
         return removeOrder(order) && addOrder(order);
     }
 
+    public boolean applyFill(Order order) {
+        if (!order.isActiveOrder()) {
+            return true;
+        }
+        if (order.orderOperation() == OrderOperationEnum.CANCEL) {
+            return removeOrder(order.orderId());
+        }
+
+        OrderNode node = orderIdToNode.get(order.orderId());
+        if (node == null) {
+            LOGGER.error("Cannot fill order id {}, order does not exist.", order.orderId());
+            return false;
+        }
+        return replaceOrder(node, order);
+    }
+
+    private boolean replaceOrder(OrderNode node, Order order) {
+        double previousVolume = node.getOrder().currentVolume().getRealValue();
+        if (!node.getPriceLevel().replace(node, order)) {
+            return false;
+        }
+        updateAggregates(order.orderSide(), order.price(), order.currentVolume().getRealValue() - previousVolume, 0);
+        notifyPriceLevelUpdate(PriceLevelUpdateAction.CHANGE, order.orderSide(), node.getPriceLevel());
+        return true;
+    }
+
     public boolean addOrder(Order order) {
         PriceLevel priceLevel = findOrCreatePriceLevel(order);
         if (priceLevel == null) {
             return false;
         }
+        boolean isNewPriceLevel = priceLevel.isEmpty();
 
-        orderIdToOrder.put(order.orderId(), order);
-        return priceLevel.add(order);
+        OrderNode node = acquireNode(order);
+        if (!priceLevel.add(node)) {
+            releaseNode(node);
+            return false;
+        }
+        orderIdToNode.put(order.orderId(), node);
+        updateAggregates(order.orderSide(), order.price(), order.currentVolume().getRealValue(), 1);
+        notifyPriceLevelUpdate(isNewPriceLevel ? PriceLevelUpdateAction.ADD : PriceLevelUpdateAction.CHANGE, order.orderSide(), priceLevel);
+        return true;
     }
 
     public boolean removeOrder(Order order) {
@@ -43,18 +121,23 @@ public class ActiveOrders implements ActiveOrderReadOnly {
     }
 
     public boolean removeOrder(String orderId) {
-        if (!orderIdToOrder.containsKey(orderId)) {
+        OrderNode node = orderIdToNode.remove(orderId);
+        if (node == null) {
             LOGGER.error("Cannot remove order id {}, order does not exist.", orderId);
             return false;
         }
 
-        Order order = orderIdToOrder.remove(orderId);
-        PriceLevel priceLevel = findOrCreatePriceLevel(order);
+        Order order = node.getOrder();
+        PriceLevel priceLevel = node.getPriceLevel();
 
-        if (priceLevel != null && priceLevel.remove(order)) {
+        if (priceLevel != null && priceLevel.remove(node)) {
+            updateAggregates(order.orderSide(), order.price(), -order.currentVolume().getRealValue(), -1);
+            releaseNode(node);
             if (priceLevel.isEmpty()) {
+                notifyPriceLevelUpdate(PriceLevelUpdateAction.DELETE, order.orderSide(), priceLevel);
                 return removePriceLevel(order);
             }
+            notifyPriceLevelUpdate(PriceLevelUpdateAction.CHANGE, order.orderSide(), priceLevel);
         } else {
             LOGGER.error("Cannot remove order {}, price level or order does not exist.", order);
             return false;
@@ -63,35 +146,114 @@ public class ActiveOrders implements ActiveOrderReadOnly {
         return true;
     }
 
+    private OrderNode acquireNode(Order order) {
+        OrderNode node = nodePool.pollFirst();
+        if (node == null) {
+            return new OrderNode(order);
+        }
+        node.reset(order);
+        return node;
+    }
+
+    private void releaseNode(OrderNode node) {
+        if (nodePool.size() < MAX_POOLED_NODES) {
+            node.reset(null);
+            nodePool.addFirst(node);
+        }
+    }
+
+    private void updateAggregates(OrderSideEnum orderSide, Price price, double volumeChange, long nrOfOrdersChange) {
+        switch (orderSide) {
+            case BID -> {
+                totalNumberOfBidOrders += nrOfOrdersChange;
+                // Snap to zero once the side is empty so that rounding in the running sum never outlives the orders.
+                totalBidVolume = totalNumberOfBidOrders == 0 ? 0 : totalBidVolume + volumeChange;
+            }
+            case ASK -> {
+                totalNumberOfAskOrders += nrOfOrdersChange;
+                totalAskVolume = totalNumberOfAskOrders == 0 ? 0 : totalAskVolume + volumeChange;
+            }
+        }
+        if (volumeListener != null) {
+            volumeListener.onVolumeChange(orderSide, price, volumeChange, nrOfOrdersChange);
+        }
+    }
+
+    private void notifyPriceLevelUpdate(PriceLevelUpdateAction action, OrderSideEnum orderSide, PriceLevel priceLevel) {
+        if (priceLevelUpdateListener != null) {
+            priceLevelUpdateListener.onPriceLevelUpdate(action, orderSide, priceLevel.getPrice(), priceLevel.volumeAtPriceLevel().getRealValue(), priceLevel.nrOfOrdersAtPriceLevel());
+        }
+    }
+
+    private static boolean isPriorityPreservingAmend(Order restingOrder, Order order) {
+        return restingOrder.orderSide() == order.orderSide() &&
+                restingOrder.orderType() == order.orderType() &&
+                restingOrder.price().equals(order.price()) &&
+                order.currentVolume().leq(restingOrder.currentVolume());
+    }
+
     private PriceLevel findOrCreatePriceLevel(Order order) {
-        return switch (order.orderSide()) {
-            case BID -> bidPriceToPriceLevel.computeIfAbsent(order.price(), key -> new PriceLevel(order.price(), comparator));
-            case ASK -> askPriceToPriceLevel.computeIfAbsent(order.price(), key -> new PriceLevel(order.price(), comparator));
-        };
+        PriceLevelSide priceLevelSide = getPriceLevelSide(order.orderSide());
+        PriceLevel priceLevel = priceLevelSide.getPriceLevel(order.price());
+        if (priceLevel == null) {
+            if (!isValidPrice(order)) {
+                return null;
+            }
+            priceLevel = priceLevelFactory.apply(order.price());
+            priceLevelSide.addPriceLevel(priceLevel);
+        }
+        return priceLevel;
     }
 
-    private boolean removePriceLevel(Order order) {
-        switch (order.orderSide()) {
-            case BID -> bidPriceToPriceLevel.remove(order.price());
-            case ASK -> askPriceToPriceLevel.remove(order.price());
+    private boolean isValidPrice(Order order) {
+        if (getPriceLevelSide(order.orderSide()).isValidPrice(order.price())) {
+            return true;
         }
+        LOGGER.error("Cannot add order {}, price {} is not valid for the book.", order.orderId(), order.price());
+        return false;
+    }
+
+    private boolean removePriceLevel(Order order) {
+        getPriceLevelSide(order.orderSide()).removePriceLevel(order.price());
         return true;
     }
 
+    private PriceLevelSide getPriceLevelSide(OrderSideEnum orderSide) {
+        return switch (orderSide) {
+            case BID -> bidPriceLevels;
+            case ASK -> askPriceLevels;
+        };
+    }
+
+    private static Optional<PriceLevel> getPriceLevelAt(PriceLevelSide priceLevelSide, int priceLevel) {
+        return Optional.ofNullable(priceLevelSide.getPriceLevel(priceLevel));
+    }
+
+    @Override
+    public Iterable<PriceLevel> getBidPriceLevels() {
+        return bidPriceLevels;
+    }
+
+    @Override
+    public Iterable<PriceLevel> getAskPriceLevels() {
+        return askPriceLevels;
+    }
+
     public int totalNumberOfPriceLevels() {
         return totalNumberOfBidPriceLevels() + totalNumberOfAskPriceLevels();
     }
 
     public int totalNumberOfBidPriceLevels() {
-        return bidPriceToPriceLevel.values().size();
+        return bidPriceLevels.nrOfPriceLevels();
     }
 
     public int totalNumberOfAskPriceLevels() {
-        return askPriceToPriceLevel.values().size();
+        return askPriceLevels.nrOfPriceLevels();
     }
 
     public Order getOrder(String orderId) {
-        return orderIdToOrder.get(orderId);
+        OrderNode node = orderIdToNode.get(orderId);
+        return node == null ? null : node.getOrder();
     }
 
     public Optional<Price> getBestBidPrice() {
@@ -111,41 +273,31 @@ public class ActiveOrders implements ActiveOrderReadOnly {
     }
 
     private Optional<Order> getBestOrder(OrderSideEnum orderSide) {
-        return switch (orderSide) {
-            case BID -> bidPriceToPriceLevel.values().stream().findFirst().map(PriceLevel::first);
-            case ASK -> askPriceToPriceLevel.values().stream().findFirst().map(PriceLevel::first);
-        };
+        return getPriceLevelSide(orderSide).getBestPriceLevel().map(PriceLevel::first);
     }
 
     public long totalNumberOfBidOrders() {
-        return totalNumberOfSideOrders(OrderSideEnum.BID.getValue());
+        return totalNumberOfBidOrders;
     }
 
     public long totalNumberOfAskOrders() {
-        return totalNumberOfSideOrders(OrderSideEnum.ASK.getValue());
-    }
-
-    private long totalNumberOfSideOrders(int orderSide) {
-        return switch (OrderSideEnum.fromValue(orderSide)) {
-            case BID -> bidPriceToPriceLevel.values().stream().mapToLong(PriceLevel::nrOfOrdersAtPriceLevel).sum();
-            case ASK -> askPriceToPriceLevel.values().stream().mapToLong(PriceLevel::nrOfOrdersAtPriceLevel).sum();
-        };
+        return totalNumberOfAskOrders;
     }
 
     public long totalNumberOfActiveOrders() {
-        return orderIdToOrder.size();
+        return orderIdToNode.size();
     }
 
     public Volume totalOrderVolume() {
-        return totalBidVolume().add(totalAskVolume());
+        return Volume.create(totalBidVolume + totalAskVolume);
     }
 
     public Volume totalBidVolume() {
-        return bidPriceToPriceLevel.values().stream().map(PriceLevel::volumeAtPriceLevel).reduce(Volume.ZERO, Volume::add);
+        return Volume.create(totalBidVolume);
     }
 
     public Volume totalAskVolume() {
-        return askPriceToPriceLevel.values().stream().map(PriceLevel::volumeAtPriceLevel).reduce(Volume.ZERO, Volume::add);
+        return Volume.create(totalAskVolume);
     }
 
     public Volume totalVolumeAtPriceLevel(int priceLevel) {
@@ -153,47 +305,35 @@ public class ActiveOrders implements ActiveOrderReadOnly {
     }
 
     public Volume totalBidVolumeAtPriceLevel(int priceLevel) {
-        return bidPriceToPriceLevel.values().stream()
-                .skip(priceLevel - 1L)
-                .findFirst()
+        return getPriceLevelAt(bidPriceLevels, priceLevel)
                 .map(PriceLevel::volumeAtPriceLevel)
                 .orElse(Volume.ZERO);
     }
 
     public Volume totalAskVolumeAtPriceLevel(int priceLevel) {
-        return askPriceToPriceLevel.values().stream()
-                .skip(priceLevel - 1L)
-                .findFirst()
+        return getPriceLevelAt(askPriceLevels, priceLevel)
                 .map(PriceLevel::volumeAtPriceLevel)
                 .orElse(Volume.ZERO);
     }
 
     public Optional<Price> getAskPriceAtPriceLevel(int priceLevel) {
-        return askPriceToPriceLevel.values().stream()
-                .skip(priceLevel - 1L)
-                .findFirst()
+        return getPriceLevelAt(askPriceLevels, priceLevel)
                 .map(PriceLevel::getPrice);
     }
 
     public Optional<Price> getBidPriceAtPriceLevel(int priceLevel) {
-        return bidPriceToPriceLevel.values().stream()
-                .skip(priceLevel - 1L)
-                .findFirst()
+        return getPriceLevelAt(bidPriceLevels, priceLevel)
                 .map(PriceLevel::getPrice);
     }
 
     public long totalNrOfBidOrdersAtPriceLevel(int priceLevel) {
-        return bidPriceToPriceLevel.values().stream()
-                .skip(priceLevel - 1L)
-                .findFirst()
+        return getPriceLevelAt(bidPriceLevels, priceLevel)
                 .map(PriceLevel::nrOfOrdersAtPriceLevel)
                 .orElse(0L);
     }
 
     public long totalNrOfAskOrdersAtPriceLevel(int priceLevel) {
-        return askPriceToPriceLevel.values().stream()
-                .skip(priceLevel - 1L)
-                .findFirst()
+        return getPriceLevelAt(askPriceLevels, priceLevel)
                 .map(PriceLevel::nrOfOrdersAtPriceLevel)
                 .orElse(0L);
     }
@@ -203,15 +343,15 @@ public class ActiveOrders implements ActiveOrderReadOnly {
     }
 
     public boolean doesBidLevelExist(int priceLevel) {
-        return bidPriceToPriceLevel.size() >= priceLevel;
+        return bidPriceLevels.nrOfPriceLevels() >= priceLevel;
     }
 
     public boolean doesAskLevelExist(int priceLevel) {
-        return askPriceToPriceLevel.size() >= priceLevel;
+        return askPriceLevels.nrOfPriceLevels() >= priceLevel;
     }
 
     public boolean hasBidAndAskOrders() {
-        return !bidPriceToPriceLevel.isEmpty() && !askPriceToPriceLevel.isEmpty();
+        return !bidPriceLevels.isEmpty() && !askPriceLevels.isEmpty();
     }
 
     public boolean isTotalFillPossible(Order order) {
@@ -232,15 +372,12 @@ public class ActiveOrders implements ActiveOrderReadOnly {
     }
 
     private Optional<PriceLevel> getBestPriceLevel(OrderSideEnum orderSide) {
-        return switch (orderSide) {
-            case BID -> bidPriceToPriceLevel.values().stream().findFirst();
-            case ASK -> askPriceToPriceLevel.values().stream().findFirst();
-        };
+        return getPriceLevelSide(orderSide).getBestPriceLevel();
     }
 
     private boolean isTotalAskFillPossible(Order order) {
         Volume availableVolume = Volume.ZERO;
-        for (var level : bidPriceToPriceLevel.values()) {
+        for (var level : bidPriceLevels) {
             if (order.orderType() == OrderTypeEnum.MARKET || order.price().leq(level.getPrice())) {
                 availableVolume = availableVolume.add(level.volumeAtPriceLevel());
             } else {
@@ -256,7 +393,7 @@ public class ActiveOrders implements ActiveOrderReadOnly {
 
     private boolean isTotalBidFillPossible(Order order) {
         Volume availableVolume = Volume.ZERO;
-        for (var level : askPriceToPriceLevel.values()) {
+        for (var level : askPriceLevels) {
             if (order.orderType() == OrderTypeEnum.MARKET || order.price().geq(level.getPrice())) {
                 availableVolume = availableVolume.add(level.volumeAtPriceLevel());
             } else {
@@ -272,7 +409,7 @@ public class ActiveOrders implements ActiveOrderReadOnly {
 
     public List<PriceLevel> getAskPriceLevelsLowerOrEqual(Price bidPrice) {
         List<PriceLevel> matchingPriceLevels = new ArrayList<>();
-        for (var priceLevel : askPriceToPriceLevel.values()) {
+        for (var priceLevel : askPriceLevels) {
             if (priceLevel.getPrice().gt(bidPrice)) {
                 return matchingPriceLevels;
             }
@@ -283,7 +420,7 @@ public class ActiveOrders implements ActiveOrderReadOnly {
 
     public List<PriceLevel> getBidPriceLevelsHigherOrEqual(Price askPrice) {
         List<PriceLevel> matchingPriceLevels = new ArrayList<>();
-        for (var priceLevel : bidPriceToPriceLevel.values()) {
+        for (var priceLevel : bidPriceLevels) {
             if (priceLevel.getPrice().lt(askPrice)) {
                 return matchingPriceLevels;
             }
@@ -6,7 +6,6 @@ import com.herron.exchange.common.api.common.api.trading.OrderbookEvent;
 import com.herron.exchange.common.api.common.enums.MatchingAlgorithmEnum;
 import com.herron.exchange.common.api.common.enums.OrderOperationEnum;
 import com.herron.exchange.common.api.common.enums.TradingStatesEnum;
-import com.herron.exchange.common.api.common.locks.LockHandler;
 import com.herron.exchange.common.api.common.messages.common.Price;
 import com.herron.exchange.common.api.common.messages.common.Timestamp;
 import com.herron.exchange.common.api.common.messages.common.Volume;
@@ -14,10 +13,18 @@ import com.herron.exchange.common.api.common.messages.trading.*;
 import com.herron.exchange.tradingengine.server.matchingengine.api.AuctionAlgorithm;
 import com.herron.exchange.tradingengine.server.matchingengine.api.MatchingAlgorithm;
 import com.herron.exchange.tradingengine.server.matchingengine.api.Orderbook;
+import com.herron.exchange.tradingengine.server.matchingengine.api.PriceLevelUpdateListener;
+import com.herron.exchange.tradingengine.server.matchingengine.auctionalgorithms.model.IndicativeAuctionPrice;
+import com.herron.exchange.tradingengine.server.matchingengine.concurrency.OrderbookLock;
+import com.herron.exchange.tradingengine.server.matchingengine.concurrency.ReadWriteOrderbookLock;
+import com.herron.exchange.tradingengine.server.matchingengine.orderbook.model.OrderbookSnapshot;
+import com.herron.exchange.tradingengine.server.matchingengine.orderbook.model.PriceLevel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
@@ -34,23 +41,37 @@ public class OrderbookImpl implements Orderbook {
     private final MatchingAlgorithm matchingAlgorithm;
     private final AuctionAlgorithm auctionAlgorithm;
     private final AtomicReference<PriceQuote> latestPrice = new AtomicReference<>();
-    private final LockHandler lock = new LockHandler();
+    private final List<OrderbookEvent> eventBuffer = new ArrayList<>();
+    private final OrderbookLock lock;
     private TradingStatesEnum currentState = CLOSED;
+    private long version = 0;
+    private volatile OrderbookSnapshot snapshot = OrderbookSnapshot.EMPTY;
+    private volatile boolean isSnapshotRequested = false;
 
     public OrderbookImpl(OrderbookData orderbookData,
                          ActiveOrders activeOrders,
                          MatchingAlgorithm matchingAlgorithm,
                          AuctionAlgorithm auctionAlgorithm) {
+        this(orderbookData, activeOrders, matchingAlgorithm, auctionAlgorithm, new ReadWriteOrderbookLock());
+    }
+
+    public OrderbookImpl(OrderbookData orderbookData,
+                         ActiveOrders activeOrders,
+                         MatchingAlgorithm matchingAlgorithm,
+                         AuctionAlgorithm auctionAlgorithm,
+                         OrderbookLock lock) {
         this.orderbookData = orderbookData;
+        this.lock = lock;
         this.activeOrders = activeOrders;
         this.matchingAlgorithm = matchingAlgorithm;
         this.auctionAlgorithm = auctionAlgorithm;
     }
 
     @Override
-    public synchronized boolean updateOrderbook(Order order) {
-        return lock.executeWithWriteLock(() -> {
-                    if (!isAccepting()) {
+    public boolean updateOrderbook(Order order) {
+        return lock.write(() -> {
+                    version++;
+                    if (!isAcceptingState()) {
                         LOGGER.error("Is not accepting {}.", currentState);
                         return false;
                     }
@@ -68,220 +89,327 @@ public class OrderbookImpl implements Orderbook {
 
     @Override
     public boolean isAccepting() {
-        return lock.executeWithReadLock(() -> {
-                    if (currentState == null) {
-                        return false;
-                    }
-                    if (currentState == TRADE_HALT) {
-                        return false;
-                    }
+        return lock.read(this::isAcceptingState);
+    }
 
-                    if (currentState == CLOSED) {
-                        return false;
-                    }
-                    return true;
-                }
-        );
+    private boolean isAcceptingState() {
+        if (currentState == null) {
+            return false;
+        }
+        if (currentState == TRADE_HALT) {
+            return false;
+        }
+
+        if (currentState == CLOSED) {
+            return false;
+        }
+        return true;
     }
 
     private boolean updateOrder(Order order) {
-        return lock.executeWithWriteLock(() -> activeOrders.updateOrder(order));
+        return activeOrders.updateOrder(order);
     }
 
     private boolean addOrder(Order order) {
-        return lock.executeWithWriteLock(() -> activeOrders.addOrder(order));
+        return activeOrders.addOrder(order);
     }
 
     public boolean removeOrder(String orderId) {
-        return lock.executeWithWriteLock(() -> activeOrders.removeOrder(orderId));
+        return lock.write(() -> {
+            version++;
+            return activeOrders.removeOrder(orderId);
+        });
     }
 
     private boolean removeOrder(Order order) {
-        return lock.executeWithWriteLock(() -> activeOrders.removeOrder(order));
+        return activeOrders.removeOrder(order);
     }
 
     @Override
     public Optional<Price> getBestBidPrice() {
-        return lock.executeWithReadLock(activeOrders::getBestBidPrice);
+        return getBestBidOrder().map(Order::price);
     }
 
     @Override
     public Optional<Price> getBestAskPrice() {
-        return lock.executeWithReadLock(activeOrders::getBestAskPrice);
+        return getBestAskOrder().map(Order::price);
     }
 
     @Override
     public boolean hasBidAndAskOrders() {
-        return lock.executeWithReadLock(activeOrders::hasBidAndAskOrders);
+        return lock.read(activeOrders::hasBidAndAskOrders);
     }
 
     @Override
     public long totalNumberOfBidOrders() {
-        return lock.executeWithReadLock(activeOrders::totalNumberOfBidOrders);
+        return lock.read(activeOrders::totalNumberOfBidOrders);
     }
 
     @Override
     public long totalNumberOfAskOrders() {
-        return lock.executeWithReadLock(activeOrders::totalNumberOfAskOrders);
+        return lock.read(activeOrders::totalNumberOfAskOrders);
     }
 
     @Override
     public long totalNumberOfActiveOrders() {
-        return lock.executeWithReadLock(activeOrders::totalNumberOfActiveOrders);
+        return lock.read(activeOrders::totalNumberOfActiveOrders);
     }
 
     @Override
     public Volume totalOrderVolume() {
-        return lock.executeWithReadLock(activeOrders::totalOrderVolume);
+        return lock.read(activeOrders::totalOrderVolume);
     }
 
     @Override
     public Volume totalBidVolume() {
-        return lock.executeWithReadLock(activeOrders::totalBidVolume);
+        return lock.read(activeOrders::totalBidVolume);
     }
 
     @Override
     public Volume totalAskVolume() {
-        return lock.executeWithReadLock(activeOrders::totalAskVolume);
+        return lock.read(activeOrders::totalAskVolume);
     }
 
     @Override
     public Volume totalVolumeAtPriceLevel(int priceLevel) {
-        return activeOrders.totalVolumeAtPriceLevel(priceLevel);
+        return totalBidVolumeAtPriceLevel(priceLevel).add(totalAskVolumeAtPriceLevel(priceLevel));
     }
 
     @Override
     public Volume totalBidVolumeAtPriceLevel(int priceLevel) {
-        return lock.executeWithReadLock(() -> activeOrders.totalBidVolumeAtPriceLevel(priceLevel));
+        if (!lock.canReadCollections()) {
+            var level = getSnapshot().getBidLevel(priceLevel);
+            return level == null ? Volume.ZERO : level.volume();
+        }
+        return lock.read(() -> activeOrders.totalBidVolumeAtPriceLevel(priceLevel));
     }
 
     @Override
     public Volume totalAskVolumeAtPriceLevel(int priceLevel) {
-        return lock.executeWithReadLock(() -> activeOrders.totalAskVolumeAtPriceLevel(priceLevel));
+        if (!lock.canReadCollections()) {
+            var level = getSnapshot().getAskLevel(priceLevel);
+            return level == null ? Volume.ZERO : level.volume();
+        }
+        return lock.read(() -> activeOrders.totalAskVolumeAtPriceLevel(priceLevel));
     }
 
     @Override
     public int totalNumberOfPriceLevels() {
-        return activeOrders.totalNumberOfPriceLevels();
+        return lock.read(activeOrders::totalNumberOfPriceLevels);
     }
 
     @Override
     public int totalNumberOfBidPriceLevels() {
-        return lock.executeWithReadLock(activeOrders::totalNumberOfBidPriceLevels);
+        return lock.read(activeOrders::totalNumberOfBidPriceLevels);
     }
 
     @Override
     public int totalNumberOfAskPriceLevels() {
-        return lock.executeWithReadLock(activeOrders::totalNumberOfAskPriceLevels);
+        return lock.read(activeOrders::totalNumberOfAskPriceLevels);
     }
 
     @Override
     public Order getOrder(String orderId) {
-        return lock.executeWithReadLock(() -> activeOrders.getOrder(orderId));
+        return lock.read(() -> activeOrders.getOrder(orderId));
     }
 
     @Override
     public MatchingAlgorithmEnum getMatchingAlgorithm() {
-        return lock.executeWithReadLock(orderbookData::matchingAlgorithm);
+        return orderbookData.matchingAlgorithm();
     }
 
     @Override
     public String getOrderbookId() {
-        return lock.executeWithReadLock(orderbookData::orderbookId);
+        return orderbookData.orderbookId();
     }
 
     @Override
     public String getInstrumentId() {
-        return lock.executeWithReadLock(() -> orderbookData.instrument().instrumentId());
+        return orderbookData.instrument().instrumentId();
     }
 
     @Override
     public Optional<Price> getAskPriceAtPriceLevel(int priceLevel) {
-        return lock.executeWithReadLock(() -> activeOrders.getAskPriceAtPriceLevel(priceLevel));
+        if (!lock.canReadCollections()) {
+            return Optional.ofNullable(getSnapshot().getAskLevel(priceLevel)).map(OrderbookSnapshot.Level::price);
+        }
+        return lock.read(() -> activeOrders.getAskPriceAtPriceLevel(priceLevel));
     }
 
     @Override
     public Optional<Price> getBidPriceAtPriceLevel(int priceLevel) {
-        return lock.executeWithReadLock(() -> activeOrders.getBidPriceAtPriceLevel(priceLevel));
+        if (!lock.canReadCollections()) {
+            return Optional.ofNullable(getSnapshot().getBidLevel(priceLevel)).map(OrderbookSnapshot.Level::price);
+        }
+        return lock.read(() -> activeOrders.getBidPriceAtPriceLevel(priceLevel));
     }
 
     @Override
     public Optional<Order> getBestBidOrder() {
-        return lock.executeWithReadLock(activeOrders::getBestBidOrder);
+        if (!lock.canReadCollections()) {
+            return Optional.ofNullable(getSnapshot().bestBidOrder());
+        }
+        return lock.read(activeOrders::getBestBidOrder);
     }
 
     @Override
     public Optional<Order> getBestAskOrder() {
-        return lock.executeWithReadLock(activeOrders::getBestAskOrder);
+        if (!lock.canReadCollections()) {
+            return Optional.ofNullable(getSnapshot().bestAskOrder());
+        }
+        return lock.read(activeOrders::getBestAskOrder);
     }
 
     @Override
     public TopOfBook getTopOfBook() {
-        return lock.executeWithReadLock(() -> {
-                    var builder = ImmutableTopOfBook.builder()
-                            .orderbookId(getOrderbookId())
-                            .timeOfEvent(Timestamp.now())
-                            .eventType(SYSTEM);
-
-                    Optional.ofNullable(latestPrice.get()).ifPresent(builder::lastQuote);
-                    getBestAskOrder()
-                            .map(ao -> ImmutablePriceQuote.builder().orderbookId(getOrderbookId()).price(ao.price()).eventType(ao.eventType()).timeOfEvent(ao.timeOfEvent()).quoteType(ASK_PRICE).build())
-                            .ifPresent(builder::askQuote);
-                    getBestBidOrder()
-                            .map(bo -> ImmutablePriceQuote.builder().orderbookId(getOrderbookId()).price(bo.price()).eventType(bo.eventType()).timeOfEvent(bo.timeOfEvent()).quoteType(BID_PRICE).build())
-                            .ifPresent(builder::bidQuote);
-
-                    return builder.build();
-                }
-        );
+        if (!lock.canReadCollections()) {
+            var currentSnapshot = getSnapshot();
+            return buildTopOfBook(Optional.ofNullable(currentSnapshot.bestBidOrder()), Optional.ofNullable(currentSnapshot.bestAskOrder()));
+        }
+        return lock.read(() -> buildTopOfBook(activeOrders.getBestBidOrder(), activeOrders.getBestAskOrder()));
     }
 
-    @Override
-    public MarketByLevel getMarketByLevel(int nrOfLevels) {
-        return lock.executeWithReadLock(() -> {
-                    List<MarketByLevel.LevelData> levelData = new ArrayList<>();
-                    for (int level = 1; level < nrOfLevels + 1; level++) {
-                        if (!activeOrders.doOrdersExistAtLevel(level)) {
-                            break;
-                        }
-
-                        var builder = ImmutableLevelData.builder().level(level);
+    private TopOfBook buildTopOfBook(Optional<Order> bestBidOrder, Optional<Order> bestAskOrder) {
+        var builder = ImmutableTopOfBook.builder()
+                .orderbookId(getOrderbookId())
+                .timeOfEvent(Timestamp.now())
+                .eventType(SYSTEM);
 
-                        if (activeOrders.doesBidLevelExist(level)) {
-                            activeOrders.getBidPriceAtPriceLevel(level).ifPresent(builder::bidPrice);
-                            builder.bidVolume(activeOrders.totalBidVolumeAtPriceLevel(level));
-                            builder.nrOfBidOrders(activeOrders.totalNrOfBidOrdersAtPriceLevel(level));
-                        }
+        Optional.ofNullable(latestPrice.get()).ifPresent(builder::lastQuote);
+        bestAskOrder
+                .map(ao -> ImmutablePriceQuote.builder().orderbookId(getOrderbookId()).price(ao.price()).eventType(ao.eventType()).timeOfEvent(ao.timeOfEvent()).quoteType(ASK_PRICE).build())
+                .ifPresent(builder::askQuote);
+        bestBidOrder
+                .map(bo -> ImmutablePriceQuote.builder().orderbookId(getOrderbookId()).price(bo.price()).eventType(bo.eventType()).timeOfEvent(bo.timeOfEvent()).quoteType(BID_PRICE).build())
+                .ifPresent(builder::bidQuote);
 
-                        if (activeOrders.doesAskLevelExist(level)) {
-                            activeOrders.getAskPriceAtPriceLevel(level).ifPresent(builder::askPrice);
-                            builder.askVolume(activeOrders.totalAskVolumeAtPriceLevel(level));
-                            builder.nrOfAskOrders(activeOrders.totalNrOfAskOrdersAtPriceLevel(level));
-                        }
+        return builder.build();
+    }
 
-                        levelData.add(builder.build());
+    @Override
+    public void setPriceLevelUpdateListener(PriceLevelUpdateListener priceLevelUpdateListener) {
+        activeOrders.setPriceLevelUpdateListener(priceLevelUpdateListener);
+    }
 
-                    }
+    @Override
+    public MarketByLevel getMarketByLevel(int nrOfLevels) {
+        if (!lock.canReadCollections()) {
+            var currentSnapshot = getSnapshot();
+            return buildMarketByLevel(currentSnapshot.bidLevels().iterator(), currentSnapshot.askLevels().iterator(), nrOfLevels);
+        }
+        return lock.read(() -> buildMarketByLevel(
+                toLevels(activeOrders.getBidPriceLevels()),
+                toLevels(activeOrders.getAskPriceLevels()),
+                nrOfLevels
+        ));
+    }
+
+    private MarketByLevel buildMarketByLevel(Iterator<OrderbookSnapshot.Level> bidLevels, Iterator<OrderbookSnapshot.Level> askLevels, int nrOfLevels) {
+        List<MarketByLevel.LevelData> levelData = new ArrayList<>(nrOfLevels);
+        for (int level = 1; level < nrOfLevels + 1; level++) {
+            if (!bidLevels.hasNext() && !askLevels.hasNext()) {
+                break;
+            }
+
+            var builder = ImmutableLevelData.builder().level(level);
+
+            if (bidLevels.hasNext()) {
+                var bidLevel = bidLevels.next();
+                builder.bidPrice(bidLevel.price());
+                builder.bidVolume(bidLevel.volume());
+                builder.nrOfBidOrders(bidLevel.nrOfOrders());
+            }
+
+            if (askLevels.hasNext()) {
+                var askLevel = askLevels.next();
+                builder.askPrice(askLevel.price());
+                builder.askVolume(askLevel.volume());
+                builder.nrOfAskOrders(askLevel.nrOfOrders());
+            }
+
+            levelData.add(builder.build());
+        }
+
+        return ImmutableMarketByLevel.builder()
+                .orderbookId(getOrderbookId())
+                .timeOfEvent(Timestamp.now())
+                .levelData(levelData)
+                .eventType(SYSTEM)
+                .build();
+    }
+
+    private static Iterator<OrderbookSnapshot.Level> toLevels(Iterable<PriceLevel> priceLevels) {
+        Iterator<PriceLevel> iterator = priceLevels.iterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public OrderbookSnapshot.Level next() {
+                return toLevel(iterator.next());
+            }
+        };
+    }
+
+    private static OrderbookSnapshot.Level toLevel(PriceLevel priceLevel) {
+        return new OrderbookSnapshot.Level(priceLevel.getPrice(), priceLevel.volumeAtPriceLevel(), priceLevel.nrOfOrdersAtPriceLevel());
+    }
+
+    /**
+     * Served to readers on threads other than the writer, as of the last publication. Asking marks the snapshot as
+     * requested, so that the writer publishes a fresh one at its next {@link #publishSnapshotIfRequested()}.
+     */
+    private OrderbookSnapshot getSnapshot() {
+        if (!isSnapshotRequested) {
+            isSnapshotRequested = true;
+        }
+        return snapshot;
+    }
 
-                    return ImmutableMarketByLevel.builder()
-                            .orderbookId(getOrderbookId())
-                            .timeOfEvent(Timestamp.now())
-                            .levelData(levelData)
-                            .eventType(SYSTEM)
-                            .build();
-                }
+    @Override
+    public void publishSnapshotIfRequested() {
+        if (!isSnapshotRequested || !lock.canReadCollections()) {
+            return;
+        }
+        isSnapshotRequested = false;
+        if (snapshot.version() != version) {
+            snapshot = lock.read(this::createSnapshot);
+        }
+    }
+
+    private OrderbookSnapshot createSnapshot() {
+        List<OrderbookSnapshot.Level> bidLevels = new ArrayList<>(activeOrders.totalNumberOfBidPriceLevels());
+        activeOrders.getBidPriceLevels().forEach(priceLevel -> bidLevels.add(toLevel(priceLevel)));
+        List<OrderbookSnapshot.Level> askLevels = new ArrayList<>(activeOrders.totalNumberOfAskPriceLevels());
+        activeOrders.getAskPriceLevels().forEach(priceLevel -> askLevels.add(toLevel(priceLevel)));
+        return new OrderbookSnapshot(
+                version,
+                Collections.unmodifiableList(bidLevels),
+                Collections.unmodifiableList(askLevels),
+                activeOrders.getBestBidOrder().orElse(null),
+                activeOrders.getBestAskOrder().orElse(null),
+                calculateIndicativeAuctionPrice().orElse(null)
         );
     }
 
+    @Override
+    public void claim() {
+        lock.claim();
+    }
+
     @Override
     public boolean updateState(TradingStatesEnum toState) {
-        return lock.executeWithWriteLock(() -> {
+        return lock.write(() -> {
+                    version++;
                     if (toState == currentState) {
                         return true;
                     }
 
                     if (currentState == null || currentState.isValidStateChange(toState)) {
                         LOGGER.info("Successfully updated orderbook {} from state {} to state {}.", getOrderbookId(), currentState, toState);
+                        updateCallPhase(currentState, toState);
                         currentState = toState;
                         return true;
                     }
@@ -291,34 +419,74 @@ public class OrderbookImpl implements Orderbook {
         );
     }
 
+    private void updateCallPhase(TradingStatesEnum fromState, TradingStatesEnum toState) {
+        boolean wasCallPhase = isCallPhase(fromState);
+        boolean isCallPhase = isCallPhase(toState);
+        if (!wasCallPhase && isCallPhase) {
+            auctionAlgorithm.startCallPhase();
+        } else if (wasCallPhase && !isCallPhase) {
+            auctionAlgorithm.stopCallPhase();
+        }
+    }
+
+    private static boolean isCallPhase(TradingStatesEnum state) {
+        return state == OPEN_AUCTION_TRADING || state == OPEN_AUCTION_RUN || state == CLOSING_AUCTION_TRADING || state == CLOSING_AUCTION_RUN;
+    }
+
+    @Override
+    public Optional<IndicativeAuctionPrice> getIndicativeAuctionPrice() {
+        if (!lock.canReadCollections()) {
+            return Optional.ofNullable(getSnapshot().indicativeAuctionPrice());
+        }
+        return lock.read(this::calculateIndicativeAuctionPrice);
+    }
+
+    private Optional<IndicativeAuctionPrice> calculateIndicativeAuctionPrice() {
+        if (currentState != OPEN_AUCTION_TRADING && currentState != CLOSING_AUCTION_TRADING) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(auctionAlgorithm.calculateOptimalPrice(getReferencePrice()))
+                .map(optimalPrice -> IndicativeAuctionPrice.create(getOrderbookId(), optimalPrice));
+    }
+
+    private Price getReferencePrice() {
+        var referencePrice = latestPrice.get();
+        return referencePrice == null ? null : referencePrice.price();
+    }
+
     @Override
     public TradingStatesEnum getState() {
-        return lock.executeWithReadLock(() -> currentState);
+        return lock.read(() -> currentState);
     }
 
     @Override
     public TradeExecution runMatchingAlgorithm(final Order incomingOrder) {
-        return lock.executeWithWriteLock(() -> {
+        return lock.write(() -> {
+                    version++;
                     if (incomingOrder.currentVolume().leq(0) || currentState != CONTINUOUS_TRADING) {
                         return null;
                     }
-                    final List<OrderbookEvent> events = new ArrayList<>();
-                    List<OrderbookEvent> matchingEvents;
+                    final List<OrderbookEvent> events = eventBuffer;
+                    events.clear();
                     Order updatedMatchingOrder = incomingOrder;
+                    Trade lastTrade = null;
+                    int sweepStart;
                     do {
-                        matchingEvents = matchingAlgorithm.matchOrder(updatedMatchingOrder);
-                        for (var message : matchingEvents) {
-                            events.add(message);
+                        sweepStart = events.size();
+                        updatedMatchingOrder = matchingAlgorithm.sweep(updatedMatchingOrder, events);
+                        for (int i = sweepStart; i < events.size(); i++) {
+                            var message = events.get(i);
                             if (message instanceof Order order) {
-                                updateOrderbook(order);
-                                if (order.orderId().equals(updatedMatchingOrder.orderId())) {
-                                    updatedMatchingOrder = order;
-                                }
+                                activeOrders.applyFill(order);
                             } else if (message instanceof Trade trade) {
-                                latestPrice.set(ImmutablePriceQuote.builder().orderbookId(getOrderbookId()).price(trade.price()).eventType(SYSTEM).timeOfEvent(trade.timeOfEvent()).quoteType(LAST_PRICE).build());
+                                lastTrade = trade;
                             }
                         }
-                    } while (!matchingEvents.isEmpty() && updatedMatchingOrder.orderOperation() != OrderOperationEnum.CANCEL);
+                    } while (events.size() > sweepStart && updatedMatchingOrder.orderOperation() != OrderOperationEnum.CANCEL);
+
+                    if (lastTrade != null) {
+                        latestPrice.set(ImmutablePriceQuote.builder().orderbookId(getOrderbookId()).price(lastTrade.price()).eventType(SYSTEM).timeOfEvent(lastTrade.timeOfEvent()).quoteType(LAST_PRICE).build());
+                    }
 
                     return ImmutableTradeExecution.builder()
                             .timeOfEvent(Timestamp.now())
@@ -332,30 +500,31 @@ public class OrderbookImpl implements Orderbook {
 
     @Override
     public TradeExecution runAuctionAlgorithm() {
-        return lock.executeWithWriteLock(() -> {
+        return lock.write(() -> {
+                    version++;
                     if (currentState != OPEN_AUCTION_RUN && currentState != CLOSING_AUCTION_RUN) {
                         LOGGER.error("Attempted auction run triggered in {} event to current state {}. Required state is {}/{} ", getOrderbookId(), currentState, OPEN_AUCTION_RUN, CLOSING_AUCTION_RUN);
                         return null;
                     }
 
-                    var equilibriumPrice = auctionAlgorithm.calculateEquilibriumPrice();
-                    if (equilibriumPrice == null) {
+                    var optimalPrice = auctionAlgorithm.calculateOptimalPrice(getReferencePrice());
+                    if (optimalPrice == null) {
                         return null;
                     }
 
-                    latestPrice.set(ImmutablePriceQuote.builder().orderbookId(getOrderbookId()).price(equilibriumPrice.optimalPrice().equilibriumPrice()).eventType(SYSTEM).timeOfEvent(equilibriumPrice.timeOfEvent()).quoteType(LAST_PRICE).build());
+                    Price equilibriumPrice = optimalPrice.equilibriumPrice();
+                    latestPrice.set(ImmutablePriceQuote.builder().orderbookId(getOrderbookId()).price(equilibriumPrice).eventType(SYSTEM).timeOfEvent(Timestamp.now()).quoteType(LAST_PRICE).build());
+
+                    // The indicative curves are not needed past this point, fills are applied without maintaining them.
+                    auctionAlgorithm.stopCallPhase();
 
                     final List<OrderbookEvent> events = new ArrayList<>();
-                    List<OrderbookEvent> matchingEvents;
-                    do {
-                        matchingEvents = matchingAlgorithm.matchAtPrice(equilibriumPrice.optimalPrice().equilibriumPrice());
-                        for (var message : matchingEvents) {
-                            events.add(message);
-                            if (message instanceof Order order) {
-                                updateOrderbook(order);
-                            }
+                    matchingAlgorithm.uncross(equilibriumPrice, optimalPrice.matchedVolume(), events);
+                    for (var message : events) {
+                        if (message instanceof Order order) {
+                            activeOrders.applyFill(order);
                         }
-                    } while (!matchingEvents.isEmpty());
+                    }
 
                     return ImmutableTradeExecution.builder()
                             .timeOfEvent(Timestamp.now())
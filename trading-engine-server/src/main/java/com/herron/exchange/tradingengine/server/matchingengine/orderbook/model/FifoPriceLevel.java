@@ -0,0 +1,99 @@
+package com.herron.exchange.tradingengine.server.matchingengine.orderbook.model;
+
+import com.herron.exchange.common.api.common.api.trading.Order;
+import com.herron.exchange.common.api.common.messages.common.Price;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Orders are kept in arrival order in an intrusive doubly-linked list, so appending and removing a known node
+ * is O(1) and never compares orders.
+ */
+public class FifoPriceLevel extends PriceLevel {
+    private OrderNode head;
+    private OrderNode tail;
+    private int size = 0;
+
+    public FifoPriceLevel(Price price) {
+        super(price);
+    }
+
+    @Override
+    public Order first() {
+        if (head == null) {
+            throw new NoSuchElementException();
+        }
+        return head.getOrder();
+    }
+
+    OrderNode firstNode() {
+        return head;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    protected boolean addNode(OrderNode node) {
+        node.previous = tail;
+        node.next = null;
+        if (tail == null) {
+            head = node;
+        } else {
+            tail.next = node;
+        }
+        tail = node;
+        size++;
+        return true;
+    }
+
+    @Override
+    protected boolean removeNode(OrderNode node) {
+        if (node.previous == null) {
+            head = node.next;
+        } else {
+            node.previous.next = node.next;
+        }
+
+        if (node.next == null) {
+            tail = node.previous;
+        } else {
+            node.next.previous = node.previous;
+        }
+
+        node.previous = null;
+        node.next = null;
+        size--;
+        return true;
+    }
+
+    @Override
+    protected void replaceNode(OrderNode node, Order order) {
+        node.setOrder(order);
+    }
+
+    @Override
+    public Iterator<Order> iterator() {
+        return new Iterator<>() {
+            private OrderNode current = head;
+
+            @Override
+            public boolean hasNext() {
+                return current != null;
+            }
+
+            @Override
+            public Order next() {
+                if (current == null) {
+                    throw new NoSuchElementException();
+                }
+                Order order = current.getOrder();
+                current = current.next;
+                return order;
+            }
+        };
+    }
+}
@@ -0,0 +1,37 @@
+package com.herron.exchange.tradingengine.server.matchingengine.orderbook.model;
+
+import com.herron.exchange.common.api.common.api.trading.Order;
+
+public class OrderNode {
+    private Order order;
+    private PriceLevel priceLevel;
+    OrderNode previous;
+    OrderNode next;
+
+    public OrderNode(Order order) {
+        this.order = order;
+    }
+
+    public void reset(Order order) {
+        this.order = order;
+        this.priceLevel = null;
+        this.previous = null;
+        this.next = null;
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    void setOrder(Order order) {
+        this.order = order;
+    }
+
+    public PriceLevel getPriceLevel() {
+        return priceLevel;
+    }
+
+    void setPriceLevel(PriceLevel priceLevel) {
+        this.priceLevel = priceLevel;
+    }
+}
@@ -0,0 +1,36 @@
+package com.herron.exchange.tradingengine.server.matchingengine.orderbook.model;
+
+import com.herron.exchange.common.api.common.api.trading.Order;
+import com.herron.exchange.common.api.common.messages.common.Price;
+import com.herron.exchange.common.api.common.messages.common.Volume;
+import com.herron.exchange.tradingengine.server.matchingengine.auctionalgorithms.model.IndicativeAuctionPrice;
+
+import java.util.List;
+
+/**
+ * Immutable copy of the price levels and best orders of an orderbook as of its {@code version}, published by the
+ * thread updating the orderbook for readers on other threads. Levels are best first.
+ */
+public record OrderbookSnapshot(long version,
+                                List<Level> bidLevels,
+                                List<Level> askLevels,
+                                Order bestBidOrder,
+                                Order bestAskOrder,
+                                IndicativeAuctionPrice indicativeAuctionPrice) {
+    public static final OrderbookSnapshot EMPTY = new OrderbookSnapshot(-1, List.of(), List.of(), null, null, null);
+
+    public Level getBidLevel(int priceLevel) {
+        return getLevel(bidLevels, priceLevel);
+    }
+
+    public Level getAskLevel(int priceLevel) {
+        return getLevel(askLevels, priceLevel);
+    }
+
+    private static Level getLevel(List<Level> levels, int priceLevel) {
+        return priceLevel < 1 || priceLevel > levels.size() ? null : levels.get(priceLevel - 1);
+    }
+
+    public record Level(Price price, Volume volume, long nrOfOrders) {
+    }
+}
@@ -5,31 +5,41 @@ import com.herron.exchange.common.api.common.api.trading.Order;
 import com.herron.exchange.common.api.common.messages.common.Price;
 import com.herron.exchange.common.api.common.messages.common.Volume;
 
-import java.util.Comparator;
-import java.util.TreeSet;
-
-public class PriceLevel extends TreeSet<Order> {
+public abstract class PriceLevel implements Iterable<Order> {
 
     private final Price price;
-    private Volume volume = Volume.create(0);
+    private double volume = 0;
 
-    public PriceLevel(Price price, Comparator<? super Order> comparator) {
-        super(comparator);
+    protected PriceLevel(Price price) {
         this.price = price;
     }
 
-    @Override
-    public boolean add(Order order) {
-        volume = volume.add(order.currentVolume());
-        return super.add(order);
+    public boolean add(OrderNode node) {
+        if (node.getPriceLevel() != null || !addNode(node)) {
+            return false;
+        }
+        node.setPriceLevel(this);
+        volume += node.getOrder().currentVolume().getRealValue();
+        return true;
+    }
+
+    public boolean remove(OrderNode node) {
+        if (node.getPriceLevel() != this || !removeNode(node)) {
+            return false;
+        }
+        node.setPriceLevel(null);
+        volume = isEmpty() ? 0 : volume - node.getOrder().currentVolume().getRealValue();
+        return true;
     }
 
-    public boolean remove(Order order) {
-        if (super.remove(order)) {
-            volume = volume.subtract(order.currentVolume());
-            return true;
+    public boolean replace(OrderNode node, Order order) {
+        if (node.getPriceLevel() != this) {
+            return false;
         }
-        return false;
+        double previousVolume = node.getOrder().currentVolume().getRealValue();
+        replaceNode(node, order);
+        volume += order.currentVolume().getRealValue() - previousVolume;
+        return true;
     }
 
     public Price getPrice() {
@@ -41,7 +51,21 @@ public class PriceLevel extends TreeSet<Order> {
     }
 
     public Volume volumeAtPriceLevel() {
-        return volume;
+        return Volume.create(volume);
+    }
+
+    public abstract Order first();
+
+    public abstract int size();
+
+    public boolean isEmpty() {
+        return size() == 0;
     }
 
+    protected abstract boolean addNode(OrderNode node);
+
+    protected abstract boolean removeNode(OrderNode node);
+
+    protected abstract void replaceNode(OrderNode node, Order order);
+
 }
@@ -0,0 +1,69 @@
+package com.herron.exchange.tradingengine.server.matchingengine.orderbook.model;
+
+import com.herron.exchange.common.api.common.api.trading.Order;
+import com.herron.exchange.common.api.common.messages.common.Price;
+import com.herron.exchange.tradingengine.server.matchingengine.comparator.ProRataOrderBookComparator;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Orders are kept in arrival order, so a volume change never re-sorts the level. The order with the highest pro-rata
+ * priority is tracked lazily for {@link #first()}, the matching algorithm orders the level itself when allocating.
+ */
+public class ProRataPriceLevel extends FifoPriceLevel {
+    private static final ProRataOrderBookComparator COMPARATOR = new ProRataOrderBookComparator();
+    private OrderNode firstNode;
+
+    public ProRataPriceLevel(Price price) {
+        super(price);
+    }
+
+    @Override
+    public Order first() {
+        if (firstNode == null) {
+            firstNode = findFirstNode();
+        }
+        if (firstNode == null) {
+            throw new NoSuchElementException();
+        }
+        return firstNode.getOrder();
+    }
+
+    @Override
+    protected boolean addNode(OrderNode node) {
+        super.addNode(node);
+        if (firstNode != null && COMPARATOR.compare(node.getOrder(), firstNode.getOrder()) < 0) {
+            firstNode = node;
+        }
+        return true;
+    }
+
+    @Override
+    protected boolean removeNode(OrderNode node) {
+        super.removeNode(node);
+        if (node == firstNode) {
+            firstNode = null;
+        }
+        return true;
+    }
+
+    @Override
+    protected void replaceNode(OrderNode node, Order order) {
+        super.replaceNode(node, order);
+        if (node == firstNode) {
+            firstNode = null;
+        } else if (firstNode != null && COMPARATOR.compare(order, firstNode.getOrder()) < 0) {
+            firstNode = node;
+        }
+    }
+
+    private OrderNode findFirstNode() {
+        OrderNode first = null;
+        for (OrderNode node = firstNode(); node != null; node = node.next) {
+            if (first == null || COMPARATOR.compare(node.getOrder(), first.getOrder()) < 0) {
+                first = node;
+            }
+        }
+        return first;
+    }
+}
@@ -0,0 +1,60 @@
+package com.herron.exchange.tradingengine.server.matchingengine.orderbook.model;
+
+import com.herron.exchange.common.api.common.api.trading.Order;
+import com.herron.exchange.common.api.common.messages.common.Price;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.TreeSet;
+
+public class SortedPriceLevel extends PriceLevel {
+    private final TreeSet<OrderNode> nodes;
+
+    public SortedPriceLevel(Price price, Comparator<? super Order> comparator) {
+        super(price);
+        this.nodes = new TreeSet<>((node, otherNode) -> comparator.compare(node.getOrder(), otherNode.getOrder()));
+    }
+
+    @Override
+    public Order first() {
+        return nodes.first().getOrder();
+    }
+
+    @Override
+    public int size() {
+        return nodes.size();
+    }
+
+    @Override
+    protected boolean addNode(OrderNode node) {
+        return nodes.add(node);
+    }
+
+    @Override
+    protected boolean removeNode(OrderNode node) {
+        return nodes.remove(node);
+    }
+
+    @Override
+    protected void replaceNode(OrderNode node, Order order) {
+        nodes.remove(node);
+        node.setOrder(order);
+        nodes.add(node);
+    }
+
+    @Override
+    public Iterator<Order> iterator() {
+        Iterator<OrderNode> nodeIterator = nodes.iterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return nodeIterator.hasNext();
+            }
+
+            @Override
+            public Order next() {
+                return nodeIterator.next().getOrder();
+            }
+        };
+    }
+}
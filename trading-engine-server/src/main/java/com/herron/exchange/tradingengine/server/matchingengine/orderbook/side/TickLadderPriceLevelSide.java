@@ -0,0 +1,286 @@
+package com.herron.exchange.tradingengine.server.matchingengine.orderbook.side;
+
+import com.herron.exchange.common.api.common.enums.OrderSideEnum;
+import com.herron.exchange.common.api.common.messages.common.Price;
+import com.herron.exchange.tradingengine.server.matchingengine.api.PriceLevelSide;
+import com.herron.exchange.tradingengine.server.matchingengine.orderbook.model.PriceLevel;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * Price levels stored in an array indexed by tick offset from {@code baseTick}. The ladder is centred on the best
+ * price when it is created and re-centred (and grown if needed) when a price falls outside of it. Occupied slots are
+ * counted in a Fenwick tree so that the n-th best level can be found in O(log capacity).
+ * <p>
+ * Only prices on the tick grid are held, and only as long as the ladder they need stays within {@code maxCapacity}
+ * slots, other prices are not valid for this side.
+ */
+public class TickLadderPriceLevelSide implements PriceLevelSide {
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final int DEFAULT_MAX_CAPACITY = 1 << 20;
+    private static final double OFF_TICK_TOLERANCE = 1e-6;
+    private final OrderSideEnum orderSide;
+    private final double tickSize;
+    private final int maxCapacity;
+    private PriceLevel[] ladder;
+    private int[] occupiedSlots;
+    private long baseTick;
+    private int bestIndex = -1;
+    private int nrOfPriceLevels = 0;
+
+    public TickLadderPriceLevelSide(OrderSideEnum orderSide, double tickSize) {
+        this(orderSide, tickSize, DEFAULT_CAPACITY);
+    }
+
+    public TickLadderPriceLevelSide(OrderSideEnum orderSide, double tickSize, int initialCapacity) {
+        this(orderSide, tickSize, initialCapacity, Math.max(initialCapacity, DEFAULT_MAX_CAPACITY));
+    }
+
+    public TickLadderPriceLevelSide(OrderSideEnum orderSide, double tickSize, int initialCapacity, int maxCapacity) {
+        if (tickSize <= 0) {
+            throw new IllegalArgumentException(String.format("Tick size has to be positive: %s", tickSize));
+        }
+        if (initialCapacity < 2 || maxCapacity < initialCapacity) {
+            throw new IllegalArgumentException(String.format("Ladder capacity has to be at least two and at most %s: %s", maxCapacity, initialCapacity));
+        }
+        this.orderSide = orderSide;
+        this.tickSize = tickSize;
+        this.maxCapacity = maxCapacity;
+        this.ladder = new PriceLevel[initialCapacity];
+        this.occupiedSlots = new int[initialCapacity + 1];
+    }
+
+    public long toTick(Price price) {
+        return Math.round(price.getValue() / tickSize);
+    }
+
+    public boolean isOnTick(Price price) {
+        double ticks = price.getValue() / tickSize;
+        return Math.abs(ticks - Math.rint(ticks)) <= OFF_TICK_TOLERANCE;
+    }
+
+    /**
+     * False for prices off the tick grid and for prices so far from the levels held that the ladder would have to grow
+     * beyond {@code maxCapacity}.
+     */
+    @Override
+    public boolean isValidPrice(Price price) {
+        if (!isOnTick(price)) {
+            return false;
+        }
+        long tick = toTick(price);
+        if (nrOfPriceLevels == 0 || indexOf(tick) >= 0) {
+            return true;
+        }
+        long bestTick = baseTick + bestIndex;
+        long lowestTick = Math.min(tick, baseTick + findOccupiedSlot(1));
+        long highestTick = Math.max(tick, baseTick + findOccupiedSlot(nrOfPriceLevels));
+        long span = Math.max(highestTick - bestTick, bestTick - lowestTick) + 1;
+        return 2 * span <= maxCapacity;
+    }
+
+    @Override
+    public PriceLevel getPriceLevel(Price price) {
+        if (!isOnTick(price)) {
+            return null;
+        }
+        int index = indexOf(toTick(price));
+        return index < 0 ? null : ladder[index];
+    }
+
+    @Override
+    public PriceLevel getPriceLevel(int level) {
+        if (level < 1 || level > nrOfPriceLevels) {
+            return null;
+        }
+        int rankFromLowest = switch (orderSide) {
+            case BID -> nrOfPriceLevels - level + 1;
+            case ASK -> level;
+        };
+        return ladder[findOccupiedSlot(rankFromLowest)];
+    }
+
+    @Override
+    public void addPriceLevel(PriceLevel priceLevel) {
+        if (!isValidPrice(priceLevel.getPrice())) {
+            throw new IllegalArgumentException(String.format("Price %s is not valid for a ladder with tick size %s.", priceLevel.getPrice(), tickSize));
+        }
+        long tick = toTick(priceLevel.getPrice());
+        if (nrOfPriceLevels == 0) {
+            baseTick = tick - ladder.length / 2;
+        }
+
+        int index = indexOf(tick);
+        if (index < 0) {
+            recentre(tick);
+            index = indexOf(tick);
+        }
+
+        if (ladder[index] == null) {
+            nrOfPriceLevels++;
+            updateOccupiedSlots(index, 1);
+        }
+        ladder[index] = priceLevel;
+
+        if (bestIndex < 0 || isBetter(index, bestIndex)) {
+            bestIndex = index;
+        }
+    }
+
+    @Override
+    public PriceLevel removePriceLevel(Price price) {
+        if (!isOnTick(price)) {
+            return null;
+        }
+        int index = indexOf(toTick(price));
+        if (index < 0 || ladder[index] == null) {
+            return null;
+        }
+
+        PriceLevel priceLevel = ladder[index];
+        ladder[index] = null;
+        nrOfPriceLevels--;
+        updateOccupiedSlots(index, -1);
+        if (index == bestIndex) {
+            bestIndex = nextIndex(index);
+        }
+        return priceLevel;
+    }
+
+    @Override
+    public Optional<PriceLevel> getBestPriceLevel() {
+        return bestIndex < 0 ? Optional.empty() : Optional.of(ladder[bestIndex]);
+    }
+
+    @Override
+    public int nrOfPriceLevels() {
+        return nrOfPriceLevels;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return nrOfPriceLevels == 0;
+    }
+
+    @Override
+    public Iterator<PriceLevel> iterator() {
+        return new Iterator<>() {
+            private int index = bestIndex;
+
+            @Override
+            public boolean hasNext() {
+                return index >= 0;
+            }
+
+            @Override
+            public PriceLevel next() {
+                if (index < 0) {
+                    throw new NoSuchElementException();
+                }
+                PriceLevel priceLevel = ladder[index];
+                index = nextIndex(index);
+                return priceLevel;
+            }
+        };
+    }
+
+    private int indexOf(long tick) {
+        long index = tick - baseTick;
+        return index >= 0 && index < ladder.length ? (int) index : -1;
+    }
+
+    private void updateOccupiedSlots(int index, int change) {
+        for (int i = index + 1; i < occupiedSlots.length; i += i & -i) {
+            occupiedSlots[i] += change;
+        }
+    }
+
+    private int findOccupiedSlot(int rankFromLowest) {
+        int position = 0;
+        int remaining = rankFromLowest;
+        for (int step = Integer.highestOneBit(ladder.length); step > 0; step >>= 1) {
+            int next = position + step;
+            if (next < occupiedSlots.length && occupiedSlots[next] < remaining) {
+                position = next;
+                remaining -= occupiedSlots[next];
+            }
+        }
+        return position;
+    }
+
+    private static int[] buildOccupiedSlots(PriceLevel[] ladder) {
+        int[] occupiedSlots = new int[ladder.length + 1];
+        for (int i = 1; i < occupiedSlots.length; i++) {
+            if (ladder[i - 1] != null) {
+                occupiedSlots[i]++;
+            }
+            int parent = i + (i & -i);
+            if (parent < occupiedSlots.length) {
+                occupiedSlots[parent] += occupiedSlots[i];
+            }
+        }
+        return occupiedSlots;
+    }
+
+    private boolean isBetter(int index, int otherIndex) {
+        return switch (orderSide) {
+            case BID -> index > otherIndex;
+            case ASK -> index < otherIndex;
+        };
+    }
+
+    private int nextIndex(int fromIndex) {
+        switch (orderSide) {
+            case BID -> {
+                for (int index = fromIndex - 1; index >= 0; index--) {
+                    if (ladder[index] != null) {
+                        return index;
+                    }
+                }
+            }
+            case ASK -> {
+                for (int index = fromIndex + 1; index < ladder.length; index++) {
+                    if (ladder[index] != null) {
+                        return index;
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+
+    private void recentre(long tick) {
+        long bestTick = baseTick + bestIndex;
+        long lowestTick = Math.min(tick, bestTick);
+        long highestTick = Math.max(tick, bestTick);
+        for (int index = 0; index < ladder.length; index++) {
+            if (ladder[index] != null) {
+                lowestTick = Math.min(lowestTick, baseTick + index);
+                highestTick = Math.max(highestTick, baseTick + index);
+            }
+        }
+
+        // Every level lies within span of the best tick, so centring a ladder of twice the span on it fits them all.
+        // Prices needing more than maxCapacity are rejected by isValidPrice before they get here.
+        long span = Math.max(highestTick - bestTick, bestTick - lowestTick) + 1;
+        int capacity = ladder.length;
+        while (capacity < 2 * span) {
+            capacity = (int) Math.min((long) capacity << 1, maxCapacity);
+        }
+
+        long newBaseTick = bestTick - capacity / 2;
+        PriceLevel[] newLadder = new PriceLevel[capacity];
+        for (int index = 0; index < ladder.length; index++) {
+            if (ladder[index] != null) {
+                newLadder[(int) (baseTick + index - newBaseTick)] = ladder[index];
+            }
+        }
+
+        bestIndex = (int) (bestTick - newBaseTick);
+        baseTick = newBaseTick;
+        ladder = newLadder;
+        occupiedSlots = buildOccupiedSlots(newLadder);
+    }
+}
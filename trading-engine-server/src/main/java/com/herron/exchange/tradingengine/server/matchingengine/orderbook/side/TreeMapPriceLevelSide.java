@@ -0,0 +1,97 @@
+package com.herron.exchange.tradingengine.server.matchingengine.orderbook.side;
+
+import com.herron.exchange.common.api.common.enums.OrderSideEnum;
+import com.herron.exchange.common.api.common.messages.common.Price;
+import com.herron.exchange.tradingengine.server.matchingengine.api.PriceLevelSide;
+import com.herron.exchange.tradingengine.server.matchingengine.orderbook.model.PriceLevel;
+
+import java.util.*;
+
+/**
+ * Price levels in a {@link TreeMap} with a rank index on the side. The rank index is sorted worst to best so that
+ * inserts and removals close to the top of the book, which are the common case, only shift a few elements.
+ */
+public class TreeMapPriceLevelSide implements PriceLevelSide {
+    private final Comparator<Price> comparator;
+    private final TreeMap<Price, PriceLevel> priceToPriceLevel;
+    private final List<PriceLevel> worstToBest = new ArrayList<>();
+
+    public TreeMapPriceLevelSide(OrderSideEnum orderSide) {
+        this.comparator = switch (orderSide) {
+            case BID -> Comparator.comparing(Price::getValue).reversed();
+            case ASK -> Comparator.comparing(Price::getValue);
+        };
+        this.priceToPriceLevel = new TreeMap<>(comparator);
+    }
+
+    @Override
+    public PriceLevel getPriceLevel(Price price) {
+        return priceToPriceLevel.get(price);
+    }
+
+    @Override
+    public PriceLevel getPriceLevel(int level) {
+        if (level < 1 || level > worstToBest.size()) {
+            return null;
+        }
+        return worstToBest.get(worstToBest.size() - level);
+    }
+
+    @Override
+    public void addPriceLevel(PriceLevel priceLevel) {
+        PriceLevel previous = priceToPriceLevel.put(priceLevel.getPrice(), priceLevel);
+        int index = rankIndexOf(priceLevel.getPrice());
+        if (previous != null) {
+            worstToBest.set(index, priceLevel);
+        } else {
+            worstToBest.add(-(index + 1), priceLevel);
+        }
+    }
+
+    @Override
+    public PriceLevel removePriceLevel(Price price) {
+        PriceLevel priceLevel = priceToPriceLevel.remove(price);
+        if (priceLevel != null) {
+            worstToBest.remove(rankIndexOf(price));
+        }
+        return priceLevel;
+    }
+
+    private int rankIndexOf(Price price) {
+        int low = 0;
+        int high = worstToBest.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = comparator.compare(price, worstToBest.get(mid).getPrice());
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    @Override
+    public Optional<PriceLevel> getBestPriceLevel() {
+        var entry = priceToPriceLevel.firstEntry();
+        return entry == null ? Optional.empty() : Optional.of(entry.getValue());
+    }
+
+    @Override
+    public int nrOfPriceLevels() {
+        return priceToPriceLevel.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return priceToPriceLevel.isEmpty();
+    }
+
+    @Override
+    public Iterator<PriceLevel> iterator() {
+        return priceToPriceLevel.values().iterator();
+    }
+}
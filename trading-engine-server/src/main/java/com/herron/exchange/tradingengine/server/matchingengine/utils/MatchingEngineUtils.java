@@ -27,6 +27,10 @@ import static com.herron.exchange.common.api.common.enums.TradeType.AUTOMATCH;
 public class MatchingEngineUtils {
     private static final AtomicLong CURRENT_TRADE_ID = new AtomicLong(1);
 
+    public static String nextTradeId() {
+        return String.valueOf(CURRENT_TRADE_ID.getAndIncrement());
+    }
+
     public static Trade buildTrade(Order bidOrder,
                                    Order askOrder,
                                    Volume tradeVolume) {
@@ -56,7 +60,7 @@ public class MatchingEngineUtils {
         return ImmutableTrade.builder()
                 .bidParticipant(bidOrder.participant())
                 .askParticipant(askOrder.participant())
-                .tradeId(String.valueOf(CURRENT_TRADE_ID.getAndIncrement()))
+                .tradeId(nextTradeId())
                 .bidOrderId(bidOrder.orderId())
                 .askOrderId(askOrder.orderId())
                 .isBidSideAggressor(isBidSideAggressor)
@@ -89,6 +93,23 @@ public class MatchingEngineUtils {
                 .build();
     }
 
+    public static Order buildAmendedOrder(Order restingOrder, Order amendOrder) {
+        Timestamp timeOfEvent = restingOrder.timeOfEvent();
+        if (!amendOrder.timeOfEvent().isBefore(timeOfEvent) && !amendOrder.timeOfEvent().isAfter(timeOfEvent)) {
+            return amendOrder;
+        }
+        if (amendOrder.orderType() == MARKET) {
+            return ImmutableMarketOrder.builder()
+                    .from(amendOrder)
+                    .timeOfEvent(timeOfEvent)
+                    .build();
+        }
+        return ImmutableLimitOrder.builder()
+                .from(amendOrder)
+                .timeOfEvent(timeOfEvent)
+                .build();
+    }
+
     public static Order buildCancelOrder(Order order, OrderOperationCauseEnum orderOperationCauseEnum) {
         if (order.orderType() == MARKET) {
             return ImmutableMarketOrder.builder()
@@ -119,98 +140,92 @@ public class MatchingEngineUtils {
     }
 
     public static List<OrderbookEvent> createMatchingMessages(Order thisOrder, Order thatOrder, Volume tradeVolume) {
-        if (isSelfMatch(thisOrder.participant(), thatOrder.participant())) {
-            return createMatchingMessagesSelfMatched(thisOrder, thatOrder, tradeVolume);
-        }
-
         final List<OrderbookEvent> matchingMessages = new ArrayList<>();
-
-        if (isFilled(thisOrder, tradeVolume)) {
-            matchingMessages.add(buildCancelOrder(thisOrder, FILLED));
-        }
-
-        if (isFilled(thatOrder, tradeVolume)) {
-            matchingMessages.add(buildCancelOrder(thatOrder, FILLED));
-        }
-
-        if (!isFilled(thisOrder, tradeVolume)) {
-            matchingMessages.add(buildUpdateOrder(thisOrder, tradeVolume, PARTIAL_FILL));
-        }
-
-        if (!isFilled(thatOrder, tradeVolume)) {
-            matchingMessages.add(buildUpdateOrder(thatOrder, tradeVolume, PARTIAL_FILL));
-        }
-
-        final Trade trade;
-        if (thisOrder.orderSide() == OrderSideEnum.BID) {
-            trade = buildTrade(thisOrder, thatOrder, tradeVolume);
-        } else {
-            trade = buildTrade(thatOrder, thisOrder, tradeVolume);
-        }
-        matchingMessages.add(trade);
-
+        createMatchingMessages(thisOrder, thatOrder, tradeVolume, matchingMessages);
         return matchingMessages;
     }
 
     public static List<OrderbookEvent> createAuctionMatchingMessages(Order thisOrder, Order thatOrder, Price price, Volume tradeVolume) {
-        if (isSelfMatch(thisOrder.participant(), thatOrder.participant())) {
-            return createMatchingMessagesSelfMatched(thisOrder, thatOrder, tradeVolume);
-        }
+        final List<OrderbookEvent> matchingMessages = new ArrayList<>();
+        createAuctionMatchingMessages(thisOrder, thatOrder, price, tradeVolume, matchingMessages);
+        return matchingMessages;
+    }
 
+    public static List<OrderbookEvent> createMatchingMessagesSelfMatched(Order thisOrder, Order thatOrder, Volume tradeVolume) {
         final List<OrderbookEvent> matchingMessages = new ArrayList<>();
+        createMatchingMessagesSelfMatched(thisOrder, thatOrder, tradeVolume, matchingMessages);
+        return matchingMessages;
+    }
 
-        if (isFilled(thisOrder, tradeVolume)) {
-            matchingMessages.add(buildCancelOrder(thisOrder, FILLED));
-        }
+    /**
+     * Appends the matching messages to {@code matchingMessages} and returns {@code thisOrder} after the match.
+     */
+    public static Order createMatchingMessages(Order thisOrder, Order thatOrder, List<OrderbookEvent> matchingMessages) {
+        final Volume tradeVolume = thisOrder.currentVolume().min(thatOrder.currentVolume());
+        return createMatchingMessages(thisOrder, thatOrder, tradeVolume, matchingMessages);
+    }
 
-        if (isFilled(thatOrder, tradeVolume)) {
-            matchingMessages.add(buildCancelOrder(thatOrder, FILLED));
-        }
+    public static Order createMatchingMessages(Order thisOrder, Order thatOrder, Volume tradeVolume, List<OrderbookEvent> matchingMessages) {
+        return createMatchingMessages(thisOrder, thatOrder, null, tradeVolume, matchingMessages);
+    }
 
-        if (!isFilled(thisOrder, tradeVolume)) {
-            matchingMessages.add(buildUpdateOrder(thisOrder, tradeVolume, PARTIAL_FILL));
-        }
+    public static Order createAuctionMatchingMessages(Order thisOrder, Order thatOrder, Price price, Volume tradeVolume, List<OrderbookEvent> matchingMessages) {
+        return createMatchingMessages(thisOrder, thatOrder, price, tradeVolume, matchingMessages);
+    }
 
-        if (!isFilled(thatOrder, tradeVolume)) {
-            matchingMessages.add(buildUpdateOrder(thatOrder, tradeVolume, PARTIAL_FILL));
+    private static Order createMatchingMessages(Order thisOrder, Order thatOrder, Price price, Volume tradeVolume, List<OrderbookEvent> matchingMessages) {
+        if (isSelfMatch(thisOrder.participant(), thatOrder.participant())) {
+            return createMatchingMessagesSelfMatched(thisOrder, thatOrder, tradeVolume, matchingMessages);
         }
 
+        final boolean isThisOrderFilled = isFilled(thisOrder, tradeVolume);
+        final boolean isThatOrderFilled = isFilled(thatOrder, tradeVolume);
+        final Order updatedThisOrder = isThisOrderFilled ? buildCancelOrder(thisOrder, FILLED) : buildUpdateOrder(thisOrder, tradeVolume, PARTIAL_FILL);
+        final Order updatedThatOrder = isThatOrderFilled ? buildCancelOrder(thatOrder, FILLED) : buildUpdateOrder(thatOrder, tradeVolume, PARTIAL_FILL);
+        addInFillOrder(updatedThisOrder, isThisOrderFilled, updatedThatOrder, isThatOrderFilled, matchingMessages);
+
         final Trade trade;
         if (thisOrder.orderSide() == OrderSideEnum.BID) {
-            trade = buildTrade(thisOrder, thatOrder, price, tradeVolume);
+            trade = price == null ? buildTrade(thisOrder, thatOrder, tradeVolume) : buildTrade(thisOrder, thatOrder, price, tradeVolume);
         } else {
-            trade = buildTrade(thatOrder, thisOrder, price, tradeVolume);
+            trade = price == null ? buildTrade(thatOrder, thisOrder, tradeVolume) : buildTrade(thatOrder, thisOrder, price, tradeVolume);
         }
         matchingMessages.add(trade);
 
-        return matchingMessages;
+        return updatedThisOrder;
     }
 
-    public static List<OrderbookEvent> createMatchingMessagesSelfMatched(Order thisOrder, Order thatOrder, Volume tradeVolume) {
-
-        List<OrderbookEvent> matchingMessages = new ArrayList<>();
+    public static Order createMatchingMessagesSelfMatched(Order thisOrder, Order thatOrder, Volume tradeVolume, List<OrderbookEvent> matchingMessages) {
+        final boolean isThisOrderFilled = isFilled(thisOrder, tradeVolume);
+        final boolean isThatOrderFilled = isFilled(thatOrder, tradeVolume);
+        final Order updatedThisOrder = isThisOrderFilled ? buildCancelOrder(thisOrder, SELF_MATCH) : buildUpdateOrder(thisOrder, tradeVolume, SELF_MATCH);
+        final Order updatedThatOrder = isThatOrderFilled ? buildCancelOrder(thatOrder, SELF_MATCH) : buildUpdateOrder(thatOrder, tradeVolume, SELF_MATCH);
+        addInFillOrder(updatedThisOrder, isThisOrderFilled, updatedThatOrder, isThatOrderFilled, matchingMessages);
+        return updatedThisOrder;
+    }
 
-        if (isFilled(thisOrder, tradeVolume)) {
-            matchingMessages.add(buildCancelOrder(thisOrder, SELF_MATCH));
+    private static void addInFillOrder(Order thisOrder,
+                                       boolean isThisOrderFilled,
+                                       Order thatOrder,
+                                       boolean isThatOrderFilled,
+                                       List<OrderbookEvent> matchingMessages) {
+        // Cancels for filled orders are published before updates for partially filled ones.
+        if (isThisOrderFilled) {
+            matchingMessages.add(thisOrder);
         }
-
-        if (isFilled(thatOrder, tradeVolume)) {
-            matchingMessages.add(buildCancelOrder(thatOrder, SELF_MATCH));
+        if (isThatOrderFilled) {
+            matchingMessages.add(thatOrder);
         }
-
-        if (!isFilled(thisOrder, tradeVolume)) {
-            matchingMessages.add(buildUpdateOrder(thisOrder, tradeVolume, SELF_MATCH));
+        if (!isThisOrderFilled) {
+            matchingMessages.add(thisOrder);
         }
-
-        if (!isFilled(thatOrder, tradeVolume)) {
-            matchingMessages.add(buildUpdateOrder(thatOrder, tradeVolume, SELF_MATCH));
+        if (!isThatOrderFilled) {
+            matchingMessages.add(thatOrder);
         }
-
-        return matchingMessages;
     }
 
     private static boolean isFilled(Order order, Volume tradeVolume) {
-        return order.currentVolume().subtract(tradeVolume).leq(0);
+        return order.currentVolume().getRealValue() - tradeVolume.getRealValue() <= 0;
     }
 
     private static boolean isSelfMatch(Participant bidParticipant, Participant askParticipant) {
@@ -0,0 +1,49 @@
+package com.herron.exchange.tradingengine.server.sharding;
+
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Routes by an explicit assignment of orderbook ids, or of the product names the orderbooks belong to, to shards.
+ * Orderbooks that are not assigned are hashed.
+ */
+public class ExplicitShardRouter implements ShardRouter {
+    private final Map<String, Integer> orderbookIdToShard;
+    private final Map<String, Integer> productNameToShard;
+    private final Function<String, String> orderbookIdToProductName;
+    private final HashShardRouter fallbackRouter;
+
+    public ExplicitShardRouter(int nrOfShards,
+                               Map<String, Integer> orderbookIdToShard,
+                               Map<String, Integer> productNameToShard,
+                               Function<String, String> orderbookIdToProductName) {
+        this.fallbackRouter = new HashShardRouter(nrOfShards);
+        this.orderbookIdToShard = Map.copyOf(orderbookIdToShard);
+        this.productNameToShard = Map.copyOf(productNameToShard);
+        this.orderbookIdToProductName = orderbookIdToProductName;
+        validate(this.orderbookIdToShard, nrOfShards);
+        validate(this.productNameToShard, nrOfShards);
+    }
+
+    @Override
+    public int getShard(String orderbookId) {
+        Integer shard = orderbookIdToShard.get(orderbookId);
+        if (shard == null && !productNameToShard.isEmpty()) {
+            shard = productNameToShard.get(orderbookIdToProductName.apply(orderbookId));
+        }
+        return shard != null ? shard : fallbackRouter.getShard(orderbookId);
+    }
+
+    @Override
+    public int nrOfShards() {
+        return fallbackRouter.nrOfShards();
+    }
+
+    private static void validate(Map<String, Integer> assignments, int nrOfShards) {
+        assignments.forEach((key, shard) -> {
+            if (shard < 0 || shard >= nrOfShards) {
+                throw new IllegalArgumentException(String.format("%s is assigned to shard %s, there are %s shards.", key, shard, nrOfShards));
+            }
+        });
+    }
+}
@@ -0,0 +1,23 @@
+package com.herron.exchange.tradingengine.server.sharding;
+
+public class HashShardRouter implements ShardRouter {
+    private final int nrOfShards;
+
+    public HashShardRouter(int nrOfShards) {
+        if (nrOfShards < 1) {
+            throw new IllegalArgumentException(String.format("Number of shards has to be positive: %s", nrOfShards));
+        }
+        this.nrOfShards = nrOfShards;
+    }
+
+    @Override
+    public int getShard(String orderbookId) {
+        int hash = orderbookId.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), nrOfShards);
+    }
+
+    @Override
+    public int nrOfShards() {
+        return nrOfShards;
+    }
+}
@@ -0,0 +1,4 @@
+package com.herron.exchange.tradingengine.server.sharding;
+
+public record OrderbookLoad(String orderbookId, int shard, long nrOfEvents) {
+}
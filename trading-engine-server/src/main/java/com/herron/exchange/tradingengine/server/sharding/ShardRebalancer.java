@@ -0,0 +1,87 @@
+package com.herron.exchange.tradingengine.server.sharding;
+
+import com.herron.exchange.common.api.common.wrappers.ThreadWrapper;
+import com.herron.exchange.tradingengine.server.TradingEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+
+/**
+ * Periodically moves the busiest orderbook off the shard with the deepest queue onto the shard with the shallowest
+ * one. A shard is only relieved if its queue is at least {@code queueDepthThreshold} deep and more than twice as deep
+ * as the target, and only if it has more than one active orderbook, at most one orderbook is moved per run.
+ */
+public class ShardRebalancer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShardRebalancer.class);
+    private final TradingEngine tradingEngine;
+    private final int queueDepthThreshold;
+    private final long intervalMillis;
+    private final ScheduledExecutorService rebalanceThread = newSingleThreadScheduledExecutor(new ThreadWrapper("shard-rebalancer"));
+
+    public ShardRebalancer(TradingEngine tradingEngine, int queueDepthThreshold, long intervalMillis) {
+        this.tradingEngine = tradingEngine;
+        this.queueDepthThreshold = queueDepthThreshold;
+        this.intervalMillis = intervalMillis;
+    }
+
+    public void init() {
+        LOGGER.info("Rebalancing shards every {} ms above a queue depth of {}.", intervalMillis, queueDepthThreshold);
+        rebalanceThread.scheduleWithFixedDelay(this::rebalance, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        rebalanceThread.shutdown();
+    }
+
+    void rebalance() {
+        try {
+            int[] queueSizes = new int[tradingEngine.nrOfShards()];
+            for (int shard = 0; shard < queueSizes.length; shard++) {
+                queueSizes[shard] = tradingEngine.getQueueSize(shard);
+            }
+            selectMigration(queueSizes, tradingEngine.drainOrderbookLoads())
+                    .ifPresent(migration -> tradingEngine.migrateOrderbook(migration.orderbookId(), migration.targetShard()));
+        } catch (Exception e) {
+            LOGGER.warn("Unhandled exception while rebalancing shards.", e);
+        }
+    }
+
+    Optional<ShardMigration> selectMigration(int[] queueSizes, List<OrderbookLoad> orderbookLoads) {
+        int busiestShard = 0;
+        int idlestShard = 0;
+        for (int shard = 1; shard < queueSizes.length; shard++) {
+            if (queueSizes[shard] > queueSizes[busiestShard]) {
+                busiestShard = shard;
+            }
+            if (queueSizes[shard] < queueSizes[idlestShard]) {
+                idlestShard = shard;
+            }
+        }
+        if (queueSizes[busiestShard] < queueDepthThreshold || queueSizes[busiestShard] <= 2L * queueSizes[idlestShard]) {
+            return Optional.empty();
+        }
+
+        int sourceShard = busiestShard;
+        int targetShard = idlestShard;
+        List<OrderbookLoad> activeOrderbooks = orderbookLoads.stream()
+                .filter(load -> load.shard() == sourceShard && load.nrOfEvents() > 0)
+                .toList();
+        if (activeOrderbooks.size() < 2) {
+            return Optional.empty();
+        }
+
+        return activeOrderbooks.stream()
+                .max(Comparator.comparingLong(OrderbookLoad::nrOfEvents))
+                .map(load -> new ShardMigration(load.orderbookId(), sourceShard, targetShard));
+    }
+
+    record ShardMigration(String orderbookId, int sourceShard, int targetShard) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.herron.exchange.tradingengine.server.sharding;
+
+/**
+ * Places orderbooks onto a fixed number of matching shards. An orderbook has to be routed to the same shard for as
+ * long as it lives there, all of its events are then handled by one thread in queue order.
+ */
+public interface ShardRouter {
+
+    int getShard(String orderbookId);
+
+    int nrOfShards();
+}
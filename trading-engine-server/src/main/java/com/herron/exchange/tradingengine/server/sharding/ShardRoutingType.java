@@ -0,0 +1,6 @@
+package com.herron.exchange.tradingengine.server.sharding;
+
+public enum ShardRoutingType {
+    HASH,
+    EXPLICIT
+}
@@ -0,0 +1,132 @@
+package com.herron.exchange.tradingengine.server;
+
+import com.herron.exchange.common.api.common.api.Message;
+import com.herron.exchange.common.api.common.api.trading.Order;
+import com.herron.exchange.common.api.common.cache.ReferenceDataCache;
+import com.herron.exchange.common.api.common.enums.TradingStatesEnum;
+import com.herron.exchange.common.api.common.messages.common.*;
+import com.herron.exchange.common.api.common.messages.refdata.*;
+import com.herron.exchange.common.api.common.messages.trading.ImmutableStateChange;
+import com.herron.exchange.common.api.common.messages.trading.TradingCalendar;
+import com.herron.exchange.tradingengine.server.admission.AdmissionControl;
+import com.herron.exchange.tradingengine.server.matchingengine.MatchingEngine;
+import com.herron.exchange.tradingengine.server.matchingengine.broadcast.BroadcastPublisher;
+import com.herron.exchange.tradingengine.server.matchingengine.concurrency.BlockingWaitStrategy;
+import com.herron.exchange.tradingengine.server.sharding.HashShardRouter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static com.herron.exchange.common.api.common.enums.AuctionAlgorithmEnum.DUTCH;
+import static com.herron.exchange.common.api.common.enums.EventType.SYSTEM;
+import static com.herron.exchange.common.api.common.enums.MatchingAlgorithmEnum.FIFO;
+import static com.herron.exchange.common.api.common.enums.OrderSideEnum.BID;
+import static com.herron.exchange.common.api.common.enums.TradingStatesEnum.CONTINUOUS_TRADING;
+import static com.herron.exchange.common.api.common.enums.TradingStatesEnum.PRE_TRADE;
+import static com.herron.exchange.tradingengine.server.matchingengine.utils.MessageCreatorTestUtils.buildOrderAdd;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TradingEngineTest {
+    private static final String ORDERBOOK_ID = "orderbookId";
+    private final List<Order> auditedOrders = new CopyOnWriteArrayList<>();
+    private final List<MatchingEngine> matchingEngines = new CopyOnWriteArrayList<>();
+    private TradingEngine tradingEngine;
+
+    @BeforeEach
+    void init() {
+        var market = ImmutableMarket.builder().marketId("market").businessCalendar(BusinessCalendar.defaultWeekendCalendar()).build();
+        var product = ImmutableProduct.builder().currency("eur").productId("product").market(market).build();
+        var instrument = ImmutableDefaultEquityInstrument.builder()
+                .instrumentId("instrumendId")
+                .firstTradingDate(Timestamp.from(LocalDate.MIN))
+                .lastTradingDate(Timestamp.from(LocalDate.MAX))
+                .product(product)
+                .priceModelParameters(ImmutableIntangiblePriceModelParameters.builder().build())
+                .build();
+        ReferenceDataCache.getCache().addMarket(market);
+        ReferenceDataCache.getCache().addProduct(product);
+        ReferenceDataCache.getCache().addInstrument(instrument);
+        ReferenceDataCache.getCache().addOrderbookData(ImmutableDefaultOrderbookData.builder()
+                .orderbookId(ORDERBOOK_ID)
+                .matchingAlgorithm(FIFO)
+                .tradingCurrency("eur")
+                .minTradeVolume(0)
+                .auctionAlgorithm(DUTCH)
+                .tradingCalendar(TradingCalendar.twentyFourSevenTradingCalendar())
+                .instrument(instrument)
+                .build());
+
+        tradingEngine = new TradingEngine(shard -> {
+            var matchingEngine = new MatchingEngine(TradingEngine.getShardName(shard), new AuditingPublisher(shard), price -> {
+            }, null, 1024, new BlockingWaitStrategy());
+            matchingEngines.add(matchingEngine);
+            return matchingEngine;
+        }, new HashShardRouter(2), AdmissionControl.disabled());
+        tradingEngine.queueStateChange(buildStateChange(PRE_TRADE));
+        tradingEngine.queueStateChange(buildStateChange(CONTINUOUS_TRADING));
+    }
+
+    @AfterEach
+    void tearDown() {
+        matchingEngines.forEach(MatchingEngine::stop);
+    }
+
+    @Test
+    void test_orders_queued_during_migrations_are_matched_once_and_in_queue_order() throws InterruptedException {
+        int nrOfOrders = 20_000;
+        var producer = new Thread(() -> {
+            for (int i = 0; i < nrOfOrders; i++) {
+                tradingEngine.queueOrder(buildOrderAdd(i, 100, 1, BID, String.valueOf(i)));
+            }
+        });
+        producer.start();
+        int nrOfMigrations = 0;
+        while (producer.isAlive()) {
+            if (tradingEngine.migrateOrderbook(ORDERBOOK_ID, 1 - tradingEngine.getShard(ORDERBOOK_ID))) {
+                nrOfMigrations++;
+            }
+            TimeUnit.MICROSECONDS.sleep(200);
+        }
+        producer.join();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (auditedOrders.size() < nrOfOrders) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for the matching engines.");
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+        assertTrue(nrOfMigrations > 0);
+        assertEquals(IntStream.range(0, nrOfOrders).mapToObj(String::valueOf).toList(), auditedOrders.stream().map(Order::orderId).toList());
+    }
+
+    private static ImmutableStateChange buildStateChange(TradingStatesEnum tradeState) {
+        return ImmutableStateChange.builder()
+                .orderbookId(ORDERBOOK_ID)
+                .tradeState(tradeState)
+                .timeOfEvent(Timestamp.from(0))
+                .eventType(SYSTEM)
+                .build();
+    }
+
+    /**
+     * Records the orders on the audit trail in the order they are sent, on the publisher thread.
+     */
+    private class AuditingPublisher extends BroadcastPublisher {
+
+        AuditingPublisher(int shard) {
+            super(TradingEngine.getShardName(shard) + "-publisher", null, DEFAULT_QUEUE_CAPACITY, DEFAULT_MAX_BATCH_SIZE, 0);
+        }
+
+        @Override
+        public void publish(PartitionKey partitionKey, Message message) {
+            if (message instanceof Order order) {
+                publish(() -> auditedOrders.add(order));
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.herron.exchange.tradingengine.server.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AdmissionControlTest {
+
+    @Test
+    void test_ingress_is_paused_until_every_shard_is_back_at_low_watermark() {
+        var admissionControl = new AdmissionControl(AdmissionMode.PAUSE, 100, 10);
+        List<String> calls = new ArrayList<>();
+        admissionControl.addIngressListener(new IngressListener() {
+            @Override
+            public void pause() {
+                calls.add("pause");
+            }
+
+            @Override
+            public void resume() {
+                calls.add("resume");
+            }
+        });
+
+        admissionControl.onHighWatermark(0);
+        admissionControl.onHighWatermark(1);
+        assertEquals(List.of("pause"), calls);
+
+        admissionControl.onLowWatermark(0);
+        assertEquals(List.of("pause"), calls);
+
+        admissionControl.onLowWatermark(1);
+        assertEquals(List.of("pause", "resume"), calls);
+    }
+
+    @Test
+    void test_reject_mode_does_not_pause_ingress() {
+        var admissionControl = new AdmissionControl(AdmissionMode.REJECT, 100, 10);
+        List<String> calls = new ArrayList<>();
+        admissionControl.addIngressListener(new IngressListener() {
+            @Override
+            public void pause() {
+                calls.add("pause");
+            }
+
+            @Override
+            public void resume() {
+                calls.add("resume");
+            }
+        });
+
+        admissionControl.onHighWatermark(0);
+        admissionControl.onLowWatermark(0);
+        assertEquals(List.of(), calls);
+    }
+
+    @Test
+    void test_low_watermark_has_to_be_below_high_watermark() {
+        assertThrows(IllegalArgumentException.class, () -> new AdmissionControl(AdmissionMode.PAUSE, 100, 100));
+    }
+}
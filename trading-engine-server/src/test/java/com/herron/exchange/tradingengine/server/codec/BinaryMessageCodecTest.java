@@ -0,0 +1,221 @@
+package com.herron.exchange.tradingengine.server.codec;
+
+import com.herron.exchange.common.api.common.api.trading.Order;
+import com.herron.exchange.common.api.common.messages.common.*;
+import com.herron.exchange.common.api.common.messages.trading.*;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static com.herron.exchange.common.api.common.enums.EventType.SYSTEM;
+import static com.herron.exchange.common.api.common.enums.OrderSideEnum.ASK;
+import static com.herron.exchange.common.api.common.enums.OrderSideEnum.BID;
+import static com.herron.exchange.common.api.common.enums.OrderTypeEnum.LIMIT;
+import static com.herron.exchange.common.api.common.enums.OrderTypeEnum.MARKET;
+import static com.herron.exchange.common.api.common.enums.QuoteTypeEnum.BID_PRICE;
+import static com.herron.exchange.common.api.common.enums.TimeInForceEnum.FAK;
+import static com.herron.exchange.common.api.common.enums.TradeType.AUTOMATCH;
+import static com.herron.exchange.common.api.common.enums.TradingStatesEnum.CONTINUOUS_TRADING;
+import static com.herron.exchange.tradingengine.server.matchingengine.utils.MessageCreatorTestUtils.buildOrderAdd;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryMessageCodecTest {
+    private final BinaryMessageEncoder encoder = new BinaryMessageEncoder(3);
+    private final BinaryMessageDecoder decoder = new BinaryMessageDecoder();
+
+    @Test
+    void test_orders_round_trip() {
+        var limitOrder = buildOrderAdd(1000, 100.25, 15, BID, "order-ä", new Participant(new Member("member"), new User("user")));
+        var marketOrder = buildOrderAdd(1001, 0, 3, ASK, "2", FAK, MARKET);
+
+        var frame = decoder.decode(encoder.encodeToBytes(7, limitOrder));
+        assertEquals(3, frame.publisherId());
+        assertEquals(7, frame.sequenceNumber());
+        assertOrder(limitOrder, (Order) frame.message());
+        assertEquals(LIMIT, ((Order) frame.message()).orderType());
+
+        var decodedMarketOrder = (Order) decoder.decode(encoder.encodeToBytes(8, marketOrder)).message();
+        assertOrder(marketOrder, decodedMarketOrder);
+        assertEquals(MARKET, decodedMarketOrder.orderType());
+    }
+
+    @Test
+    void test_order_flyweight_reads_orders_in_place() {
+        var flyweight = new OrderFlyweight();
+        var limitOrder = buildOrderAdd(1000, 100.25, 15, BID, "order-ä", new Participant(new Member("member"), new User("user")));
+        byte[] limitOrderFrame = encoder.encodeToBytes(7, limitOrder);
+        byte[] record = new byte[limitOrderFrame.length + 5];
+        System.arraycopy(limitOrderFrame, 0, record, 3, limitOrderFrame.length);
+
+        flyweight.wrap(record, 3, limitOrderFrame.length);
+        assertEquals(3, flyweight.publisherId());
+        assertEquals(7, flyweight.sequenceNumber());
+        assertEquals("order-ä", flyweight.orderId());
+        assertEquals(100.25, flyweight.price());
+        assertEquals(LIMIT, flyweight.orderType());
+        assertOrder(limitOrder, flyweight.toOrder());
+
+        var marketOrder = buildOrderAdd(1001, 0, 3, ASK, "2", FAK, MARKET);
+        byte[] marketOrderFrame = encoder.encodeToBytes(8, marketOrder);
+        var decodedMarketOrder = flyweight.wrap(marketOrderFrame, 0, marketOrderFrame.length).toOrder();
+        assertOrder(marketOrder, decodedMarketOrder);
+        assertEquals(MARKET, decodedMarketOrder.orderType());
+
+        assertThrows(IllegalArgumentException.class, () -> flyweight.wrap(marketOrderFrame, 0, marketOrderFrame.length - 1));
+        var stateChange = ImmutableStateChange.builder()
+                .orderbookId("orderbookId")
+                .tradeState(CONTINUOUS_TRADING)
+                .timeOfEvent(Timestamp.from(1000))
+                .eventType(SYSTEM)
+                .build();
+        byte[] stateChangeFrame = encoder.encodeToBytes(9, stateChange);
+        assertThrows(IllegalArgumentException.class, () -> flyweight.wrap(stateChangeFrame, 0, stateChangeFrame.length));
+    }
+
+    @Test
+    void test_order_flyweight_rejects_corrupt_string_lengths() {
+        var flyweight = new OrderFlyweight();
+        var order = buildOrderAdd(1000, 100.25, 15, BID, "order", new Participant(new Member("member"), new User("user")));
+        byte[] frame = encoder.encodeToBytes(7, order);
+        int orderbookIdIndex = 21;
+        int orderIdIndex = orderbookIdIndex + 2 + (frame[orderbookIdIndex] & 0xFF);
+
+        byte[] corruptFrame = frame.clone();
+        corruptFrame[orderIdIndex] = (byte) 0xFE;
+        corruptFrame[orderIdIndex + 1] = (byte) 0x7F;
+        assertThrows(IllegalArgumentException.class, () -> flyweight.wrap(corruptFrame, 0, corruptFrame.length));
+
+        byte[] record = new byte[frame.length + 64];
+        System.arraycopy(frame, 0, record, 0, frame.length);
+        record[orderIdIndex] = (byte) (frame[orderIdIndex] + 32);
+        assertThrows(IllegalArgumentException.class, () -> flyweight.wrap(record, 0, frame.length));
+        assertThrows(IllegalArgumentException.class, () -> flyweight.wrap(frame, 1, frame.length));
+    }
+
+    @Test
+    void test_trade_execution_round_trips_nested_messages() {
+        var order = buildOrderAdd(1000, 100, 15, BID, "1", new Participant(new Member("member"), new User("user")));
+        var trade = ImmutableTrade.builder()
+                .bidParticipant(new Participant(new Member("bid-member"), new User("bid-user")))
+                .askParticipant(new Participant(new Member("ask-member"), new User("ask-user")))
+                .tradeId("trade")
+                .bidOrderId("1")
+                .askOrderId("2")
+                .isBidSideAggressor(true)
+                .volume(Volume.create(5))
+                .price(Price.create(100))
+                .timeOfEvent(Timestamp.from(1002))
+                .instrumentId("instrumentId")
+                .orderbookId("orderbookId")
+                .eventType(SYSTEM)
+                .tradeType(AUTOMATCH)
+                .build();
+        var tradeExecution = ImmutableTradeExecution.builder()
+                .timeOfEvent(Timestamp.from(1003))
+                .orderbookId("orderbookId")
+                .eventType(SYSTEM)
+                .messages(List.of(order, trade))
+                .build();
+
+        var decoded = (TradeExecution) decoder.decode(encoder.encodeToBytes(1, tradeExecution)).message();
+        assertEquals(Timestamp.from(1003), decoded.timeOfEvent());
+        assertEquals(2, decoded.messages().size());
+        assertOrder(order, (Order) decoded.messages().get(0));
+
+        var decodedTrade = (Trade) decoded.messages().get(1);
+        assertEquals("trade", decodedTrade.tradeId());
+        assertEquals("1", decodedTrade.bidOrderId());
+        assertEquals("2", decodedTrade.askOrderId());
+        assertEquals(trade.bidParticipant(), decodedTrade.bidParticipant());
+        assertEquals(trade.askParticipant(), decodedTrade.askParticipant());
+        assertTrue(decodedTrade.isBidSideAggressor());
+        assertEquals(trade.volume(), decodedTrade.volume());
+        assertEquals(trade.price(), decodedTrade.price());
+        assertEquals(AUTOMATCH, decodedTrade.tradeType());
+    }
+
+    @Test
+    void test_top_of_book_and_state_change_round_trip() {
+        var topOfBook = ImmutableTopOfBook.builder()
+                .orderbookId("orderbookId")
+                .timeOfEvent(Timestamp.from(1000))
+                .eventType(SYSTEM)
+                .bidQuote(ImmutablePriceQuote.builder().orderbookId("orderbookId").price(Price.create(99.5)).eventType(SYSTEM).timeOfEvent(Timestamp.from(999)).quoteType(BID_PRICE).build())
+                .build();
+        var decodedTopOfBook = (TopOfBook) decoder.decode(encoder.encodeToBytes(1, topOfBook)).message();
+        assertNull(decodedTopOfBook.askQuote());
+        assertNull(decodedTopOfBook.lastQuote());
+        assertEquals(Price.create(99.5), decodedTopOfBook.bidQuote().price());
+        assertEquals(BID_PRICE, decodedTopOfBook.bidQuote().quoteType());
+        assertFalse(topOfBook.hasUpdated(decodedTopOfBook));
+
+        var stateChange = ImmutableStateChange.builder()
+                .orderbookId("orderbookId")
+                .timeOfEvent(Timestamp.from(1000))
+                .eventType(SYSTEM)
+                .tradeState(CONTINUOUS_TRADING)
+                .build();
+        var decodedStateChange = (StateChange) decoder.decode(encoder.encodeToBytes(2, stateChange)).message();
+        assertEquals(CONTINUOUS_TRADING, decodedStateChange.tradeState());
+        assertEquals("orderbookId", decodedStateChange.orderbookId());
+    }
+
+    @Test
+    void test_trade_execution_with_more_messages_than_a_short_round_trips() {
+        var order = buildOrderAdd(1000, 100, 15, BID, "1");
+        var tradeExecution = ImmutableTradeExecution.builder()
+                .timeOfEvent(Timestamp.from(1003))
+                .orderbookId("orderbookId")
+                .eventType(SYSTEM)
+                .messages(Collections.nCopies(70_000, order))
+                .build();
+
+        byte[] frame = encoder.encodeToBytes(1, tradeExecution);
+        assertEquals(BinaryMessageEncoder.encodedLength(tradeExecution), frame.length);
+        var decoded = (TradeExecution) decoder.decode(frame).message();
+        assertEquals(70_000, decoded.messages().size());
+        assertOrder(order, (Order) decoded.messages().get(69_999));
+    }
+
+    @Test
+    void test_buffer_is_sized_up_front_for_large_messages() {
+        String orderId = "x".repeat(5000) + "ä\uD83D\uDE00";
+        var order = buildOrderAdd(1000, 100, 15, BID, orderId, new Participant(new Member("member"), new User("user")));
+
+        int length = encoder.encode(1, order);
+        assertEquals(BinaryMessageEncoder.encodedLength(order), length);
+        assertEquals(orderId, ((Order) decoder.decode(Arrays.copyOf(encoder.buffer().array(), length)).message()).orderId());
+        assertEquals(orderId, ((Order) decoder.decode(encoder.encodeToBytes(1, order)).message()).orderId());
+
+        var target = ByteBuffer.allocate(length - 1);
+        assertThrows(IllegalArgumentException.class, () -> encoder.encode(1, order, target));
+        assertEquals(0, target.position());
+    }
+
+    @Test
+    void test_publisher_id_has_to_fit_the_frame() {
+        var order = buildOrderAdd(1000, 100, 15, BID, "1");
+        assertEquals(BinaryMessageEncoder.MAX_PUBLISHER_ID, decoder.decode(new BinaryMessageEncoder(BinaryMessageEncoder.MAX_PUBLISHER_ID).encodeToBytes(1, order)).publisherId());
+        assertThrows(IllegalArgumentException.class, () -> new BinaryMessageEncoder(BinaryMessageEncoder.MAX_PUBLISHER_ID + 1));
+        assertThrows(IllegalArgumentException.class, () -> new BinaryMessageEncoder(-1));
+    }
+
+    private static void assertOrder(Order expected, Order actual) {
+        assertEquals(expected.orderId(), actual.orderId());
+        assertEquals(expected.orderbookId(), actual.orderbookId());
+        assertEquals(expected.instrumentId(), actual.instrumentId());
+        assertEquals(expected.orderSide(), actual.orderSide());
+        assertEquals(expected.timeInForce(), actual.timeInForce());
+        assertEquals(expected.orderOperation(), actual.orderOperation());
+        assertEquals(expected.orderOperationCause(), actual.orderOperationCause());
+        assertEquals(expected.price(), actual.price());
+        assertEquals(expected.currentVolume(), actual.currentVolume());
+        assertEquals(expected.initialVolume(), actual.initialVolume());
+        assertEquals(expected.participant(), actual.participant());
+        assertEquals(expected.timeOfEvent(), actual.timeOfEvent());
+        assertEquals(expected.eventType(), actual.eventType());
+    }
+}
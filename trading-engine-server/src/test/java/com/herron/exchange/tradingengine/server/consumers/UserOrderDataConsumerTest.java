@@ -0,0 +1,82 @@
+package com.herron.exchange.tradingengine.server.consumers;
+
+import com.herron.exchange.common.api.common.kafka.model.KafkaSubscriptionDetails;
+import com.herron.exchange.common.api.common.messages.common.PartitionKey;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.ConsumerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static com.herron.exchange.common.api.common.enums.KafkaTopicEnum.USER_ORDER_DATA;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserOrderDataConsumerTest {
+    private static final TopicPartition ORDER_PARTITION = new TopicPartition(USER_ORDER_DATA.getTopicName(), 0);
+    private final MockConsumer<String, String> mockConsumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+    private UserOrderDataConsumer userOrderDataConsumer;
+
+    @BeforeEach
+    void init() {
+        var consumerFactory = new ConsumerFactory<String, String>() {
+            @Override
+            public Consumer<String, String> createConsumer(String groupId, String clientIdPrefix, String clientIdSuffix, Properties properties) {
+                return mockConsumer;
+            }
+
+            @Override
+            public boolean isAutoCommit() {
+                return false;
+            }
+
+            @Override
+            public Map<String, Object> getConfigurationProperties() {
+                return Map.of();
+            }
+        };
+        var subscriptionDetails = new KafkaSubscriptionDetails("group", new PartitionKey(USER_ORDER_DATA, 0), 0, 1000);
+        userOrderDataConsumer = new UserOrderDataConsumer(null, null, consumerFactory, List.of(subscriptionDetails));
+    }
+
+    @AfterEach
+    void tearDown() {
+        userOrderDataConsumer.stop();
+    }
+
+    @Test
+    void test_pause_and_resume_are_applied_to_the_partition_by_the_polling_container() throws InterruptedException {
+        userOrderDataConsumer.init();
+        awaitUntil(() -> mockConsumer.assignment().equals(Set.of(ORDER_PARTITION)));
+
+        userOrderDataConsumer.pause();
+        awaitUntil(() -> mockConsumer.paused().equals(Set.of(ORDER_PARTITION)));
+
+        userOrderDataConsumer.resume();
+        awaitUntil(() -> mockConsumer.paused().isEmpty());
+    }
+
+    @Test
+    void test_partitions_subscribed_while_paused_start_paused() throws InterruptedException {
+        userOrderDataConsumer.pause();
+        userOrderDataConsumer.init();
+        awaitUntil(() -> mockConsumer.paused().equals(Set.of(ORDER_PARTITION)));
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for the container.");
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.herron.exchange.tradingengine.server.matchingengine;
+
+import com.herron.exchange.common.api.common.api.Message;
+import com.herron.exchange.common.api.common.api.trading.Order;
+import com.herron.exchange.common.api.common.cache.ReferenceDataCache;
+import com.herron.exchange.common.api.common.enums.TradingStatesEnum;
+import com.herron.exchange.common.api.common.messages.common.*;
+import com.herron.exchange.common.api.common.messages.refdata.*;
+import com.herron.exchange.common.api.common.messages.trading.ImmutableLimitOrder;
+import com.herron.exchange.common.api.common.messages.trading.ImmutableStateChange;
+import com.herron.exchange.common.api.common.messages.trading.Trade;
+import com.herron.exchange.common.api.common.messages.trading.TradingCalendar;
+import com.herron.exchange.tradingengine.server.matchingengine.broadcast.BroadcastPublisher;
+import com.herron.exchange.tradingengine.server.matchingengine.concurrency.BlockingWaitStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static com.herron.exchange.common.api.common.enums.AuctionAlgorithmEnum.DUTCH;
+import static com.herron.exchange.common.api.common.enums.EventType.SYSTEM;
+import static com.herron.exchange.common.api.common.enums.MatchingAlgorithmEnum.FIFO;
+import static com.herron.exchange.common.api.common.enums.OrderOperationCauseEnum.REJECTED;
+import static com.herron.exchange.common.api.common.enums.OrderSideEnum.ASK;
+import static com.herron.exchange.common.api.common.enums.OrderSideEnum.BID;
+import static com.herron.exchange.common.api.common.enums.TradingStatesEnum.*;
+import static com.herron.exchange.tradingengine.server.matchingengine.utils.MessageCreatorTestUtils.buildOrderAdd;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatchingEngineTest {
+    private static final String ORDERBOOK_ID = "orderbookId";
+    private static final String OTHER_ORDERBOOK_ID = "otherOrderbookId";
+    private final List<Published> published = new CopyOnWriteArrayList<>();
+    private RecordingPublisher publisherA;
+    private MatchingEngine engineA;
+    private MatchingEngine engineB;
+
+    @BeforeEach
+    void init() {
+        var market = ImmutableMarket.builder().marketId("market").businessCalendar(BusinessCalendar.defaultWeekendCalendar()).build();
+        var product = ImmutableProduct.builder().currency("eur").productId("product").market(market).build();
+        var instrument = ImmutableDefaultEquityInstrument.builder()
+                .instrumentId("instrumendId")
+                .firstTradingDate(Timestamp.from(LocalDate.MIN))
+                .lastTradingDate(Timestamp.from(LocalDate.MAX))
+                .product(product)
+                .priceModelParameters(ImmutableIntangiblePriceModelParameters.builder().build())
+                .build();
+        ReferenceDataCache.getCache().addMarket(market);
+        ReferenceDataCache.getCache().addProduct(product);
+        ReferenceDataCache.getCache().addInstrument(instrument);
+        for (var orderbookId : List.of(ORDERBOOK_ID, OTHER_ORDERBOOK_ID)) {
+            ReferenceDataCache.getCache().addOrderbookData(ImmutableDefaultOrderbookData.builder()
+                    .orderbookId(orderbookId)
+                    .matchingAlgorithm(FIFO)
+                    .tradingCurrency("eur")
+                    .minTradeVolume(0)
+                    .auctionAlgorithm(DUTCH)
+                    .tradingCalendar(TradingCalendar.twentyFourSevenTradingCalendar())
+                    .instrument(instrument)
+                    .build());
+        }
+    }
+
+    /**
+     * With a small publisher queue the matching thread of engine a stalls as soon as its publisher does.
+     */
+    private void startEngines(int publisherQueueCapacity) {
+        publisherA = new RecordingPublisher("a", publisherQueueCapacity);
+        engineA = new MatchingEngine("a", publisherA, price -> {
+        }, null, 64, new BlockingWaitStrategy());
+        engineB = new MatchingEngine("b", new RecordingPublisher("b", BroadcastPublisher.DEFAULT_QUEUE_CAPACITY), price -> {
+        }, null, 64, new BlockingWaitStrategy());
+        engineA.init();
+        engineB.init();
+        engineA.queueMessage(buildStateChange(PRE_TRADE));
+        engineA.queueMessage(buildStateChange(CONTINUOUS_TRADING));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (engineA != null) {
+            engineA.stop();
+        }
+        if (engineB != null) {
+            engineB.stop();
+        }
+    }
+
+    @Test
+    void test_migrated_orderbook_keeps_its_orders_and_migrates_back() throws InterruptedException {
+        startEngines(BroadcastPublisher.DEFAULT_QUEUE_CAPACITY);
+        engineA.queueMessage(buildOrderAdd(0, 100, 10, BID, "1"));
+        engineA.migrateOrderbook(ORDERBOOK_ID, engineB);
+        engineB.queueMessage(buildOrderAdd(1, 100, 4, ASK, "2"));
+
+        awaitUntil(() -> trades("b").size() == 1);
+        assertEquals(4, trades("b").get(0).volume().getRealValue());
+        assertEquals("1", trades("b").get(0).bidOrderId());
+
+        engineB.migrateOrderbook(ORDERBOOK_ID, engineA);
+        engineA.queueMessage(buildOrderAdd(2, 100, 6, ASK, "3"));
+
+        awaitUntil(() -> trades("a").size() == 1);
+        assertEquals(6, trades("a").get(0).volume().getRealValue());
+        assertEquals("1", trades("a").get(0).bidOrderId());
+        assertEquals(1, trades("b").size());
+    }
+
+    @Test
+    void test_events_queued_to_target_are_held_back_until_the_orderbook_arrives() throws InterruptedException {
+        startEngines(4);
+        var isSourceReleased = new CountDownLatch(1);
+        publisherA.publish(() -> await(isSourceReleased));
+        engineA.queueMessage(buildOrderAdd(0, 100, 10, BID, "1"));
+        engineA.queueMessage(buildOrderAdd(1, 100, 2, BID, "2"));
+        engineA.migrateOrderbook(ORDERBOOK_ID, engineB);
+        engineB.queueMessage(buildOrderAdd(2, 100, 12, ASK, "3"));
+
+        TimeUnit.MILLISECONDS.sleep(100);
+        isSourceReleased.countDown();
+
+        awaitUntil(() -> trades("b").size() == 2);
+        assertEquals(List.of("1", "2"), trades("b").stream().map(Trade::bidOrderId).toList());
+        assertTrue(trades("a").isEmpty());
+    }
+
+    @Test
+    void test_target_output_waits_for_source_publisher_to_reach_the_handover() throws InterruptedException {
+        startEngines(BroadcastPublisher.DEFAULT_QUEUE_CAPACITY);
+        var isSourcePublisherReleased = new CountDownLatch(1);
+        publisherA.publish(() -> await(isSourcePublisherReleased));
+        engineA.queueMessage(buildOrderAdd(0, 100, 10, BID, "1"));
+        engineA.migrateOrderbook(ORDERBOOK_ID, engineB);
+        engineB.queueMessage(buildOrderAdd(1, 100, 4, ASK, "2"));
+
+        TimeUnit.MILLISECONDS.sleep(200);
+        assertTrue(published.stream().noneMatch(p -> p.publisherId().equals("b")));
+
+        isSourcePublisherReleased.countDown();
+        awaitUntil(() -> trades("b").size() == 1);
+        int lastOfSource = -1;
+        int firstOfTarget = -1;
+        for (int i = 0; i < published.size(); i++) {
+            if (published.get(i).publisherId().equals("a")) {
+                lastOfSource = i;
+            } else if (firstOfTarget < 0) {
+                firstOfTarget = i;
+            }
+        }
+        assertTrue(lastOfSource < firstOfTarget);
+    }
+
+    @Test
+    void test_auctions_run_in_parallel_are_broadcast_in_queue_order_with_ascending_trade_ids() throws InterruptedException {
+        var submittedAuctions = new AtomicInteger();
+        var auctionPool = new ForkJoinPool(2) {
+            @Override
+            public <T> ForkJoinTask<T> submit(Callable<T> task) {
+                submittedAuctions.incrementAndGet();
+                return super.submit(task);
+            }
+        };
+        try {
+            engineA = new MatchingEngine("a", new RecordingPublisher("a", BroadcastPublisher.DEFAULT_QUEUE_CAPACITY), price -> {
+            }, auctionPool, 64, new BlockingWaitStrategy());
+            for (var orderbookId : List.of(ORDERBOOK_ID, OTHER_ORDERBOOK_ID)) {
+                engineA.queueMessage(buildStateChange(orderbookId, PRE_TRADE));
+                engineA.queueMessage(buildStateChange(orderbookId, OPEN_AUCTION_TRADING));
+                engineA.queueMessage(withOrderbookId(buildOrderAdd(0, 100, 10, BID, orderbookId + "-1"), orderbookId));
+                engineA.queueMessage(withOrderbookId(buildOrderAdd(1, 100, 4, ASK, orderbookId + "-2"), orderbookId));
+                engineA.queueMessage(withOrderbookId(buildOrderAdd(2, 100, 6, ASK, orderbookId + "-3"), orderbookId));
+            }
+            engineA.queueMessage(buildStateChange(OTHER_ORDERBOOK_ID, OPEN_AUCTION_RUN));
+            engineA.queueMessage(buildStateChange(ORDERBOOK_ID, OPEN_AUCTION_RUN));
+            engineA.queueMessage(buildStateChange(ORDERBOOK_ID, CONTINUOUS_TRADING));
+            engineA.queueMessage(buildOrderAdd(3, 100, 5, BID, "4"));
+            engineA.queueMessage(buildOrderAdd(4, 100, 5, ASK, "5"));
+            engineA.init();
+
+            awaitUntil(() -> trades("a").size() == 5);
+            var trades = trades("a");
+            assertEquals(2, submittedAuctions.get());
+            assertEquals(List.of(OTHER_ORDERBOOK_ID, OTHER_ORDERBOOK_ID, ORDERBOOK_ID, ORDERBOOK_ID, ORDERBOOK_ID),
+                    trades.stream().map(Trade::orderbookId).toList());
+            assertEquals("4", trades.get(4).bidOrderId());
+            for (int i = 1; i < trades.size(); i++) {
+                assertTrue(Long.parseLong(trades.get(i - 1).tradeId()) < Long.parseLong(trades.get(i).tradeId()));
+            }
+        } finally {
+            auctionPool.shutdown();
+        }
+    }
+
+    @Test
+    void test_rejected_order_is_cancelled_without_a_slot_in_the_full_event_queue() throws InterruptedException {
+        publisherA = new RecordingPublisher("a", BroadcastPublisher.DEFAULT_QUEUE_CAPACITY);
+        engineA = new MatchingEngine("a", publisherA, price -> {
+        }, null, 4, new BlockingWaitStrategy());
+        publisherA.init();
+        try {
+            for (int i = 0; i < 4; i++) {
+                engineA.queueMessage(buildOrderAdd(i, 100, 1, BID, String.valueOf(i)));
+            }
+            engineA.rejectOrder(buildOrderAdd(4, 100, 1, BID, "4"), "Full.");
+
+            awaitUntil(() -> published.size() == 1);
+            var cancel = (Order) published.get(0).message();
+            assertEquals("4", cancel.orderId());
+            assertEquals(REJECTED, cancel.orderOperationCause());
+            assertEquals(4, engineA.getQueueSize());
+        } finally {
+            publisherA.stop();
+        }
+    }
+
+    private List<Trade> trades(String publisherId) {
+        return published.stream()
+                .filter(p -> p.publisherId().equals(publisherId) && p.message() instanceof Trade)
+                .map(p -> (Trade) p.message())
+                .toList();
+    }
+
+    private static ImmutableStateChange buildStateChange(TradingStatesEnum tradeState) {
+        return buildStateChange(ORDERBOOK_ID, tradeState);
+    }
+
+    private static ImmutableStateChange buildStateChange(String orderbookId, TradingStatesEnum tradeState) {
+        return ImmutableStateChange.builder()
+                .orderbookId(orderbookId)
+                .tradeState(tradeState)
+                .timeOfEvent(Timestamp.from(0))
+                .eventType(SYSTEM)
+                .build();
+    }
+
+    private static Order withOrderbookId(Order order, String orderbookId) {
+        return ImmutableLimitOrder.builder().from(order).orderbookId(orderbookId).build();
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for the engines.");
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Published(String publisherId, Message message) {
+    }
+
+    /**
+     * Records the output in the order it is sent, on the publisher thread.
+     */
+    private class RecordingPublisher extends BroadcastPublisher {
+        private final String publisherId;
+
+        RecordingPublisher(String publisherId, int queueCapacity) {
+            super(publisherId + "-publisher", null, queueCapacity, DEFAULT_MAX_BATCH_SIZE, 0);
+            this.publisherId = publisherId;
+        }
+
+        @Override
+        public void publish(PartitionKey partitionKey, Message message) {
+            publish(() -> published.add(new Published(publisherId, message)));
+        }
+    }
+}
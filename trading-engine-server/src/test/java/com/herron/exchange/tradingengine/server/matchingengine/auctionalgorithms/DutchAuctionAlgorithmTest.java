@@ -1,14 +1,18 @@
 package com.herron.exchange.tradingengine.server.matchingengine.auctionalgorithms;
 
 import com.herron.exchange.common.api.common.enums.OrderSideEnum;
+import com.herron.exchange.common.api.common.messages.common.Price;
 import com.herron.exchange.tradingengine.server.matchingengine.comparator.FifoOrderBookComparator;
 import com.herron.exchange.tradingengine.server.matchingengine.orderbook.ActiveOrders;
 import com.herron.exchange.tradingengine.server.matchingengine.utils.MessageCreatorTestUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Random;
+
 import static com.herron.exchange.tradingengine.server.matchingengine.utils.MessageCreatorTestUtils.buildOrderAdd;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 class DutchAuctionAlgorithmTest {
 
@@ -47,4 +51,57 @@ class DutchAuctionAlgorithmTest {
         assertEquals(32.00, result.optimalPrice().equilibriumPrice().getRealValue());
     }
 
-}
\ No newline at end of file
+    @Test
+    void test_equilibrium_price_tie_break_on_market_pressure() {
+        activeOrders.addOrder(buildOrderAdd(0, 101, 15, OrderSideEnum.BID, "1"));
+        activeOrders.addOrder(buildOrderAdd(0, 99, 10, OrderSideEnum.ASK, "2"));
+
+        var result = auctionAlgorithm.calculateEquilibriumPrice();
+        assertEquals(10, result.optimalPrice().matchedVolume().getRealValue());
+        assertEquals(101, result.optimalPrice().equilibriumPrice().getRealValue());
+    }
+
+    @Test
+    void test_equilibrium_price_tie_break_on_reference_price() {
+        activeOrders.addOrder(buildOrderAdd(0, 101, 10, OrderSideEnum.BID, "1"));
+        activeOrders.addOrder(buildOrderAdd(0, 99, 10, OrderSideEnum.ASK, "2"));
+
+        assertEquals(101, auctionAlgorithm.calculateEquilibriumPrice(Price.create(100.5)).optimalPrice().equilibriumPrice().getRealValue());
+        assertEquals(99, auctionAlgorithm.calculateEquilibriumPrice(Price.create(99.2)).optimalPrice().equilibriumPrice().getRealValue());
+    }
+
+    @Test
+    void test_indicative_price_follows_book_during_call_phase() {
+        auctionAlgorithm.startCallPhase();
+        assertNull(auctionAlgorithm.calculateOptimalPrice(null));
+
+        activeOrders.addOrder(buildOrderAdd(0, 32.00, 10, OrderSideEnum.BID, "1"));
+        activeOrders.addOrder(buildOrderAdd(0, 31.90, 5, OrderSideEnum.ASK, "2"));
+        activeOrders.addOrder(buildOrderAdd(0, 32.10, 5, OrderSideEnum.ASK, "3"));
+        var result = auctionAlgorithm.calculateOptimalPrice(null);
+        assertEquals(5, result.matchedVolume().getRealValue());
+        assertEquals(32.00, result.equilibriumPrice().getRealValue());
+
+        activeOrders.removeOrder("2");
+        assertNull(auctionAlgorithm.calculateOptimalPrice(null));
+
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            String orderId = String.valueOf(random.nextInt(60));
+            if (activeOrders.getOrder(orderId) != null) {
+                activeOrders.removeOrder(orderId);
+            } else {
+                var side = random.nextBoolean() ? OrderSideEnum.BID : OrderSideEnum.ASK;
+                activeOrders.addOrder(buildOrderAdd(i, (3180 + random.nextInt(40)) / 100.0, 1 + random.nextInt(20), side, orderId));
+            }
+
+            var expected = auctionAlgorithm.calculateEquilibriumPrice(Price.create(32.00));
+            var actual = auctionAlgorithm.calculateOptimalPrice(Price.create(32.00));
+            if (expected == null) {
+                assertNull(actual);
+            } else {
+                assertEquals(expected.optimalPrice(), actual);
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.herron.exchange.tradingengine.server.matchingengine.broadcast;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BroadcastPublisherTest {
+
+    @Test
+    void test_published_output_is_sent_in_order_on_publisher_thread() throws InterruptedException {
+        var publisher = new BroadcastPublisher("test-publisher", null, 64, 16, 20_000);
+        List<Integer> sent = new CopyOnWriteArrayList<>();
+        List<String> threads = new CopyOnWriteArrayList<>();
+        var latch = new CountDownLatch(1000);
+        publisher.init();
+
+        for (int i = 0; i < 1000; i++) {
+            int value = i;
+            publisher.publish(() -> {
+                sent.add(value);
+                threads.add(Thread.currentThread().getName());
+                latch.countDown();
+            });
+        }
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        publisher.stop();
+        assertEquals(IntStream.range(0, 1000).boxed().toList(), sent);
+        assertTrue(threads.stream().noneMatch(name -> name.equals(Thread.currentThread().getName())));
+    }
+}
@@ -0,0 +1,91 @@
+package com.herron.exchange.tradingengine.server.matchingengine.broadcast;
+
+import com.herron.exchange.common.api.common.messages.common.Price;
+import com.herron.exchange.common.api.common.messages.common.Timestamp;
+import com.herron.exchange.common.api.common.messages.trading.ImmutablePriceQuote;
+import com.herron.exchange.common.api.common.messages.trading.ImmutableTopOfBook;
+import com.herron.exchange.common.api.common.messages.trading.TopOfBook;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.herron.exchange.common.api.common.enums.EventType.SYSTEM;
+import static com.herron.exchange.common.api.common.enums.QuoteTypeEnum.BID_PRICE;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopOfBookConflatorTest {
+    private final List<TopOfBook> published = new ArrayList<>();
+    private final TopOfBookConflator conflator = new TopOfBookConflator(Map.of("limited", 100L)::get, published::add);
+
+    @Test
+    void test_updates_within_interval_are_conflated_to_the_latest() {
+        conflator.update(buildTopOfBook("limited", 100), 0);
+        assertEquals(1, published.size());
+
+        conflator.update(buildTopOfBook("limited", 101), 10);
+        conflator.update(buildTopOfBook("limited", 102), 20);
+        assertEquals(1, published.size());
+        assertEquals(1, conflator.getNrOfPending());
+        assertEquals(90, conflator.nanosUntilNextFlush(10));
+
+        conflator.flush(99);
+        assertEquals(1, published.size());
+        conflator.flush(100);
+        assertEquals(2, published.size());
+        assertEquals(Price.create(102), published.get(1).bidQuote().price());
+        assertEquals(Long.MAX_VALUE, conflator.nanosUntilNextFlush(100));
+
+        conflator.update(buildTopOfBook("limited", 103), 200);
+        assertEquals(3, published.size());
+    }
+
+    @Test
+    void test_pending_update_reverting_to_published_state_is_dropped() {
+        conflator.update(buildTopOfBook("limited", 100), 0);
+        conflator.update(buildTopOfBook("limited", 101), 10);
+        conflator.update(buildTopOfBook("limited", 100), 20);
+        assertEquals(0, conflator.getNrOfPending());
+
+        conflator.flush(1000);
+        assertEquals(1, published.size());
+    }
+
+    @Test
+    void test_unchanged_top_of_book_is_not_published() {
+        var conflator = new TopOfBookConflator(id -> 0, published::add);
+        conflator.update(buildTopOfBook("unlimited", 100), 0);
+        conflator.update(buildTopOfBook("unlimited", 100), 0);
+        conflator.update(buildTopOfBook("unlimited", 101), 0);
+        assertEquals(2, published.size());
+    }
+
+    @Test
+    void test_final_state_is_published_on_remove_and_flush_all() {
+        var conflator = new TopOfBookConflator(id -> 100, published::add);
+        conflator.update(buildTopOfBook("first", 100), 0);
+        conflator.update(buildTopOfBook("second", 100), 0);
+        conflator.update(buildTopOfBook("first", 101), 1);
+        conflator.update(buildTopOfBook("second", 101), 1);
+
+        conflator.remove("first", 2);
+        assertEquals(3, published.size());
+        assertEquals("first", published.get(2).orderbookId());
+        assertEquals(Price.create(101), published.get(2).bidQuote().price());
+
+        conflator.flushAll(3);
+        assertEquals(4, published.size());
+        assertEquals("second", published.get(3).orderbookId());
+        assertEquals(0, conflator.getNrOfPending());
+    }
+
+    private static TopOfBook buildTopOfBook(String orderbookId, double bidPrice) {
+        return ImmutableTopOfBook.builder()
+                .orderbookId(orderbookId)
+                .timeOfEvent(Timestamp.from(0))
+                .eventType(SYSTEM)
+                .bidQuote(ImmutablePriceQuote.builder().orderbookId(orderbookId).price(Price.create(bidPrice)).eventType(SYSTEM).timeOfEvent(Timestamp.from(0)).quoteType(BID_PRICE).build())
+                .build();
+    }
+}
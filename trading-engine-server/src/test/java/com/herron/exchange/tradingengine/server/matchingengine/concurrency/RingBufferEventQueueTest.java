@@ -0,0 +1,103 @@
+package com.herron.exchange.tradingengine.server.matchingengine.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RingBufferEventQueueTest {
+
+    @Test
+    void test_offer_fails_when_full_and_slots_are_reused() {
+        var queue = new RingBufferEventQueue<Integer>(3);
+        assertEquals(4, queue.capacity());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(queue.offer(i));
+        }
+        assertFalse(queue.offer(4));
+        assertEquals(4, queue.size());
+
+        assertEquals(0, queue.peek());
+        assertEquals(0, queue.poll());
+        assertTrue(queue.offer(4));
+        for (int i = 1; i < 5; i++) {
+            assertEquals(i, queue.poll());
+        }
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void test_drain_to_moves_published_elements_in_order_and_frees_slots() {
+        var queue = new RingBufferEventQueue<Integer>(8);
+        for (int i = 0; i < 8; i++) {
+            assertTrue(queue.offer(i));
+        }
+
+        List<Integer> batch = new ArrayList<>();
+        assertEquals(5, queue.drainTo(batch, 5));
+        assertEquals(List.of(0, 1, 2, 3, 4), batch);
+        assertEquals(3, queue.size());
+
+        for (int i = 8; i < 13; i++) {
+            assertTrue(queue.offer(i));
+        }
+        assertFalse(queue.offer(13));
+
+        batch.clear();
+        assertEquals(8, queue.drainTo(batch, 100));
+        assertEquals(List.of(5, 6, 7, 8, 9, 10, 11, 12), batch);
+        assertEquals(0, queue.drainTo(batch, 100));
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void test_multiple_producers_keep_per_producer_order() throws InterruptedException {
+        int nrOfProducers = 4;
+        int nrOfEventsPerProducer = 100_000;
+        var queue = new RingBufferEventQueue<long[]>(1024);
+
+        List<Thread> producers = new ArrayList<>();
+        for (int producer = 0; producer < nrOfProducers; producer++) {
+            long producerId = producer;
+            producers.add(new Thread(() -> {
+                for (long i = 0; i < nrOfEventsPerProducer; i++) {
+                    queue.put(new long[]{producerId, i});
+                }
+            }));
+        }
+        producers.forEach(Thread::start);
+
+        long[] nextExpected = new long[nrOfProducers];
+        for (int i = 0; i < nrOfProducers * nrOfEventsPerProducer; i++) {
+            long[] event = queue.poll(5, TimeUnit.SECONDS);
+            assertNotNull(event);
+            assertEquals(nextExpected[(int) event[0]]++, event[1]);
+        }
+
+        for (var producer : producers) {
+            producer.join();
+        }
+        assertNull(queue.poll());
+    }
+
+    @Test
+    void test_blocking_wait_strategy_wakes_on_publish() throws InterruptedException {
+        var queue = new RingBufferEventQueue<Integer>(16, new BlockingWaitStrategy());
+        assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < 1000; i++) {
+                queue.put(i);
+            }
+        });
+        producer.start();
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, queue.poll(5, TimeUnit.SECONDS));
+        }
+        producer.join();
+    }
+}
@@ -0,0 +1,132 @@
+package com.herron.exchange.tradingengine.server.matchingengine.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SequenceLockTest {
+    private final SequenceLock lock = new SequenceLock();
+    private long first = 0;
+    private long second = 0;
+    private final List<Long> values = new ArrayList<>();
+
+    @Test
+    void test_reader_never_observes_partial_write() throws InterruptedException {
+        AtomicBoolean isInconsistent = new AtomicBoolean(false);
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 200_000; i++) {
+                lock.write(() -> {
+                    first++;
+                    second++;
+                    return true;
+                });
+            }
+        });
+        Thread reader = new Thread(() -> {
+            for (int i = 0; i < 200_000; i++) {
+                long difference = lock.read(() -> first - second);
+                if (difference != 0) {
+                    isInconsistent.set(true);
+                }
+            }
+        });
+
+        writer.start();
+        reader.start();
+        writer.join();
+        reader.join();
+
+        assertFalse(isInconsistent.get());
+        assertEquals(200_000, lock.read(() -> first));
+        assertEquals(400_000, lock.getSequence());
+    }
+
+    @Test
+    void test_nested_write_and_read_on_writer_thread() {
+        long value = lock.write(() -> {
+            first = 1;
+            return lock.write(() -> {
+                second = 2;
+                return lock.read(() -> first + second);
+            });
+        });
+
+        assertEquals(3, value);
+        assertEquals(2, lock.getSequence());
+    }
+
+    @Test
+    void test_reader_retries_when_a_racing_read_throws() throws InterruptedException {
+        AtomicBoolean hasFailed = new AtomicBoolean(false);
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 200_000; i++) {
+                lock.write(() -> {
+                    first++;
+                    second++;
+                    return true;
+                });
+            }
+        });
+        Thread reader = new Thread(() -> {
+            try {
+                for (int i = 0; i < 200_000; i++) {
+                    lock.read(() -> 1 / (1 - (first - second)));
+                }
+            } catch (ArithmeticException e) {
+                hasFailed.set(true);
+            }
+        });
+
+        writer.start();
+        reader.start();
+        writer.join();
+        reader.join();
+
+        assertFalse(hasFailed.get());
+    }
+
+    @Test
+    void test_only_the_writer_thread_can_read_collections() throws InterruptedException {
+        lock.write(() -> values.add(1L));
+        assertTrue(lock.canReadCollections());
+
+        AtomicBoolean canReadCollections = new AtomicBoolean(true);
+        Thread reader = new Thread(() -> canReadCollections.set(lock.canReadCollections()));
+        reader.start();
+        reader.join();
+
+        assertFalse(canReadCollections.get());
+    }
+
+    @Test
+    void test_write_from_another_thread_fails_until_it_claims_the_lock() throws InterruptedException {
+        lock.write(() -> first++);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        Thread auctionThread = new Thread(() -> {
+            try {
+                lock.write(() -> second++);
+            } catch (IllegalStateException e) {
+                failure.set(e);
+            }
+            lock.claim();
+            lock.write(() -> second++);
+        });
+
+        auctionThread.start();
+        auctionThread.join();
+        assertNotNull(failure.get());
+        assertFalse(lock.canReadCollections());
+        assertThrows(IllegalStateException.class, () -> lock.write(() -> first++));
+
+        lock.claim();
+        lock.write(() -> first++);
+        assertEquals(2, lock.read(() -> first));
+        assertEquals(1, lock.read(() -> second));
+        assertEquals(6, lock.getSequence());
+    }
+}
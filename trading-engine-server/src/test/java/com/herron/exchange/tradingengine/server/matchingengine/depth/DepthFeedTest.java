@@ -0,0 +1,124 @@
+package com.herron.exchange.tradingengine.server.matchingengine.depth;
+
+import com.herron.exchange.common.api.common.messages.common.*;
+import com.herron.exchange.common.api.common.messages.refdata.*;
+import com.herron.exchange.common.api.common.messages.trading.TradingCalendar;
+import com.herron.exchange.tradingengine.server.matchingengine.api.Orderbook;
+import com.herron.exchange.tradingengine.server.matchingengine.depth.model.DepthMessage;
+import com.herron.exchange.tradingengine.server.matchingengine.depth.model.LevelUpdate;
+import com.herron.exchange.tradingengine.server.matchingengine.depth.model.MarketByLevelDelta;
+import com.herron.exchange.tradingengine.server.matchingengine.depth.model.MarketByLevelSnapshot;
+import com.herron.exchange.tradingengine.server.matchingengine.factory.OrderbookFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.herron.exchange.common.api.common.enums.AuctionAlgorithmEnum.DUTCH;
+import static com.herron.exchange.common.api.common.enums.MatchingAlgorithmEnum.FIFO;
+import static com.herron.exchange.common.api.common.enums.OrderSideEnum.ASK;
+import static com.herron.exchange.common.api.common.enums.OrderSideEnum.BID;
+import static com.herron.exchange.common.api.common.enums.TradingStatesEnum.CONTINUOUS_TRADING;
+import static com.herron.exchange.common.api.common.enums.TradingStatesEnum.PRE_TRADE;
+import static com.herron.exchange.tradingengine.server.matchingengine.api.PriceLevelUpdateAction.*;
+import static com.herron.exchange.tradingengine.server.matchingengine.utils.MessageCreatorTestUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DepthFeedTest {
+    private final List<DepthMessage> published = new ArrayList<>();
+    private final DepthFeed depthFeed = new DepthFeed(published::add, 1000, 0);
+    private Orderbook orderbook;
+
+    @BeforeEach
+    void init() {
+        var orderbookData = ImmutableDefaultOrderbookData.builder()
+                .orderbookId("orderbookId")
+                .matchingAlgorithm(FIFO)
+                .tradingCurrency("eur")
+                .minTradeVolume(0)
+                .auctionAlgorithm(DUTCH)
+                .tradingCalendar(TradingCalendar.twentyFourSevenTradingCalendar())
+                .instrument(ImmutableDefaultEquityInstrument.builder()
+                        .instrumentId("instrumendId")
+                        .firstTradingDate(Timestamp.from(LocalDate.MIN))
+                        .lastTradingDate(Timestamp.from(LocalDate.MAX))
+                        .product(ImmutableProduct.builder().currency("eur").productId("product").market(ImmutableMarket.builder().marketId("market").businessCalendar(BusinessCalendar.defaultWeekendCalendar()).build()).build())
+                        .priceModelParameters(ImmutableIntangiblePriceModelParameters.builder().build())
+                        .build())
+                .build();
+        orderbook = OrderbookFactory.createOrderbook(orderbookData);
+        orderbook.updateState(PRE_TRADE);
+        orderbook.updateState(CONTINUOUS_TRADING);
+        depthFeed.track(orderbook);
+    }
+
+    @Test
+    void test_deltas_carry_the_net_level_updates_of_a_batch() {
+        orderbook.updateOrderbook(buildOrderAdd(0, 100, 10, BID, "1"));
+        orderbook.updateOrderbook(buildOrderAdd(0, 100, 5, BID, "2"));
+        orderbook.updateOrderbook(buildOrderAdd(0, 101, 10, ASK, "3"));
+        depthFeed.publishDelta("orderbookId");
+
+        var delta = (MarketByLevelDelta) published.get(0);
+        assertEquals(1, delta.sequenceNumber());
+        assertEquals(List.of(
+                new LevelUpdate(ADD, BID, Price.create(100), Volume.create(15), 2),
+                new LevelUpdate(ADD, ASK, Price.create(101), Volume.create(10), 1)
+        ), delta.levelUpdates());
+
+        orderbook.updateOrderbook(buildOrderDelete(0, 100, 5, BID, "2"));
+        orderbook.updateOrderbook(buildOrderDelete(0, 101, 10, ASK, "3"));
+        orderbook.updateOrderbook(buildOrderAdd(0, 102, 1, ASK, "4"));
+        orderbook.updateOrderbook(buildOrderDelete(0, 102, 1, ASK, "4"));
+        depthFeed.publishDelta("orderbookId");
+
+        delta = (MarketByLevelDelta) published.get(1);
+        assertEquals(2, delta.sequenceNumber());
+        assertEquals(List.of(
+                new LevelUpdate(CHANGE, BID, Price.create(100), Volume.create(10), 1),
+                new LevelUpdate(DELETE, ASK, Price.create(101), Volume.create(0), 0)
+        ), delta.levelUpdates());
+
+        depthFeed.publishDelta("orderbookId");
+        assertEquals(2, published.size());
+    }
+
+    @Test
+    void test_level_removed_and_added_again_is_a_change() {
+        orderbook.updateOrderbook(buildOrderAdd(0, 100, 10, BID, "1"));
+        depthFeed.publishDelta("orderbookId");
+
+        orderbook.updateOrderbook(buildOrderDelete(0, 100, 10, BID, "1"));
+        orderbook.updateOrderbook(buildOrderAdd(0, 100, 7, BID, "2"));
+        depthFeed.publishDelta("orderbookId");
+
+        var delta = (MarketByLevelDelta) published.get(1);
+        assertEquals(List.of(new LevelUpdate(CHANGE, BID, Price.create(100), Volume.create(7), 1)), delta.levelUpdates());
+    }
+
+    @Test
+    void test_snapshot_follows_pending_delta_with_its_sequence_number() {
+        orderbook.updateOrderbook(buildOrderAdd(0, 100, 10, BID, "1"));
+        orderbook.updateOrderbook(buildOrderAdd(0, 99, 10, BID, "2"));
+        orderbook.updateOrderbook(buildOrderAdd(0, 101, 10, ASK, "3"));
+
+        depthFeed.publishSnapshotsIfDue(999);
+        assertTrue(published.isEmpty());
+
+        depthFeed.publishSnapshotsIfDue(1000);
+        assertEquals(2, published.size());
+        var snapshot = (MarketByLevelSnapshot) published.get(1);
+        assertEquals(1, snapshot.sequenceNumber());
+        assertEquals(2, snapshot.marketByLevel().levelData().size());
+        assertEquals(Price.create(99), snapshot.marketByLevel().levelData().get(1).bidPrice());
+
+        var depth = depthFeed.untrack("orderbookId");
+        orderbook.updateOrderbook(buildOrderAdd(0, 98, 10, BID, "4"));
+        var migratedFeed = new DepthFeed(published::add, 1000, 0);
+        migratedFeed.track(orderbook, depth);
+        migratedFeed.publishDelta("orderbookId");
+        assertEquals(2, ((MarketByLevelDelta) published.get(2)).sequenceNumber());
+    }
+}
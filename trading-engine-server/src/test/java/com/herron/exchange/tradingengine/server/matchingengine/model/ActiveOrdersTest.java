@@ -8,6 +8,8 @@ import org.junit.jupiter.api.Test;
 import static com.herron.exchange.common.api.common.enums.OrderSideEnum.ASK;
 import static com.herron.exchange.common.api.common.enums.OrderSideEnum.BID;
 import static com.herron.exchange.tradingengine.server.matchingengine.utils.MessageCreatorTestUtils.buildOrderAdd;
+import static com.herron.exchange.tradingengine.server.matchingengine.utils.MessageCreatorTestUtils.buildOrderDelete;
+import static com.herron.exchange.tradingengine.server.matchingengine.utils.MessageCreatorTestUtils.buildOrderUpdate;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 class ActiveOrdersTest {
@@ -145,4 +147,74 @@ class ActiveOrdersTest {
         assertEquals(12, activeOrders.totalBidVolumeAtPriceLevel(2).getRealValue());
         assertEquals(0, activeOrders.totalAskVolumeAtPriceLevel(2).getRealValue());
     }
-}
\ No newline at end of file
+
+    @Test
+    void test_aggregates_after_update() {
+        activeOrders.addOrder(buildOrderAdd(0, 100, 11, BID, "1"));
+        activeOrders.addOrder(buildOrderAdd(2, 102, 13, ASK, "2"));
+        activeOrders.addOrder(buildOrderAdd(0, 99, 12, BID, "3"));
+
+        activeOrders.updateOrder(buildOrderUpdate(0, 100, 5, BID, "1"));
+        activeOrders.updateOrder(buildOrderUpdate(3, 101, 7, ASK, "2"));
+        assertEquals(17, activeOrders.totalBidVolume().getRealValue());
+        assertEquals(7, activeOrders.totalAskVolume().getRealValue());
+        assertEquals(2, activeOrders.totalNumberOfBidOrders());
+        assertEquals(1, activeOrders.totalNumberOfAskOrders());
+
+        activeOrders.removeOrder("1");
+        activeOrders.removeOrder("2");
+        activeOrders.removeOrder("3");
+        assertEquals(0, activeOrders.totalOrderVolume().getRealValue());
+        assertEquals(0, activeOrders.totalNumberOfActiveOrders());
+    }
+
+    @Test
+    void test_price_at_level_after_remove() {
+        activeOrders.addOrder(buildOrderAdd(0, 100, 10, BID, "1"));
+        activeOrders.addOrder(buildOrderAdd(0, 98, 10, BID, "2"));
+        activeOrders.addOrder(buildOrderAdd(0, 99, 10, BID, "3"));
+        activeOrders.addOrder(buildOrderAdd(0, 97, 10, BID, "4"));
+        activeOrders.removeOrder("3");
+
+        assertEquals(100, activeOrders.getBidPriceAtPriceLevel(1).get().getRealValue());
+        assertEquals(98, activeOrders.getBidPriceAtPriceLevel(2).get().getRealValue());
+        assertEquals(97, activeOrders.getBidPriceAtPriceLevel(3).get().getRealValue());
+        assertEquals(0, activeOrders.totalBidVolumeAtPriceLevel(4).getRealValue());
+    }
+
+    @Test
+    void test_apply_fill() {
+        activeOrders.addOrder(buildOrderAdd(0, 100, 10, BID, "1"));
+        activeOrders.addOrder(buildOrderAdd(1, 100, 10, BID, "2"));
+
+        activeOrders.applyFill(buildOrderUpdate(0, 100, 4, BID, "1"));
+        assertEquals(14, activeOrders.totalBidVolume().getRealValue());
+        assertEquals(14, activeOrders.totalBidVolumeAtPriceLevel(1).getRealValue());
+        assertEquals(4, activeOrders.getOrder("1").currentVolume().getRealValue());
+
+        activeOrders.applyFill(buildOrderDelete(0, 100, 4, BID, "1"));
+        assertEquals(1, activeOrders.totalNumberOfBidOrders());
+        assertEquals(10, activeOrders.totalBidVolume().getRealValue());
+
+        activeOrders.addOrder(buildOrderAdd(2, 101, 5, BID, "3"));
+        assertEquals(2, activeOrders.totalNumberOfActiveOrders());
+        assertEquals(5, activeOrders.getOrder("3").currentVolume().getRealValue());
+        assertEquals(10, activeOrders.getOrder("2").currentVolume().getRealValue());
+    }
+
+    @Test
+    void test_aggregates_are_zero_once_side_is_empty() {
+        activeOrders.addOrder(buildOrderAdd(0, 100, 0.1, BID, "1"));
+        activeOrders.addOrder(buildOrderAdd(1, 101, 0.2, BID, "2"));
+        activeOrders.addOrder(buildOrderAdd(2, 102, 0.1, ASK, "3"));
+        activeOrders.addOrder(buildOrderAdd(3, 102, 0.2, ASK, "4"));
+
+        activeOrders.removeOrder("1");
+        activeOrders.removeOrder("2");
+        activeOrders.removeOrder("3");
+        activeOrders.removeOrder("4");
+        assertEquals(0, activeOrders.totalBidVolume().getRealValue());
+        assertEquals(0, activeOrders.totalAskVolume().getRealValue());
+        assertEquals(0, activeOrders.totalOrderVolume().getRealValue());
+    }
+}
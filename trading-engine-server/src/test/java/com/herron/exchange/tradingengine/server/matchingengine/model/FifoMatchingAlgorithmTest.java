@@ -1,5 +1,6 @@
 package com.herron.exchange.tradingengine.server.matchingengine.model;
 
+import com.herron.exchange.common.api.common.api.referencedata.orderbook.OrderbookData;
 import com.herron.exchange.common.api.common.api.trading.Order;
 import com.herron.exchange.common.api.common.api.trading.OrderbookEvent;
 import com.herron.exchange.common.api.common.enums.TimeInForceEnum;
@@ -9,6 +10,7 @@ import com.herron.exchange.common.api.common.messages.trading.Trade;
 import com.herron.exchange.common.api.common.messages.trading.TradeExecution;
 import com.herron.exchange.common.api.common.messages.trading.TradingCalendar;
 import com.herron.exchange.tradingengine.server.matchingengine.api.Orderbook;
+import com.herron.exchange.tradingengine.server.matchingengine.concurrency.OrderbookConcurrencyMode;
 import com.herron.exchange.tradingengine.server.matchingengine.factory.OrderbookFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,6 +18,9 @@ import org.junit.jupiter.api.Test;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static com.herron.exchange.common.api.common.enums.AuctionAlgorithmEnum.DUTCH;
 import static com.herron.exchange.common.api.common.enums.MatchingAlgorithmEnum.FIFO;
@@ -32,10 +37,11 @@ import static org.junit.jupiter.api.Assertions.*;
 
 class FifoMatchingAlgorithmTest {
     private Orderbook orderbook;
+    private OrderbookData orderbookData;
 
     @BeforeEach
     void init() {
-        var orderbookData = ImmutableDefaultOrderbookData.builder()
+        this.orderbookData = ImmutableDefaultOrderbookData.builder()
                 .orderbookId("orderbookId")
                 .matchingAlgorithm(FIFO)
                 .tradingCurrency("eur")
@@ -193,6 +199,67 @@ class FifoMatchingAlgorithmTest {
         assertTrue(trade.isBidSideAggressor());
     }
 
+    @Test
+    void test_matching_algorithm_partial_fill_keeps_time_priority() {
+        orderbook.updateOrderbook(buildOrderAdd(0, 100, 10, BID, "1"));
+        orderbook.updateOrderbook(buildOrderAdd(1, 100, 10, BID, "2"));
+        var order = buildOrderAdd(2, 100, 4, ASK, "3");
+        orderbook.updateOrderbook(order);
+        orderbook.runMatchingAlgorithm(order);
+
+        assertEquals(6, orderbook.getOrder("1").currentVolume().getRealValue());
+        assertEquals("1", orderbook.getBestBidOrder().get().orderId());
+
+        order = buildOrderAdd(3, 100, 8, ASK, "4");
+        orderbook.updateOrderbook(order);
+        List<OrderbookEvent> matchingEvents = orderbook.runMatchingAlgorithm(order).messages();
+
+        Trade trade = matchingEvents.stream().filter(m -> m instanceof Trade).map(t -> (Trade) t).findFirst().get();
+        assertEquals("1", trade.bidOrderId());
+        assertEquals(6, trade.volume().getRealValue());
+        assertEquals(8, orderbook.getOrder("2").currentVolume().getRealValue());
+    }
+
+    @Test
+    void test_amend_volume_down_keeps_time_priority() {
+        orderbook.updateOrderbook(buildOrderAdd(0, 100, 10, BID, "1"));
+        orderbook.updateOrderbook(buildOrderAdd(1, 100, 10, BID, "2"));
+        orderbook.updateOrderbook(buildOrderUpdate(2, 100, 5, BID, "1"));
+
+        assertEquals("1", orderbook.getBestBidOrder().get().orderId());
+        assertEquals(5, orderbook.getOrder("1").currentVolume().getRealValue());
+        assertEquals(15, orderbook.totalBidVolume().getRealValue());
+    }
+
+    @Test
+    void test_amend_volume_up_loses_time_priority() {
+        orderbook.updateOrderbook(buildOrderAdd(0, 100, 10, BID, "1"));
+        orderbook.updateOrderbook(buildOrderAdd(1, 100, 10, BID, "2"));
+        orderbook.updateOrderbook(buildOrderUpdate(2, 100, 11, BID, "1"));
+
+        assertEquals("2", orderbook.getBestBidOrder().get().orderId());
+        assertEquals(21, orderbook.totalBidVolume().getRealValue());
+    }
+
+    @Test
+    void test_matching_algorithm_sweeps_multiple_levels() {
+        orderbook.updateOrderbook(buildOrderAdd(0, 100, 10, ASK, "1"));
+        orderbook.updateOrderbook(buildOrderAdd(1, 101, 10, ASK, "2"));
+        orderbook.updateOrderbook(buildOrderAdd(2, 101, 10, ASK, "3"));
+        orderbook.updateOrderbook(buildOrderAdd(3, 103, 10, ASK, "4"));
+        var order = buildOrderAdd(4, 102, 35, BID, "5");
+        orderbook.updateOrderbook(order);
+        List<OrderbookEvent> matchingEvents = orderbook.runMatchingAlgorithm(order).messages();
+
+        List<Trade> trades = matchingEvents.stream().filter(m -> m instanceof Trade).map(t -> (Trade) t).toList();
+        assertEquals(3, trades.size());
+        assertEquals(List.of("1", "2", "3"), trades.stream().map(Trade::askOrderId).toList());
+        assertEquals(5, orderbook.getOrder("5").currentVolume().getRealValue());
+        assertEquals(102, orderbook.getBestBidPrice().get().getRealValue());
+        assertEquals(103, orderbook.getBestAskPrice().get().getRealValue());
+        assertEquals(2, orderbook.totalNumberOfActiveOrders());
+    }
+
     @Test
     void test_matching_algorithm_self_match() {
         orderbook.updateOrderbook(buildOrderAdd(0, 100, 10, BID, "1", new Participant(new Member("member"), new User("user"))));
@@ -476,4 +543,37 @@ class FifoMatchingAlgorithmTest {
         assertEquals(8, orderbook.totalAskVolumeAtPriceLevel(2).getRealValue());
         assertEquals(7, orderbook.totalAskVolumeAtPriceLevel(3).getRealValue());
     }
+
+    @Test
+    void test_single_writer_orderbook_serves_other_threads_from_published_snapshot() throws Exception {
+        var singleWriterOrderbook = OrderbookFactory.createOrderbook(orderbookData, 0, OrderbookConcurrencyMode.SINGLE_WRITER);
+        singleWriterOrderbook.updateState(PRE_TRADE);
+        singleWriterOrderbook.updateState(CONTINUOUS_TRADING);
+        singleWriterOrderbook.updateOrderbook(buildOrderAdd(0, 100, 10, BID, "1"));
+        singleWriterOrderbook.updateOrderbook(buildOrderAdd(1, 101, 5, ASK, "2"));
+
+        ExecutorService reader = Executors.newSingleThreadExecutor();
+        try {
+            assertEquals(Optional.empty(), reader.submit(singleWriterOrderbook::getBestBidPrice).get());
+            assertEquals(2, reader.submit(singleWriterOrderbook::totalNumberOfActiveOrders).get());
+
+            singleWriterOrderbook.publishSnapshotIfRequested();
+            assertEquals(Optional.of(Price.create(100)), reader.submit(singleWriterOrderbook::getBestBidPrice).get());
+            assertEquals(1, reader.submit(() -> singleWriterOrderbook.getMarketByLevel(5)).get().levelData().size());
+
+            singleWriterOrderbook.updateOrderbook(buildOrderAdd(2, 99, 4, BID, "3"));
+            assertEquals(2, reader.submit(singleWriterOrderbook::totalNumberOfBidPriceLevels).get());
+            assertEquals(0, reader.submit(() -> singleWriterOrderbook.totalBidVolumeAtPriceLevel(2)).get().getRealValue());
+
+            singleWriterOrderbook.publishSnapshotIfRequested();
+            assertEquals(4, reader.submit(() -> singleWriterOrderbook.totalBidVolumeAtPriceLevel(2)).get().getRealValue());
+            assertEquals(Price.create(99), reader.submit(() -> singleWriterOrderbook.getMarketByLevel(5)).get().levelData().get(1).bidPrice());
+            assertEquals(4, singleWriterOrderbook.totalBidVolumeAtPriceLevel(2).getRealValue());
+
+            var exception = assertThrows(ExecutionException.class, () -> reader.submit(() -> singleWriterOrderbook.updateOrderbook(buildOrderAdd(3, 98, 1, BID, "4"))).get());
+            assertInstanceOf(IllegalStateException.class, exception.getCause());
+        } finally {
+            reader.shutdown();
+        }
+    }
 }
@@ -27,8 +27,7 @@ import static com.herron.exchange.common.api.common.enums.OrderTypeEnum.LIMIT;
 import static com.herron.exchange.common.api.common.enums.OrderTypeEnum.MARKET;
 import static com.herron.exchange.common.api.common.enums.TimeInForceEnum.FOK;
 import static com.herron.exchange.common.api.common.enums.TimeInForceEnum.SESSION;
-import static com.herron.exchange.common.api.common.enums.TradingStatesEnum.CONTINUOUS_TRADING;
-import static com.herron.exchange.common.api.common.enums.TradingStatesEnum.PRE_TRADE;
+import static com.herron.exchange.common.api.common.enums.TradingStatesEnum.*;
 import static com.herron.exchange.tradingengine.server.matchingengine.utils.MessageCreatorTestUtils.buildOrderAdd;
 import static com.herron.exchange.tradingengine.server.matchingengine.utils.MessageCreatorTestUtils.buildOrderUpdate;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -88,6 +87,23 @@ class ProRataMatchingAlgorithmTest {
         assertEquals(99, orderbook.getOrder("1").price().getRealValue());
     }
 
+    @Test
+    void test_best_order_follows_volume_after_fill_and_amend() {
+        orderbook.updateOrderbook(buildOrderAdd(0, 100, 10, BID, "1"));
+        orderbook.updateOrderbook(buildOrderAdd(1, 100, 30, BID, "2"));
+        assertEquals("2", orderbook.getBestBidOrder().get().orderId());
+
+        var order = buildOrderAdd(2, 100, 20, ASK, "3");
+        orderbook.updateOrderbook(order);
+        orderbook.runMatchingAlgorithm(order);
+        assertEquals(5, orderbook.getOrder("1").currentVolume().getRealValue());
+        assertEquals(15, orderbook.getOrder("2").currentVolume().getRealValue());
+        assertEquals("2", orderbook.getBestBidOrder().get().orderId());
+
+        orderbook.updateOrderbook(buildOrderUpdate(1, 100, 4, BID, "2"));
+        assertEquals("1", orderbook.getBestBidOrder().get().orderId());
+    }
+
     @Test
     void test_best_price_after_insert_orders() {
         orderbook.updateOrderbook(buildOrderAdd(0, 100, 10, BID, "1"));
@@ -512,4 +528,28 @@ class ProRataMatchingAlgorithmTest {
         assertEquals(PARTIAL_FILL, ((Order) result.get(4)).orderOperationCause());
         assertEquals(20, ((Trade) result.get(5)).volume().getRealValue());
     }
-}
\ No newline at end of file
+
+    @Test
+    void test_auction_uncross_allocates_marginal_level_pro_rata() {
+        orderbook.updateOrderbook(buildOrderAdd(0, 100, 30, BID, "1"));
+        orderbook.updateOrderbook(buildOrderAdd(1, 100, 10, BID, "2"));
+        orderbook.updateOrderbook(buildOrderAdd(2, 101, 5, BID, "3"));
+        orderbook.updateOrderbook(buildOrderAdd(3, 99, 25, ASK, "4"));
+
+        orderbook.updateState(CLOSING_AUCTION_TRADING);
+        orderbook.updateState(CLOSING_AUCTION_RUN);
+        List<Trade> trades = orderbook.runAuctionAlgorithm().messages().stream()
+                .filter(Trade.class::isInstance)
+                .map(Trade.class::cast)
+                .toList();
+
+        assertEquals(3, trades.size());
+        assertEquals(5, trades.get(0).volume().getRealValue());
+        assertEquals(15, trades.get(1).volume().getRealValue());
+        assertEquals(5, trades.get(2).volume().getRealValue());
+        assertEquals(100, trades.get(0).price().getRealValue());
+        assertEquals(15, orderbook.getOrder("1").currentVolume().getRealValue());
+        assertEquals(5, orderbook.getOrder("2").currentVolume().getRealValue());
+        assertEquals(0, orderbook.totalNumberOfAskOrders());
+    }
+}
@@ -0,0 +1,129 @@
+package com.herron.exchange.tradingengine.server.matchingengine.model;
+
+import com.herron.exchange.tradingengine.server.matchingengine.comparator.FifoOrderBookComparator;
+import com.herron.exchange.tradingengine.server.matchingengine.orderbook.ActiveOrders;
+import com.herron.exchange.tradingengine.server.matchingengine.orderbook.side.TickLadderPriceLevelSide;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static com.herron.exchange.common.api.common.enums.OrderSideEnum.ASK;
+import static com.herron.exchange.common.api.common.enums.OrderSideEnum.BID;
+import static com.herron.exchange.tradingengine.server.matchingengine.utils.MessageCreatorTestUtils.buildOrderAdd;
+import static com.herron.exchange.tradingengine.server.matchingengine.utils.MessageCreatorTestUtils.buildOrderUpdate;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TickLadderPriceLevelSideTest {
+    private ActiveOrders activeOrders;
+
+    @BeforeEach
+    void init() {
+        this.activeOrders = new ActiveOrders(
+                new FifoOrderBookComparator(),
+                new TickLadderPriceLevelSide(BID, 0.01, 8),
+                new TickLadderPriceLevelSide(ASK, 0.01, 8)
+        );
+    }
+
+    @Test
+    void test_best_price_after_insert_and_remove() {
+        activeOrders.addOrder(buildOrderAdd(0, 100.00, 10, BID, "1"));
+        activeOrders.addOrder(buildOrderAdd(0, 100.01, 10, BID, "2"));
+        activeOrders.addOrder(buildOrderAdd(0, 100.03, 10, ASK, "3"));
+        activeOrders.addOrder(buildOrderAdd(0, 100.02, 10, ASK, "4"));
+        assertEquals(100.01, activeOrders.getBestBidPrice().get().getRealValue());
+        assertEquals(100.02, activeOrders.getBestAskPrice().get().getRealValue());
+
+        activeOrders.removeOrder("2");
+        activeOrders.removeOrder("4");
+        assertEquals(100.00, activeOrders.getBestBidPrice().get().getRealValue());
+        assertEquals(100.03, activeOrders.getBestAskPrice().get().getRealValue());
+
+        activeOrders.removeOrder("1");
+        activeOrders.removeOrder("3");
+        assertTrue(activeOrders.getBestBidPrice().isEmpty());
+        assertTrue(activeOrders.getBestAskPrice().isEmpty());
+    }
+
+    @Test
+    void test_prices_outside_of_ladder_recentre() {
+        activeOrders.addOrder(buildOrderAdd(0, 100.00, 10, BID, "1"));
+        activeOrders.addOrder(buildOrderAdd(0, 90.00, 11, BID, "2"));
+        activeOrders.addOrder(buildOrderAdd(0, 110.00, 12, BID, "3"));
+
+        assertEquals(3, activeOrders.totalNumberOfBidPriceLevels());
+        assertEquals(110.00, activeOrders.getBidPriceAtPriceLevel(1).get().getRealValue());
+        assertEquals(100.00, activeOrders.getBidPriceAtPriceLevel(2).get().getRealValue());
+        assertEquals(90.00, activeOrders.getBidPriceAtPriceLevel(3).get().getRealValue());
+        assertEquals(11, activeOrders.totalBidVolumeAtPriceLevel(3).getRealValue());
+    }
+
+    @Test
+    void test_volume_at_level() {
+        activeOrders.addOrder(buildOrderAdd(0, 100.00, 11, BID, "1"));
+        activeOrders.addOrder(buildOrderAdd(2, 100.02, 13, ASK, "2"));
+        activeOrders.addOrder(buildOrderAdd(0, 99.99, 12, BID, "3"));
+        activeOrders.addOrder(buildOrderAdd(2, 100.03, 10, ASK, "4"));
+        activeOrders.addOrder(buildOrderAdd(0, 100.00, 10, BID, "5"));
+        assertEquals(21, activeOrders.totalBidVolumeAtPriceLevel(1).getRealValue());
+        assertEquals(13, activeOrders.totalAskVolumeAtPriceLevel(1).getRealValue());
+        assertEquals(12, activeOrders.totalBidVolumeAtPriceLevel(2).getRealValue());
+        assertEquals(10, activeOrders.totalAskVolumeAtPriceLevel(2).getRealValue());
+
+        activeOrders.removeOrder("1");
+        activeOrders.removeOrder("2");
+        assertEquals(10, activeOrders.totalBidVolumeAtPriceLevel(1).getRealValue());
+        assertEquals(10, activeOrders.totalAskVolumeAtPriceLevel(1).getRealValue());
+        assertEquals(0, activeOrders.totalAskVolumeAtPriceLevel(2).getRealValue());
+    }
+
+    @Test
+    void test_price_at_level_after_remove() {
+        for (int i = 0; i < 20; i++) {
+            activeOrders.addOrder(buildOrderAdd(0, (10000 - i) / 100.0, 10, BID, "b" + i));
+            activeOrders.addOrder(buildOrderAdd(0, (10001 + i) / 100.0, 10, ASK, "a" + i));
+        }
+        activeOrders.removeOrder("b1");
+        activeOrders.removeOrder("a0");
+
+        assertEquals(100.00, activeOrders.getBidPriceAtPriceLevel(1).get().getRealValue());
+        assertEquals(99.98, activeOrders.getBidPriceAtPriceLevel(2).get().getRealValue());
+        assertEquals(99.81, activeOrders.getBidPriceAtPriceLevel(19).get().getRealValue());
+        assertTrue(activeOrders.getBidPriceAtPriceLevel(20).isEmpty());
+        assertEquals(100.02, activeOrders.getAskPriceAtPriceLevel(1).get().getRealValue());
+        assertEquals(100.20, activeOrders.getAskPriceAtPriceLevel(19).get().getRealValue());
+        assertTrue(activeOrders.getAskPriceAtPriceLevel(20).isEmpty());
+    }
+
+    @Test
+    void test_off_tick_prices_are_rejected() {
+        var activeOrders = new ActiveOrders(
+                new FifoOrderBookComparator(),
+                new TickLadderPriceLevelSide(BID, 0.05, 8),
+                new TickLadderPriceLevelSide(ASK, 0.05, 8)
+        );
+        assertTrue(activeOrders.addOrder(buildOrderAdd(0, 100.05, 10, BID, "1")));
+        assertFalse(activeOrders.addOrder(buildOrderAdd(0, 100.03, 10, BID, "2")));
+        assertFalse(activeOrders.updateOrder(buildOrderUpdate(0, 100.03, 10, BID, "1")));
+
+        assertEquals(1, activeOrders.totalNumberOfBidPriceLevels());
+        assertEquals(10, activeOrders.totalBidVolumeAtPriceLevel(1).getRealValue());
+        assertNull(activeOrders.getOrder("2"));
+        assertEquals(100.05, activeOrders.getOrder("1").price().getRealValue());
+    }
+
+    @Test
+    void test_prices_beyond_max_capacity_are_rejected() {
+        var activeOrders = new ActiveOrders(
+                new FifoOrderBookComparator(),
+                new TickLadderPriceLevelSide(BID, 0.01, 8, 64),
+                new TickLadderPriceLevelSide(ASK, 0.01, 8, 64)
+        );
+        assertTrue(activeOrders.addOrder(buildOrderAdd(0, 100.00, 10, BID, "1")));
+        assertTrue(activeOrders.addOrder(buildOrderAdd(0, 99.69, 10, BID, "2")));
+        assertFalse(activeOrders.addOrder(buildOrderAdd(0, 99.50, 10, BID, "3")));
+        assertFalse(activeOrders.addOrder(buildOrderAdd(0, 1_000_000.00, 10, BID, "4")));
+
+        assertEquals(2, activeOrders.totalNumberOfBidPriceLevels());
+        assertEquals(99.69, activeOrders.getBidPriceAtPriceLevel(2).get().getRealValue());
+    }
+}
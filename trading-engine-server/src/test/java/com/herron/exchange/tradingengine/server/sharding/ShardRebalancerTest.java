@@ -0,0 +1,47 @@
+package com.herron.exchange.tradingengine.server.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardRebalancerTest {
+    private final ShardRebalancer rebalancer = new ShardRebalancer(null, 100, 1000);
+
+    @Test
+    void test_busiest_orderbook_moves_to_idlest_shard() {
+        var loads = List.of(
+                new OrderbookLoad("ericsson", 1, 500),
+                new OrderbookLoad("volvo", 1, 200),
+                new OrderbookLoad("saab", 0, 50),
+                new OrderbookLoad("abb", 2, 10)
+        );
+
+        var migration = rebalancer.selectMigration(new int[]{40, 300, 5}, loads).orElseThrow();
+        assertEquals("ericsson", migration.orderbookId());
+        assertEquals(1, migration.sourceShard());
+        assertEquals(2, migration.targetShard());
+    }
+
+    @Test
+    void test_no_migration_below_threshold_or_when_balanced() {
+        var loads = List.of(
+                new OrderbookLoad("ericsson", 1, 500),
+                new OrderbookLoad("volvo", 1, 200)
+        );
+
+        assertTrue(rebalancer.selectMigration(new int[]{0, 99}, loads).isEmpty());
+        assertTrue(rebalancer.selectMigration(new int[]{150, 300}, loads).isEmpty());
+    }
+
+    @Test
+    void test_single_active_orderbook_is_not_moved() {
+        var loads = List.of(
+                new OrderbookLoad("ericsson", 1, 500),
+                new OrderbookLoad("volvo", 1, 0)
+        );
+
+        assertTrue(rebalancer.selectMigration(new int[]{0, 300}, loads).isEmpty());
+    }
+}
@@ -0,0 +1,48 @@
+package com.herron.exchange.tradingengine.server.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardRouterTest {
+
+    @Test
+    void test_hash_router_is_stable_and_within_range() {
+        var router = new HashShardRouter(4);
+        int[] nrOfOrderbooksPerShard = new int[4];
+        for (int i = 0; i < 1000; i++) {
+            String orderbookId = "orderbook-" + i;
+            int shard = router.getShard(orderbookId);
+            assertTrue(shard >= 0 && shard < 4);
+            assertEquals(shard, router.getShard(orderbookId));
+            nrOfOrderbooksPerShard[shard]++;
+        }
+        for (int nrOfOrderbooks : nrOfOrderbooksPerShard) {
+            assertTrue(nrOfOrderbooks > 0);
+        }
+    }
+
+    @Test
+    void test_explicit_router_prefers_orderbook_then_product_then_hash() {
+        var router = new ExplicitShardRouter(
+                4,
+                Map.of("ericsson", 3),
+                Map.of("equity", 1),
+                orderbookId -> orderbookId.startsWith("future") ? "future" : "equity"
+        );
+        var hashRouter = new HashShardRouter(4);
+
+        assertEquals(3, router.getShard("ericsson"));
+        assertEquals(1, router.getShard("volvo"));
+        assertEquals(hashRouter.getShard("future-omx"), router.getShard("future-omx"));
+        assertEquals(4, router.nrOfShards());
+    }
+
+    @Test
+    void test_explicit_router_rejects_unknown_shards() {
+        assertThrows(IllegalArgumentException.class, () -> new ExplicitShardRouter(2, Map.of("ericsson", 2), Map.of(), id -> id));
+        assertThrows(IllegalArgumentException.class, () -> new ExplicitShardRouter(2, Map.of(), Map.of("equity", -1), id -> id));
+    }
+}